@@ -0,0 +1,117 @@
+package com.example.todo.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result with the committed baseline and exits with status 1 when a
+ * benchmark got slower, or allocates more per operation ({@code gc.alloc.rate.norm}), by
+ * more than the tolerance. Benchmarks missing from either file are listed but do not fail.
+ * Without a baseline there is nothing to compare with: the check is skipped with a warning,
+ * since numbers recorded on another machine would not be comparable either.
+ * <p>
+ * Arguments: result file, baseline file, tolerance (e.g. {@code 0.10} for 10%). With
+ * {@code --record} first, the result is copied to the baseline instead of compared.
+ */
+public final class BaselineCheck {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+    private static final String RECORD = "--record";
+
+    /**
+     * Allocation differences below this many bytes per operation are noise, not growth.
+     */
+    private static final double MIN_ALLOCATION_GROWTH = 16;
+
+    private BaselineCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        boolean record = args.length > 0 && RECORD.equals(args[0]);
+        int first = record ? 1 : 0;
+        Path resultFile = Path.of(args[first]);
+        Path baselineFile = Path.of(args[first + 1]);
+        double tolerance = Double.parseDouble(args[first + 2]);
+        if (record) {
+            Files.copy(resultFile, baselineFile, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Recorded " + resultFile + " as the baseline at " + baselineFile);
+            return;
+        }
+        if (!Files.exists(baselineFile)) {
+            System.err.println("WARNING: No baseline at " + baselineFile + ", benchmark check skipped; record one"
+                    + " from a run on the machine that runs the check with " + RECORD + ".");
+            return;
+        }
+        Map<String, JsonNode> results = read(resultFile);
+        Map<String, JsonNode> baseline = read(baselineFile);
+
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, JsonNode> entry : results.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.println("new:       " + entry.getKey());
+                continue;
+            }
+            JsonNode after = entry.getValue();
+            double scoreBefore = before.path("primaryMetric").path("score").asDouble();
+            double scoreAfter = after.path("primaryMetric").path("score").asDouble();
+            // Throughput regresses downwards, every other mode measures time per operation.
+            boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+            double slowdown = higherIsBetter
+                    ? (scoreBefore - scoreAfter) / scoreBefore
+                    : (scoreAfter - scoreBefore) / scoreBefore;
+            if (slowdown > tolerance) {
+                regressions.add(String.format("%s is %.0f%% slower", entry.getKey(), slowdown * 100));
+            }
+            System.out.printf("%-10s %s: %.3f -> %.3f %s%n", slowdown > tolerance ? "slower:" : "",
+                    entry.getKey(), scoreBefore, scoreAfter, after.path("primaryMetric").path("scoreUnit").asText());
+
+            double allocatedBefore = allocation(before);
+            double allocatedAfter = allocation(after);
+            if (allocatedBefore >= 0 && allocatedAfter >= 0
+                    && allocatedAfter - allocatedBefore > Math.max(MIN_ALLOCATION_GROWTH, allocatedBefore * tolerance)) {
+                regressions.add(String.format("%s allocates %.0f B/op, was %.0f B/op",
+                        entry.getKey(), allocatedAfter, allocatedBefore));
+            }
+        }
+        for (String key : baseline.keySet()) {
+            if (!results.containsKey(key)) {
+                System.out.println("not run:   " + key);
+            }
+        }
+
+        if (!regressions.isEmpty()) {
+            System.out.println();
+            regressions.forEach(regression -> System.out.println("Regression: " + regression));
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Results by benchmark name and parameters.
+     */
+    private static Map<String, JsonNode> read(Path file) throws IOException {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file.toFile())) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            result.path("params").fields().forEachRemaining(param ->
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            byKey.put(key.toString(), result);
+        }
+        return byKey;
+    }
+
+    private static double allocation(JsonNode result) {
+        JsonNode metric = result.path("secondaryMetrics").path(ALLOCATION);
+        return metric.isMissingNode() ? -1 : metric.path("score").asDouble();
+    }
+}
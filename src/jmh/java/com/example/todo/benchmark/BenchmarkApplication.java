@@ -0,0 +1,81 @@
+package com.example.todo.benchmark;
+
+import com.example.todo.TodoApplication;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The whole application on a random port and a fresh in-memory H2 database migrated by
+ * Flyway, for benchmarks of code that talks to the database. Statements executed through
+ * the application's data source are counted per thread, so a benchmark can report how many
+ * its operation needed without counting the scheduled jobs.
+ */
+public final class BenchmarkApplication {
+
+    private static final ThreadLocal<long[]> STATEMENTS = ThreadLocal.withInitial(() -> new long[1]);
+
+    private BenchmarkApplication() {
+    }
+
+    public static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(TodoApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN")
+                .initializers(context -> context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+                    @Override
+                    public Object postProcessAfterInitialization(Object bean, String beanName) {
+                        if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+                            return ProxyDataSourceBuilder.create(dataSource)
+                                    .name("benchmark")
+                                    .listener(new StatementCounter())
+                                    .build();
+                        }
+                        return bean;
+                    }
+                }))
+                .run();
+    }
+
+    /**
+     * Inserts a user directly and returns its id.
+     */
+    public static long createUser(ConfigurableApplicationContext context) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        String username = "bench_" + UUID.randomUUID().toString().substring(0, 8);
+        jdbcTemplate.update(
+                "INSERT INTO users (username, password, email, role, created_at) VALUES (?, 'x', ?, 'USER', CURRENT_TIMESTAMP)",
+                username, username + "@example.com");
+        return jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, username);
+    }
+
+    /**
+     * Statements the calling thread has executed so far; a JDBC batch counts once.
+     */
+    public static long statements() {
+        return STATEMENTS.get()[0];
+    }
+
+    private static final class StatementCounter implements QueryExecutionListener {
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            STATEMENTS.get()[0]++;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.todo.dto.task;
+
+import com.example.todo.entity.Task;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing a page of {@code GET /api/tasks} as JSON, with the object mapper settings Spring
+ * Boot applies to the application's, at the default page size and at larger ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class PaginatedTaskResponseSerializationBenchmark {
+
+    @Param({"20", "100", "1000"})
+    public int items;
+
+    private ObjectMapper objectMapper;
+    private PaginatedTaskResponse page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        LocalDateTime now = LocalDateTime.now();
+        List<TaskResponse> content = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            content.add(TaskResponse.builder()
+                    .id(1_000_000L + i)
+                    .title("Task " + i)
+                    .description(i % 2 == 0 ? "Description of task " + i : null)
+                    .priority(Task.Priority.values()[i % Task.Priority.values().length])
+                    .status(Task.Status.values()[i % Task.Status.values().length])
+                    .dueDate(i % 3 == 0 ? LocalDate.now().plusDays(i % 30) : null)
+                    .userId(42L)
+                    .createdAt(now.minusMinutes(i))
+                    .updatedAt(now.minusMinutes(i))
+                    .build());
+        }
+        page = PaginatedTaskResponse.builder()
+                .content(content)
+                .number(0)
+                .size(items)
+                .totalElements(10L * items)
+                .totalPages(10)
+                .first(true)
+                .last(false)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
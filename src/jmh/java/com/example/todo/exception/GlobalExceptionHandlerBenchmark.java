@@ -0,0 +1,78 @@
+package com.example.todo.exception;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning the exceptions clients cause most into error responses. The exceptions are built
+ * once, so only the handler is measured and not the stack trace capture of throwing them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class GlobalExceptionHandlerBenchmark {
+
+    private GlobalExceptionHandler handler;
+    private ResourceNotFoundException notFound;
+    private IllegalArgumentException badArgument;
+    private BadCredentialsException badCredentials;
+    private MethodArgumentNotValidException invalidBody;
+    private RuntimeException wrappedUnreadableBody;
+
+    @Setup
+    public void setUp() {
+        handler = new GlobalExceptionHandler();
+        notFound = new ResourceNotFoundException("Task not found with id: 42");
+        badArgument = new IllegalArgumentException("Page size must be between 1 and 100");
+        badCredentials = new BadCredentialsException("Bad credentials");
+
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(new Object(), "taskCreateRequest");
+        bindingResult.addError(new FieldError("taskCreateRequest", "title", "Title is required"));
+        bindingResult.addError(new FieldError("taskCreateRequest", "description", "Description is too long"));
+        invalidBody = new MethodArgumentNotValidException(null, bindingResult);
+
+        HttpInputMessage body = new MockHttpInputMessage(new byte[0]);
+        wrappedUnreadableBody = new RuntimeException(new HttpMessageNotReadableException("Unexpected end of input", body));
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, String>> notFound() {
+        return handler.handleNotFound(notFound);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, String>> illegalArgument() {
+        return handler.handleIllegalArgument(badArgument);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, String>> badCredentials() {
+        return handler.handleBadCredentials(badCredentials);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, String>> validationErrors() {
+        return handler.handleValidationErrors(invalidBody);
+    }
+
+    /**
+     * The fallback handler finding a JSON parse failure among the causes.
+     */
+    @Benchmark
+    public ResponseEntity<Map<String, String>> unreadableBodyCause() {
+        return handler.handleGeneric(wrappedUnreadableBody);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.todo.security;
+
+import com.example.todo.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * The JWT filter as every authenticated request runs it, with a chain that does nothing:
+ * a token from the verified-token cache turned into a principal from its claims, without
+ * a database lookup. The anonymous case is a request without {@code Authorization}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest authenticatedRequest;
+    private MockHttpServletRequest anonymousRequest;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        JwtTokenProvider provider = JwtTokenProviderBenchmark.provider(10_000);
+        // Only consulted for tokens without a user id claim, which these are not.
+        filter = new JwtAuthenticationFilter(provider, mock(CustomUserDetailsService.class), new SimpleMeterRegistry());
+
+        CustomUserDetails details = new CustomUserDetails(User.builder()
+                .id(42L)
+                .username("benchmark")
+                .password("encoded")
+                .email("benchmark@example.com")
+                .role("USER")
+                .build());
+        String token = provider.generateToken(
+                new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities()));
+
+        authenticatedRequest = new MockHttpServletRequest("GET", "/api/tasks");
+        authenticatedRequest.addHeader("Authorization", "Bearer " + token);
+        anonymousRequest = new MockHttpServletRequest("GET", "/api/tasks");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Authentication authenticatedRequest() throws Exception {
+        return filter(authenticatedRequest);
+    }
+
+    @Benchmark
+    public Authentication anonymousRequest() throws Exception {
+        return filter(anonymousRequest);
+    }
+
+    /**
+     * Clears the context again, as Spring Security does at the end of every request.
+     */
+    private Authentication filter(MockHttpServletRequest request) throws Exception {
+        filter.doFilterInternal(request, response, NO_OP_CHAIN);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
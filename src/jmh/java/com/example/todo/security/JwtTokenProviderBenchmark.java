@@ -0,0 +1,71 @@
+package com.example.todo.security;
+
+import com.example.todo.entity.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issuing tokens at login, and checking them on every request: once with the signature
+ * verified (a token the verified-token cache has not seen) and once answered from the cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class JwtTokenProviderBenchmark {
+
+    private JwtTokenProvider cachingProvider;
+    private JwtTokenProvider verifyingProvider;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachingProvider = provider(10_000);
+        verifyingProvider = provider(0);
+        User user = User.builder()
+                .id(42L)
+                .username("benchmark")
+                .password("encoded")
+                .email("benchmark@example.com")
+                .role("USER")
+                .build();
+        CustomUserDetails details = new CustomUserDetails(user);
+        authentication = new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities());
+        token = cachingProvider.generateToken(authentication);
+        cachingProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachingProvider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public boolean validateTokenVerifyingSignature() {
+        return verifyingProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public boolean validateTokenFromCache() {
+        return cachingProvider.validateToken(token);
+    }
+
+    /**
+     * A provider as the application configures it; a cache size of 0 disables the cache.
+     */
+    static JwtTokenProvider provider(int verifiedTokenCacheSize) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", "benchmark-secret-key-1234567890abcdef-1234567890");
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", 86_400_000L);
+        ReflectionTestUtils.setField(provider, "verifiedTokenCacheSize", verifiedTokenCacheSize);
+        provider.validateSecret();
+        return provider;
+    }
+}
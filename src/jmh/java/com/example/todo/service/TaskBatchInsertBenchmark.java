@@ -0,0 +1,100 @@
+package com.example.todo.service;
+
+import com.example.todo.benchmark.BenchmarkApplication;
+import com.example.todo.dto.task.BatchTaskResponse;
+import com.example.todo.dto.task.TaskCreateRequest;
+import com.example.todo.entity.Task;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creating {@code tasks} tasks with one {@code POST /api/tasks/batch} ({@link TaskService#createTasks})
+ * against as many {@code POST /api/tasks} ({@link TaskService#createTask}), on the Flyway schema.
+ * Besides the time per operation, each result reports the {@code statements} executed and the
+ * {@code requests} made, so statements per request is their ratio.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class TaskBatchInsertBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int tasks;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private JdbcTemplate jdbcTemplate;
+    private long userId;
+    private List<TaskCreateRequest> requests;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Statements {
+
+        public long statements;
+        public long requests;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            statements = 0;
+            requests = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        taskService = context.getBean(TaskService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        userId = BenchmarkApplication.createUser(context);
+        requests = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            requests.add(TaskCreateRequest.builder()
+                    .title("Task " + i)
+                    .description(i % 2 == 0 ? "Description of task " + i : null)
+                    .priority(Task.Priority.values()[i % Task.Priority.values().length])
+                    .build());
+        }
+    }
+
+    /**
+     * Keeps the table from growing across iterations.
+     */
+    @TearDown(Level.Iteration)
+    public void deleteTasks() {
+        jdbcTemplate.update("DELETE FROM tasks WHERE user_id = ?", userId);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BatchTaskResponse batch(Statements counters) {
+        long before = BenchmarkApplication.statements();
+        BatchTaskResponse response = taskService.createTasks(requests, userId);
+        counters.statements += BenchmarkApplication.statements() - before;
+        counters.requests++;
+        return response;
+    }
+
+    @Benchmark
+    public void single(Statements counters, Blackhole blackhole) {
+        long before = BenchmarkApplication.statements();
+        for (TaskCreateRequest request : requests) {
+            blackhole.consume(taskService.createTask(request, userId));
+        }
+        counters.statements += BenchmarkApplication.statements() - before;
+        counters.requests += requests.size();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.todo.service;
+
+import com.example.todo.benchmark.BenchmarkApplication;
+import com.example.todo.dto.task.TaskResponse;
+import com.example.todo.entity.Task;
+import com.example.todo.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading one page of a user's task list, newest first, in a read-only transaction: through
+ * the {@link TaskRepository#TASK_RESPONSE} constructor projection the list endpoints use, and
+ * by loading {@link Task} entities and mapping them, as they did before. Run with the GC
+ * profiler to compare the bytes allocated per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class TaskListPageReadBenchmark {
+
+    private static final int TASKS = 1000;
+
+    @Param({"20", "100"})
+    public int size;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+    private long userId;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        userId = BenchmarkApplication.createUser(context);
+        context.getBean(JdbcTemplate.class).update("""
+                INSERT INTO tasks (title, description, priority, status, user_id, created_at, updated_at)
+                SELECT 'Task ' || X, 'Description of task ' || X, 'MEDIUM', 'TODO', ?,
+                       DATEADD(SECOND, X, TIMESTAMP '2024-01-01 00:00:00'), CURRENT_TIMESTAMP
+                FROM SYSTEM_RANGE(1, ?)
+                """, userId, TASKS);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TaskResponse> projection() {
+        return readOnly.execute(status -> entityManager.createQuery(
+                        "select " + TaskRepository.TASK_RESPONSE
+                                + " from Task t where t.user.id = :userId order by t.createdAt desc, t.id desc",
+                        TaskResponse.class)
+                .setParameter("userId", userId)
+                .setMaxResults(size)
+                .getResultList());
+    }
+
+    @Benchmark
+    public List<TaskResponse> entities() {
+        return readOnly.execute(status -> entityManager.createQuery(
+                        "select t from Task t where t.user.id = :userId order by t.createdAt desc, t.id desc",
+                        Task.class)
+                .setParameter("userId", userId)
+                .setMaxResults(size)
+                .getResultList()
+                .stream()
+                .map(TaskService::toResponse)
+                .toList());
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.task.TaskResponse;
+import com.example.todo.entity.Task;
+import com.example.todo.entity.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping a task entity to the response of the create, read and update endpoints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class TaskMappingBenchmark {
+
+    private Task task;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        task = Task.builder()
+                .id(1_000_001L)
+                .title("Write the quarterly report")
+                .description("Collect the numbers from every team and summarize them on two pages.")
+                .priority(Task.Priority.HIGH)
+                .status(Task.Status.IN_PROGRESS)
+                .dueDate(LocalDate.now().plusDays(7))
+                .user(User.builder().id(42L).build())
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    @Benchmark
+    public TaskResponse toResponse() {
+        return TaskService.toResponse(task);
+    }
+}
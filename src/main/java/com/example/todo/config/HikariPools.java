@@ -0,0 +1,28 @@
+package com.example.todo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+
+/**
+ * Setup shared by the pools the application creates itself, for replicas and shards.
+ */
+public final class HikariPools {
+
+    private HikariPools() {
+    }
+
+    /**
+     * Applies {@code spring.datasource.hikari} and names the pool. The pools are not beans,
+     * so their {@code hikaricp.*} metrics, tagged with the pool name, are registered here.
+     */
+    public static void configure(HikariDataSource pool, Environment environment,
+                                 ObjectProvider<MeterRegistry> meterRegistry, String name) {
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        meterRegistry.ifAvailable(pool::setMetricRegistry);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.todo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas, enabled by listing their JDBC URLs in {@code tasks.replicas.urls}. The
+ * primary is still configured by {@code spring.datasource}, and every pool takes its
+ * settings from {@code spring.datasource.hikari}. Replication itself is up to the database;
+ * Flyway only migrates the primary.
+ */
+@Configuration
+@ConditionalOnExpression("'${tasks.replicas.urls:}' != '' && '${tasks.shards.urls:}' == ''")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            DataSourceProperties primaryProperties,
+            Environment environment,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${tasks.replicas.urls}") List<String> urls,
+            @Value("${tasks.replicas.username:${spring.datasource.username:}}") String username,
+            @Value("${tasks.replicas.password:${spring.datasource.password:}}") String password,
+            @Value("${tasks.replicas.selection:round-robin}") ReplicaRoutingDataSource.Selection selection,
+            @Value("${tasks.replicas.read-your-writes-window:5s}") Duration readYourWritesWindow) {
+        HikariDataSource primary = primaryProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        HikariPools.configure(primary, environment, meterRegistry, "primary");
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            HikariDataSource replica = new HikariDataSource();
+            HikariPools.configure(replica, environment, meterRegistry, "replica-" + replicas.size());
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, selection, readYourWritesWindow);
+    }
+
+    /**
+     * The data source of the application: connections are only taken from a pool at the
+     * first statement, once the transaction has declared whether it is read-only.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.todo.config;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * The user whose reads and writes the connections taken on the current thread belong to, for
+ * read-your-writes routing. Work that runs off the request thread (streamed exports, async or
+ * scheduled jobs) has no security context, so it names its user here; where nothing was set
+ * the authenticated user is used. Reads whose result outlives the request (the read cache)
+ * are pinned to the primary with {@link #callOnPrimary}, since a lagging replica's answer
+ * would be kept as current. Set either before a transaction takes its first connection.
+ */
+public final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<Long> CURRENT = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private ReplicaRoutingContext() {
+    }
+
+    public static Optional<Long> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    public static boolean isPrimaryOnly() {
+        return Boolean.TRUE.equals(PRIMARY_ONLY.get());
+    }
+
+    public static void runAs(Long userId, Runnable work) {
+        callAs(userId, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public static <T> T callAs(Long userId, Supplier<T> work) {
+        Long previous = CURRENT.get();
+        CURRENT.set(userId);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public static <T> T callOnPrimary(Supplier<T> work) {
+        if (isPrimaryOnly()) {
+            return work.get();
+        }
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            PRIMARY_ONLY.remove();
+        }
+    }
+}
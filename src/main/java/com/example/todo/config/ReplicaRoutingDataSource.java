@@ -0,0 +1,152 @@
+package com.example.todo.config;
+
+import com.example.todo.security.SecurityUtil;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out connections of read-only transactions from one of the replica pools and all
+ * others from the primary. A user whose write committed less than the read-your-writes
+ * window ago is kept on the primary for reads too, so a replica that lags behind never
+ * hides the user's own change; other users may read it from a replica later. The user is
+ * the one named in {@link ReplicaRoutingContext}, else the authenticated one. Reads pinned
+ * with {@link ReplicaRoutingContext#callOnPrimary} also stay on the primary.
+ * <p>
+ * The route is decided when a connection is taken, which for a transaction has to wait
+ * until its read-only flag is known; wrap this in a {@code LazyConnectionDataSourceProxy}.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    public enum Selection {
+        ROUND_ROBIN,
+        /** The replica with the fewest connections in use; ties go round-robin. */
+        LEAST_CONNECTIONS
+    }
+
+    private static final String PRIMARY = "primary";
+    // Expired windows are dropped when their user reads, and swept after this many writes.
+    private static final int PURGE_EVERY_WRITES = 1024;
+
+    private final HikariDataSource primary;
+    private final List<HikariDataSource> replicas;
+    private final Selection selection;
+    private final long readYourWritesNanos;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Map<Long, Long> lastWriteNanos = new ConcurrentHashMap<>();
+    private final AtomicInteger writesSincePurge = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas,
+                                    Selection selection, Duration readYourWritesWindow) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("At least one replica is required");
+        }
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.selection = selection;
+        this.readYourWritesNanos = readYourWritesWindow.toNanos();
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Optional<Long> userId = ReplicaRoutingContext.current().or(SecurityUtil::getCurrentUserId);
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                userId.ifPresent(this::recordWriteAfterCommit);
+            }
+            return PRIMARY;
+        }
+        if (ReplicaRoutingContext.isPrimaryOnly() || userId.isPresent() && wroteRecently(userId.get())) {
+            return PRIMARY;
+        }
+        return selection == Selection.LEAST_CONNECTIONS ? leastConnections() : roundRobin();
+    }
+
+    private int roundRobin() {
+        return Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+    }
+
+    private int leastConnections() {
+        int start = roundRobin();
+        int best = start;
+        int bestActive = Integer.MAX_VALUE;
+        for (int i = 0; i < replicas.size(); i++) {
+            int candidate = (start + i) % replicas.size();
+            int active = activeConnections(replicas.get(candidate));
+            if (active < bestActive) {
+                best = candidate;
+                bestActive = active;
+            }
+        }
+        return best;
+    }
+
+    private static int activeConnections(HikariDataSource pool) {
+        // Pools start on their first connection; until then nothing is in use.
+        HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+        return bean != null ? bean.getActiveConnections() : 0;
+    }
+
+    /**
+     * Opens the user's window once the transaction commits; a rolled back one changed nothing.
+     */
+    private void recordWriteAfterCommit(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recordWrite(userId);
+                }
+            });
+        } else {
+            recordWrite(userId);
+        }
+    }
+
+    private void recordWrite(Long userId) {
+        lastWriteNanos.put(userId, System.nanoTime());
+        if (writesSincePurge.incrementAndGet() >= PURGE_EVERY_WRITES) {
+            writesSincePurge.set(0);
+            long now = System.nanoTime();
+            lastWriteNanos.values().removeIf(writtenAt -> now - writtenAt >= readYourWritesNanos);
+        }
+    }
+
+    private boolean wroteRecently(Long userId) {
+        Long writtenAt = lastWriteNanos.get(userId);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (System.nanoTime() - writtenAt < readYourWritesNanos) {
+            return true;
+        }
+        lastWriteNanos.remove(userId, writtenAt);
+        return false;
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+        primary.close();
+    }
+}
@@ -1,56 +1,261 @@
 package com.example.todo.controller;
 
+import com.example.todo.dto.task.BatchTaskResponse;
+import com.example.todo.dto.task.BulkTaskUpdateRequest;
+import com.example.todo.dto.task.BulkTaskUpdateResponse;
+import com.example.todo.dto.task.CursorTaskResponse;
 import com.example.todo.dto.task.PaginatedTaskResponse;
+import com.example.todo.dto.task.TaskChangesResponse;
 import com.example.todo.dto.task.TaskCreateRequest;
+import com.example.todo.dto.task.TaskExportFormat;
+import com.example.todo.dto.task.TaskFilter;
+import com.example.todo.dto.task.TaskImportResponse;
 import com.example.todo.dto.task.TaskResponse;
+import com.example.todo.dto.task.TaskSort;
+import com.example.todo.dto.task.TaskStatsResponse;
 import com.example.todo.dto.task.TaskUpdateRequest;
-import com.example.todo.entity.User;
+import com.example.todo.entity.Task;
 import com.example.todo.exception.ResourceNotFoundException;
 import com.example.todo.security.CurrentUserService;
+import com.example.todo.service.TaskEventStream;
+import com.example.todo.service.TaskExportService;
+import com.example.todo.service.TaskImportService;
 import com.example.todo.service.TaskService;
+import com.example.todo.service.TaskStatsService;
+import com.example.todo.service.TaskSyncService;
+import com.example.todo.service.TaskVersions;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/tasks")
 @RequiredArgsConstructor
 public class TaskController {
 
+    private static final Set<String> CURSOR_ONLY_PARAMS = Set.of("sort", "status", "priority", "dueFrom", "dueTo");
+
+    /**
+     * Clients may keep task responses but must revalidate them with {@code If-None-Match}.
+     */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final TaskService taskService;
+    private final TaskSyncService taskSyncService;
+    private final TaskExportService taskExportService;
+    private final TaskImportService taskImportService;
+    private final TaskStatsService taskStatsService;
+    private final TaskEventStream taskEventStream;
+    private final TaskVersions taskVersions;
     private final CurrentUserService currentUserService;
 
-    private User getCurrentUser() {
-        return currentUserService.getCurrentUser()
+    private Long getCurrentUserId() {
+        return currentUserService.getCurrentUserId()
                 .orElseThrow(() -> new ResourceNotFoundException("User not authenticated"));
     }
 
+    /**
+     * Weak entity tag for one list of the user's tasks: it changes with every committed task
+     * mutation, so a matching {@code If-None-Match} is answered with 304 before any task is read.
+     * A hash of the normalized query keeps the tag of one page, sort or filter from validating
+     * another. The version is read before the list, so a write racing with the read can only
+     * make the tag older than the content, never newer.
+     */
+    private String listETag(Long userId, String query) {
+        return "W/\"" + taskVersions.tag(userId) + "-" + hash(query) + "\"";
+    }
+
+    private static String hash(String query) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(query.getBytes(StandardCharsets.UTF_8));
+            return Long.toString(ByteBuffer.wrap(digest).getLong() & Long.MAX_VALUE, 36);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public TaskResponse createTask(@Valid @RequestBody TaskCreateRequest request) {
-        return taskService.createTask(request, getCurrentUser());
+        return taskService.createTask(request, getCurrentUserId());
+    }
+
+    /**
+     * Creates up to {@code tasks.batch.max-items} tasks in one call. Items are validated
+     * individually and the response reports the outcome of each by its index.
+     */
+    @PostMapping("/batch")
+    public BatchTaskResponse createTasks(@RequestBody List<TaskCreateRequest> requests) {
+        return taskService.createTasks(requests, getCurrentUserId());
+    }
+
+    /**
+     * Imports an NDJSON upload ({@code Content-Type: application/x-ndjson}) while it is received.
+     * Invalid lines are skipped and reported; the rest are inserted in chunks.
+     */
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    public TaskImportResponse importNdjson(InputStream body) throws IOException {
+        return taskImportService.importNdjson(getCurrentUserId(), body);
+    }
+
+    /**
+     * Imports a CSV upload ({@code Content-Type: text/csv}) with a header row.
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public TaskImportResponse importCsv(InputStream body) throws IOException {
+        return taskImportService.importCsv(getCurrentUserId(), body);
     }
 
+    /**
+     * The entity tag follows the task's {@code updatedAt}, so it only changes when this task does.
+     */
     @GetMapping("/{id}")
-    public TaskResponse getTask(@PathVariable Long id) {
-        return taskService.getTaskById(id, getCurrentUser());
+    public ResponseEntity<TaskResponse> getTask(@PathVariable Long id, WebRequest webRequest) {
+        TaskResponse task = taskService.getTaskById(id, getCurrentUserId());
+        if (webRequest.checkNotModified("W/\"" + task.getId() + "-" + task.getUpdatedAt() + "\"")) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(task);
     }
 
     @GetMapping
-    public PaginatedTaskResponse getTasks(
+    public ResponseEntity<PaginatedTaskResponse> getTasks(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
-        return taskService.getTasksPaginated(getCurrentUser(), page, size);
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam Map<String, String> params,
+            WebRequest webRequest) {
+        // Offset pages would need a sort and count over every matching row; refuse
+        // rather than silently ignoring the parameters.
+        if (params.keySet().stream().anyMatch(CURSOR_ONLY_PARAMS::contains)) {
+            throw new IllegalArgumentException("Filtering and sorting require cursor pagination (add cursor=)");
+        }
+        Long userId = getCurrentUserId();
+        if (webRequest.checkNotModified(listETag(userId, "page=" + page + "&size=" + size))) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(taskService.getTasksPaginated(userId, page, size));
+    }
+
+    /**
+     * Keyset pagination, selected by the presence of the {@code cursor} parameter.
+     * Start with an empty cursor ({@code ?cursor=}) and pass each {@code nextCursor} back
+     * together with the same {@code sort} and filter parameters.
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorTaskResponse> getTasksByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "createdAt") String sort,
+            @RequestParam(required = false) Task.Status status,
+            @RequestParam(required = false) Task.Priority priority,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+            WebRequest webRequest) {
+        Long userId = getCurrentUserId();
+        TaskSort taskSort = TaskSort.fromParam(sort);
+        String query = "cursor=" + Objects.toString(cursor, "") + "&size=" + size + "&sort=" + taskSort
+                + "&status=" + status + "&priority=" + priority + "&dueFrom=" + dueFrom + "&dueTo=" + dueTo;
+        if (webRequest.checkNotModified(listETag(userId, query))) {
+            return null;
+        }
+        TaskFilter filter = TaskFilter.builder()
+                .status(status)
+                .priority(priority)
+                .dueFrom(dueFrom)
+                .dueTo(dueTo)
+                .build();
+        CursorTaskResponse tasks = taskService.getTasksAfterCursor(userId, filter, taskSort, cursor, size);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(tasks);
+    }
+
+    /**
+     * Delta sync: tasks created or updated and ids of tasks deleted since {@code since}.
+     * Omit {@code since} for a full sync, then keep passing back {@code syncToken};
+     * an expired token is answered with 410 Gone.
+     */
+    @GetMapping("/changes")
+    public TaskChangesResponse getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int size) {
+        return taskSyncService.getChanges(getCurrentUserId(), since, size);
+    }
+
+    /**
+     * Server-Sent Events of the current user's task changes as they commit. A reconnecting
+     * client sends {@code Last-Event-ID} and receives what it missed, or a {@code reset} event
+     * when that is no longer known and it should resynchronize through {@code /changes}.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return taskEventStream.subscribe(getCurrentUserId(), lastEventId);
+    }
+
+    /**
+     * Task counts by status and priority, and the number of open tasks past their due date,
+     * read from counters that task writes keep up to date.
+     */
+    @GetMapping("/stats")
+    public TaskStatsResponse getStats() {
+        return taskStatsService.getStats(getCurrentUserId());
+    }
+
+    /**
+     * Streams every task of the current user, newest first, as NDJSON ({@code format=ndjson})
+     * or CSV ({@code format=csv}). Rows are written as they are read, so the export size is
+     * not limited by memory.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(@RequestParam(defaultValue = "ndjson") String format) {
+        TaskExportFormat exportFormat = TaskExportFormat.fromParam(format);
+        Long userId = getCurrentUserId();
+        StreamingResponseBody body = out -> taskExportService.export(userId, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("tasks." + exportFormat.getParam())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    /**
+     * Changes status, priority and/or due date of every matching task of the current user
+     * in one statement, e.g. {@code {"filter": {"status": "IN_PROGRESS"}, "status": "DONE"}}.
+     */
+    @PatchMapping("/bulk")
+    public BulkTaskUpdateResponse bulkUpdateTasks(@RequestBody BulkTaskUpdateRequest request) {
+        return taskService.bulkUpdateTasks(request, getCurrentUserId());
     }
 
     @PatchMapping("/{id}")
     public TaskResponse updateTask(@PathVariable Long id, @Valid @RequestBody TaskUpdateRequest request) {
-        return taskService.updateTask(id, request, getCurrentUser());
+        return taskService.updateTask(id, request, getCurrentUserId());
     }
 
     @DeleteMapping("/{id}")
     public void deleteTask(@PathVariable Long id) {
-        taskService.deleteTask(id, getCurrentUser());
+        taskService.deleteTask(id, getCurrentUserId());
     }
 }
@@ -0,0 +1,20 @@
+package com.example.todo.dto.task;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Response for {@code POST /api/tasks/batch}. Valid items are created even when
+ * others in the same request fail validation.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchTaskResponse {
+    private List<BatchTaskResult> results;
+    private int created;
+    private int failed;
+}
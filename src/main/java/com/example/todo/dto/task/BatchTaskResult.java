@@ -0,0 +1,22 @@
+package com.example.todo.dto.task;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.Map;
+
+/**
+ * Outcome of one item of a batch create, in request order.
+ * Exactly one of {@code task} and {@code errors} is set.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchTaskResult {
+    private int index;                  // position in the request list
+    private TaskResponse task;          // the created task
+    private Map<String, String> errors; // field -> validation message
+}
@@ -0,0 +1,26 @@
+package com.example.todo.dto.task;
+
+import com.example.todo.entity.Task;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Body of {@code PATCH /api/tasks/bulk}: the non-null {@code status}, {@code priority}
+ * and {@code dueDate} are applied to every task matching {@code filter}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkTaskUpdateRequest {
+
+    private TaskFilter filter;
+
+    private Task.Status status;
+
+    private Task.Priority priority;
+
+    private LocalDate dueDate;
+}
@@ -0,0 +1,12 @@
+package com.example.todo.dto.task;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkTaskUpdateResponse {
+    private int updated; // number of tasks changed
+}
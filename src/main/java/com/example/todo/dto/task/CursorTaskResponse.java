@@ -0,0 +1,22 @@
+package com.example.todo.dto.task;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Keyset-paginated response for task list queries.
+ * No total count is computed; pass {@code nextCursor} back as the {@code cursor}
+ * parameter to fetch the following page.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorTaskResponse {
+    private List<TaskResponse> content;
+    private int size;          // requested page size
+    private String nextCursor; // null on the last page
+    private boolean hasNext;
+}
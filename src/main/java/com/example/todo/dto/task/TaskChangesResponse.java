@@ -0,0 +1,22 @@
+package com.example.todo.dto.task;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Response for {@code GET /api/tasks/changes}. Apply {@code changed} as upserts and
+ * {@code deleted} as removals, then pass {@code syncToken} back as {@code since}.
+ * A change may be delivered more than once, so applying it must be idempotent.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskChangesResponse {
+    private List<TaskResponse> changed; // created or updated tasks, oldest change first
+    private List<Long> deleted;         // ids of deleted tasks
+    private String syncToken;
+    private boolean hasMore;            // true if another call with syncToken returns more right away
+}
@@ -0,0 +1,19 @@
+package com.example.todo.dto.task;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+/**
+ * Data of one event on {@code GET /api/tasks/events}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskEvent {
+    private TaskEventType type;
+    private Long taskId;                // set for created, updated and deleted
+    private TaskResponse task;          // the task as committed, for created and updated
+}
@@ -0,0 +1,32 @@
+package com.example.todo.dto.task;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Kinds of events on {@code GET /api/tasks/events}, named as they appear in the stream.
+ */
+public enum TaskEventType {
+
+    CREATED("created"),
+
+    UPDATED("updated"),
+
+    DELETED("deleted"),
+
+    /** Several tasks changed at once (batch create, bulk update, import); reload or delta-sync. */
+    CHANGED("changed"),
+
+    /** Events may have been missed, e.g. after a long disconnect or a restart; reload or delta-sync. */
+    RESET("reset");
+
+    private final String eventName;
+
+    TaskEventType(String eventName) {
+        this.eventName = eventName;
+    }
+
+    @JsonValue
+    public String getEventName() {
+        return eventName;
+    }
+}
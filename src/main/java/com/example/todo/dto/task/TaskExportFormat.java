@@ -0,0 +1,38 @@
+package com.example.todo.dto.task;
+
+/**
+ * Formats of {@code GET /api/tasks/export}, named by their {@code format} request parameter.
+ */
+public enum TaskExportFormat {
+
+    /** One task JSON object per line, in the same shape as the other task endpoints. */
+    NDJSON("ndjson", "application/x-ndjson"),
+
+    /** RFC 4180 CSV with a header row. */
+    CSV("csv", "text/csv");
+
+    private final String param;
+    private final String mediaType;
+
+    TaskExportFormat(String param, String mediaType) {
+        this.param = param;
+        this.mediaType = mediaType;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public static TaskExportFormat fromParam(String param) {
+        for (TaskExportFormat format : values()) {
+            if (format.param.equals(param)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported format: " + param);
+    }
+}
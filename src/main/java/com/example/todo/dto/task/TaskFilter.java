@@ -0,0 +1,29 @@
+package com.example.todo.dto.task;
+
+import com.example.todo.entity.Task;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Selects a subset of the current user's tasks. Every field is optional and the
+ * conditions that are set are combined with AND; an empty filter matches all tasks.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskFilter {
+
+    private Task.Status status;
+
+    private Task.Priority priority;
+
+    private LocalDate dueFrom; // inclusive
+
+    private LocalDate dueTo;   // inclusive
+
+    private List<Long> ids;
+}
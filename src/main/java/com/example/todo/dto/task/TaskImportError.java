@@ -0,0 +1,18 @@
+package com.example.todo.dto.task;
+
+import lombok.*;
+
+import java.util.Map;
+
+/**
+ * A record of an import that was skipped, with the reasons.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskImportError {
+    private int line;                   // 1-based line of the record in the uploaded file
+    private Map<String, String> errors; // field -> message
+}
@@ -0,0 +1,21 @@
+package com.example.todo.dto.task;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Response for {@code POST /api/tasks/import}. Valid records are imported even when others
+ * fail; only the first {@code tasks.import.max-errors} failures are listed.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskImportResponse {
+    private int imported;
+    private int failed;
+    private List<TaskImportError> errors;
+    private boolean errorsTruncated;
+}
@@ -0,0 +1,35 @@
+package com.example.todo.dto.task;
+
+/**
+ * Orders supported by cursor listing, named by their {@code sort} request parameter.
+ */
+public enum TaskSort {
+
+    /** Newest first. */
+    CREATED_AT("createdAt"),
+
+    /** Earliest due date first; tasks without a due date come last. */
+    DUE_DATE("dueDate"),
+
+    /** HIGH, then MEDIUM, then LOW; newest first within a priority. */
+    PRIORITY("priority");
+
+    private final String param;
+
+    TaskSort(String param) {
+        this.param = param;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    public static TaskSort fromParam(String param) {
+        for (TaskSort sort : values()) {
+            if (sort.param.equals(param)) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort: " + param);
+    }
+}
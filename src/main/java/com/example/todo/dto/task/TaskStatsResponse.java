@@ -0,0 +1,21 @@
+package com.example.todo.dto.task;
+
+import com.example.todo.entity.Task;
+import lombok.*;
+
+import java.util.Map;
+
+/**
+ * Response for {@code GET /api/tasks/stats}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskStatsResponse {
+    private long total;
+    private Map<Task.Status, Long> byStatus;
+    private Map<Task.Priority, Long> byPriority;
+    private long overdue;               // not DONE and due before today
+}
@@ -17,8 +17,14 @@ import java.time.LocalDateTime;
 @Builder
 public class Task {
 
+    /**
+     * Drawn from the pooled {@code tasks_seq} sequence (see V3 migration) rather than an
+     * identity column, so Hibernate knows ids before inserting and can batch the INSERTs.
+     * The allocation size must match the sequence's INCREMENT BY.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 100)
@@ -0,0 +1,39 @@
+package com.example.todo.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Counters of one user's tasks, maintained incrementally by task writes.
+ */
+@Entity
+@Table(name = "task_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskStats {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    private long total;
+
+    private long todo;
+
+    @Column(name = "in_progress")
+    private long inProgress;
+
+    private long done;
+
+    @Column(name = "low_priority")
+    private long lowPriority;
+
+    @Column(name = "medium_priority")
+    private long mediumPriority;
+
+    @Column(name = "high_priority")
+    private long highPriority;
+}
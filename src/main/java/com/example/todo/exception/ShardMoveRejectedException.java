@@ -0,0 +1,11 @@
+package com.example.todo.exception;
+
+/**
+ * Thrown when users' data may not be moved between shards right now, because another
+ * instance is serving the API.
+ */
+public class ShardMoveRejectedException extends RuntimeException {
+    public ShardMoveRejectedException(String message) {
+        super(message);
+    }
+}
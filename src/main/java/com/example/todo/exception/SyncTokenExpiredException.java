@@ -0,0 +1,11 @@
+package com.example.todo.exception;
+
+/**
+ * Thrown when a delta-sync token is older than the retained deletion history,
+ * so the client has to start over with a full sync.
+ */
+public class SyncTokenExpiredException extends RuntimeException {
+    public SyncTokenExpiredException(String message) {
+        super(message);
+    }
+}
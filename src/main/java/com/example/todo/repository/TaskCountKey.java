@@ -0,0 +1,21 @@
+package com.example.todo.repository;
+
+import com.example.todo.entity.Task;
+
+import java.time.LocalDate;
+
+/**
+ * The task attributes that the task counters are kept by.
+ */
+public record TaskCountKey(Task.Status status, Task.Priority priority, LocalDate dueDate) {
+
+    /**
+     * This key after applying the non-null values of an update.
+     */
+    public TaskCountKey with(Task.Status newStatus, Task.Priority newPriority, LocalDate newDueDate) {
+        return new TaskCountKey(
+                newStatus != null ? newStatus : status,
+                newPriority != null ? newPriority : priority,
+                newDueDate != null ? newDueDate : dueDate);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.todo.repository;
+
+import com.example.todo.entity.Task;
+
+import java.time.LocalDate;
+
+/**
+ * Number of tasks sharing one {@link TaskCountKey}.
+ */
+public record TaskGroupCount(Task.Status status, Task.Priority priority, LocalDate dueDate, Long count) {
+
+    public TaskCountKey key() {
+        return new TaskCountKey(status, priority, dueDate);
+    }
+}
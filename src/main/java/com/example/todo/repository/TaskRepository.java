@@ -1,21 +1,53 @@
 package com.example.todo.repository;
 
+import com.example.todo.dto.task.TaskResponse;
 import com.example.todo.entity.Task;
-import com.example.todo.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
 
-    List<Task> findByUserOrderByCreatedAtDesc(User user);
+    /**
+     * JPQL constructor expression that selects a task row straight into {@link TaskResponse}.
+     * Reads built on it skip entity hydration, dirty-checking snapshots and the owner proxy;
+     * {@code t.user.id} resolves to the {@code user_id} column without a join.
+     */
+    String TASK_RESPONSE = "new com.example.todo.dto.task.TaskResponse("
+            + "t.id, t.title, t.description, t.priority, t.status, t.dueDate, t.user.id, t.createdAt, t.updatedAt)";
 
-    List<Task> findByUserAndStatusOrderByCreatedAtDesc(User user, Task.Status status);
+    /**
+     * Ownership is part of the predicate, so another user's task is indistinguishable from a missing one.
+     */
+    @Query("select " + TASK_RESPONSE + " from Task t where t.id = :id and t.user.id = :userId")
+    Optional<TaskResponse> findResponseByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
 
-    Page<Task> findByUser(User user, Pageable pageable);
+    @Query("select " + TASK_RESPONSE + " from Task t where t.user.id = :userId order by t.user.id, t.createdAt desc, t.id desc")
+    List<TaskResponse> findResponsesByUserId(@Param("userId") Long userId);
+
+    @Query(value = "select " + TASK_RESPONSE + " from Task t where t.user.id = :userId",
+            countQuery = "select count(t) from Task t where t.user.id = :userId")
+    Page<TaskResponse> findResponsePageByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Keyset page of the user's tasks changed after {@code (updatedAt, id)}, oldest change first.
+     */
+    @Query("select " + TASK_RESPONSE + """
+             from Task t
+            where t.user.id = :userId
+              and (t.updatedAt > :updatedAt or (t.updatedAt = :updatedAt and t.id > :id))
+            order by t.user.id, t.updatedAt, t.id
+            """)
+    List<TaskResponse> findChangedAfter(@Param("userId") Long userId,
+                                        @Param("updatedAt") LocalDateTime updatedAt,
+                                        @Param("id") Long id,
+                                        Pageable pageable);
 }
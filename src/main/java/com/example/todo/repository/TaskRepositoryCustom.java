@@ -0,0 +1,64 @@
+package com.example.todo.repository;
+
+import com.example.todo.dto.task.BulkTaskUpdateRequest;
+import com.example.todo.dto.task.TaskFilter;
+import com.example.todo.dto.task.TaskResponse;
+import com.example.todo.dto.task.TaskUpdateRequest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Task queries that cannot be expressed as derived or annotated queries.
+ */
+public interface TaskRepositoryCustom {
+
+    /**
+     * Applies the non-null fields of {@code changes} to the task in one
+     * {@code UPDATE tasks SET ... WHERE id = ? AND user_id = ?} statement, without loading it.
+     * The statement reads the old values back from H2's {@code OLD TABLE} of the update.
+     *
+     * @return what the task's counters were kept by before the update; empty if the task
+     *         does not exist or belongs to another user
+     */
+    Optional<TaskCountKey> updateFields(Long id, Long userId, TaskUpdateRequest changes);
+
+    /**
+     * Applies the non-null status, priority and due date of {@code changes} to every task of
+     * the user that matches {@code filter}, in one {@code UPDATE tasks SET ... WHERE user_id = ? AND ...}.
+     *
+     * @return the updated tasks, counted per status, priority and due date they had before
+     */
+    List<TaskGroupCount> bulkUpdate(Long userId, TaskFilter filter, BulkTaskUpdateRequest changes);
+
+    /**
+     * Deletes the task in one {@code DELETE FROM tasks WHERE id = ? AND user_id = ?} statement.
+     *
+     * @return what the task's counters were kept by; empty if the task does not exist or
+     *         belongs to another user
+     */
+    Optional<TaskCountKey> deleteByIdAndUserId(Long id, Long userId);
+
+    /**
+     * Keyset read in {@code createdAt DESC, id DESC} order of the user's tasks matching
+     * {@code filter}, starting after {@code (afterCreatedAt, afterId)} or from the top when
+     * both are null. Served by the {@code (user_id[, status][, priority], created_at, id)} indexes.
+     */
+    List<TaskResponse> findCreatedAtKeyset(Long userId, TaskFilter filter,
+                                           LocalDateTime afterCreatedAt, Long afterId, int limit);
+
+    /**
+     * Keyset read in {@code dueDate ASC, id ASC} order over the tasks that have a due date.
+     * Served by the {@code (user_id[, status], due_date, id)} indexes.
+     */
+    List<TaskResponse> findDueDateKeyset(Long userId, TaskFilter filter,
+                                         LocalDate afterDueDate, Long afterId, int limit);
+
+    /**
+     * Keyset read in {@code id ASC} order over the tasks without a due date, which a
+     * due-date listing returns after all dated tasks.
+     */
+    List<TaskResponse> findUndatedKeyset(Long userId, TaskFilter filter, Long afterId, int limit);
+}
@@ -0,0 +1,291 @@
+package com.example.todo.repository;
+
+import com.example.todo.dto.task.BulkTaskUpdateRequest;
+import com.example.todo.dto.task.TaskFilter;
+import com.example.todo.dto.task.TaskResponse;
+import com.example.todo.dto.task.TaskUpdateRequest;
+import com.example.todo.entity.Task;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.NativeQuery;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<TaskCountKey> updateFields(Long id, Long userId, TaskUpdateRequest changes) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        if (changes.getTitle() != null) {
+            values.put("title", changes.getTitle());
+        }
+        if (changes.getDescription() != null) {
+            values.put("description", changes.getDescription());
+        }
+        if (changes.getPriority() != null) {
+            values.put("priority", changes.getPriority().name());
+        }
+        if (changes.getStatus() != null) {
+            values.put("status", changes.getStatus().name());
+        }
+        if (changes.getDueDate() != null) {
+            values.put("due_date", changes.getDueDate());
+        }
+        // Bulk updates bypass @UpdateTimestamp, so the timestamp is set explicitly.
+        values.put("updated_at", LocalDateTime.now());
+
+        NativeQuery<Object[]> query = countKeyQuery("select status, priority, due_date from old table ("
+                + "update tasks set " + assignments(values) + " where id = :id and user_id = :userId)");
+        setParameters(query, values);
+        return query.setParameter("id", id)
+                .setParameter("userId", userId)
+                .getResultStream()
+                .map(TaskRepositoryCustomImpl::countKey)
+                .findFirst();
+    }
+
+    @Override
+    public List<TaskGroupCount> bulkUpdate(Long userId, TaskFilter filter, BulkTaskUpdateRequest changes) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        if (changes.getStatus() != null) {
+            values.put("status", changes.getStatus().name());
+        }
+        if (changes.getPriority() != null) {
+            values.put("priority", changes.getPriority().name());
+        }
+        if (changes.getDueDate() != null) {
+            values.put("due_date", changes.getDueDate());
+        }
+        values.put("updated_at", LocalDateTime.now());
+
+        Map<String, Object> filterValues = new LinkedHashMap<>();
+        NativeQuery<Object[]> query = countKeyQuery("select status, priority, due_date, count(*) as task_count"
+                + " from old table (update tasks set " + assignments(values)
+                + " where " + filterSql(userId, filter, filterValues) + ")"
+                + " group by status, priority, due_date");
+        setParameters(query, values);
+        setParameters(query, filterValues);
+        return query.addScalar("task_count", Long.class)
+                .getResultStream()
+                .map(row -> {
+                    TaskCountKey key = countKey(row);
+                    return new TaskGroupCount(key.status(), key.priority(), key.dueDate(), (Long) row[3]);
+                })
+                .toList();
+    }
+
+    @Override
+    public Optional<TaskCountKey> deleteByIdAndUserId(Long id, Long userId) {
+        return countKeyQuery("select status, priority, due_date from old table ("
+                        + "delete from tasks where id = :id and user_id = :userId)")
+                .setParameter("id", id)
+                .setParameter("userId", userId)
+                .getResultStream()
+                .map(TaskRepositoryCustomImpl::countKey)
+                .findFirst();
+    }
+
+    @Override
+    public List<TaskResponse> findCreatedAtKeyset(Long userId, TaskFilter filter,
+                                                  LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskResponse> query = cb.createQuery(TaskResponse.class);
+        Root<Task> task = query.from(Task.class);
+        Path<LocalDateTime> createdAt = task.get("createdAt");
+        Path<Long> id = task.get("id");
+
+        List<Predicate> predicates = new ArrayList<>(List.of(filterPredicates(cb, task, userId, filter)));
+        if (afterCreatedAt != null && afterId != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(createdAt, afterCreatedAt),
+                    cb.and(cb.equal(createdAt, afterCreatedAt), cb.lessThan(id, afterId))));
+        }
+
+        query.select(taskResponse(cb, task))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(order(pinnedColumns(cb, task, filter), cb.desc(createdAt), cb.desc(id)));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public List<TaskResponse> findDueDateKeyset(Long userId, TaskFilter filter,
+                                                LocalDate afterDueDate, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskResponse> query = cb.createQuery(TaskResponse.class);
+        Root<Task> task = query.from(Task.class);
+        Path<LocalDate> dueDate = task.get("dueDate");
+        Path<Long> id = task.get("id");
+
+        List<Predicate> predicates = new ArrayList<>(List.of(filterPredicates(cb, task, userId, filter)));
+        predicates.add(cb.isNotNull(dueDate));
+        if (afterDueDate != null && afterId != null) {
+            predicates.add(cb.or(
+                    cb.greaterThan(dueDate, afterDueDate),
+                    cb.and(cb.equal(dueDate, afterDueDate), cb.greaterThan(id, afterId))));
+        }
+
+        query.select(taskResponse(cb, task))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(order(pinnedColumns(cb, task, filter), cb.asc(dueDate), cb.asc(id)));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public List<TaskResponse> findUndatedKeyset(Long userId, TaskFilter filter, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskResponse> query = cb.createQuery(TaskResponse.class);
+        Root<Task> task = query.from(Task.class);
+        Path<Long> id = task.get("id");
+
+        List<Predicate> predicates = new ArrayList<>(List.of(filterPredicates(cb, task, userId, filter)));
+        predicates.add(cb.isNull(task.get("dueDate")));
+        if (afterId != null) {
+            predicates.add(cb.greaterThan(id, afterId));
+        }
+
+        query.select(taskResponse(cb, task))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(order(pinnedColumns(cb, task, filter), cb.asc(task.get("dueDate")), cb.asc(id)));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * The columns the filter pins to one value, in the order the migration indexes lead with
+     * them. Sorting by them first does not change the result, but H2 only reads an index in
+     * order when the ORDER BY starts with its leading columns, and otherwise sorts the rows.
+     */
+    private static List<Order> pinnedColumns(CriteriaBuilder cb, Root<Task> task, TaskFilter filter) {
+        List<Order> pinned = new ArrayList<>();
+        pinned.add(cb.asc(task.get("user").get("id")));
+        if (filter != null && filter.getStatus() != null) {
+            pinned.add(cb.asc(task.get("status")));
+        }
+        if (filter != null && filter.getPriority() != null) {
+            pinned.add(cb.asc(task.get("priority")));
+        }
+        return pinned;
+    }
+
+    private static List<Order> order(List<Order> pinned, Order... sort) {
+        pinned.addAll(List.of(sort));
+        return pinned;
+    }
+
+    /**
+     * Criteria counterpart of {@link TaskRepository#TASK_RESPONSE}.
+     */
+    private static CompoundSelection<TaskResponse> taskResponse(CriteriaBuilder cb, Root<Task> task) {
+        return cb.construct(TaskResponse.class,
+                task.get("id"), task.get("title"), task.get("description"),
+                task.get("priority"), task.get("status"), task.get("dueDate"),
+                task.get("user").get("id"), task.get("createdAt"), task.get("updatedAt"));
+    }
+
+    /**
+     * A native query selecting {@code status, priority, due_date} first, as the counted
+     * attributes of the rows it returns.
+     */
+    @SuppressWarnings("unchecked")
+    private NativeQuery<Object[]> countKeyQuery(String sql) {
+        return ((NativeQuery<Object[]>) entityManager.createNativeQuery(sql).unwrap(NativeQuery.class))
+                .addScalar("status", String.class)
+                .addScalar("priority", String.class)
+                .addScalar("due_date", LocalDate.class);
+    }
+
+    private static TaskCountKey countKey(Object[] row) {
+        return new TaskCountKey(
+                Task.Status.valueOf((String) row[0]),
+                Task.Priority.valueOf((String) row[1]),
+                (LocalDate) row[2]);
+    }
+
+    private static void setParameters(NativeQuery<?> query, Map<String, Object> values) {
+        values.forEach((name, value) -> {
+            if (value instanceof Collection<?> list) {
+                query.setParameterList(name, list);
+            } else {
+                query.setParameter(name, value);
+            }
+        });
+    }
+
+    private static String assignments(Map<String, Object> values) {
+        return values.keySet().stream()
+                .map(column -> column + " = :" + column)
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * The conditions of {@link #filterPredicates} as SQL, with their values added to {@code values}.
+     */
+    private static String filterSql(Long userId, TaskFilter filter, Map<String, Object> values) {
+        List<String> conditions = new ArrayList<>();
+        conditions.add("user_id = :userId");
+        values.put("userId", userId);
+        if (filter != null) {
+            if (filter.getStatus() != null) {
+                conditions.add("status = :filterStatus");
+                values.put("filterStatus", filter.getStatus().name());
+            }
+            if (filter.getPriority() != null) {
+                conditions.add("priority = :filterPriority");
+                values.put("filterPriority", filter.getPriority().name());
+            }
+            if (filter.getDueFrom() != null) {
+                conditions.add("due_date >= :dueFrom");
+                values.put("dueFrom", filter.getDueFrom());
+            }
+            if (filter.getDueTo() != null) {
+                conditions.add("due_date <= :dueTo");
+                values.put("dueTo", filter.getDueTo());
+            }
+            if (filter.getIds() != null) {
+                conditions.add("id in (:ids)");
+                values.put("ids", filter.getIds());
+            }
+        }
+        return String.join(" and ", conditions);
+    }
+
+    private static Predicate[] filterPredicates(CriteriaBuilder cb, Root<Task> task, Long userId, TaskFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(task.get("user").get("id"), userId));
+        if (filter != null) {
+            if (filter.getStatus() != null) {
+                predicates.add(cb.equal(task.get("status"), filter.getStatus()));
+            }
+            if (filter.getPriority() != null) {
+                predicates.add(cb.equal(task.get("priority"), filter.getPriority()));
+            }
+            if (filter.getDueFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(task.<LocalDate>get("dueDate"), filter.getDueFrom()));
+            }
+            if (filter.getDueTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(task.<LocalDate>get("dueDate"), filter.getDueTo()));
+            }
+            if (filter.getIds() != null) {
+                predicates.add(task.get("id").in(filter.getIds()));
+            }
+        }
+        return predicates.toArray(Predicate[]::new);
+    }
+}
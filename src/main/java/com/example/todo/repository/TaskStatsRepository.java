@@ -0,0 +1,106 @@
+package com.example.todo.repository;
+
+import com.example.todo.entity.TaskStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Counter maintenance is done with native, relative UPDATEs so that it never reads
+ * counters into the persistence context and concurrent writers cannot lose increments.
+ */
+@Repository
+public interface TaskStatsRepository extends JpaRepository<TaskStats, Long> {
+
+    @Modifying
+    @Query(value = "insert into task_stats (user_id) values (:userId)", nativeQuery = true)
+    int insertEmpty(@Param("userId") Long userId);
+
+    /**
+     * Row lock on the user's counters, held until the transaction ends.
+     */
+    @Query(value = "select user_id from task_stats where user_id = :userId for update", nativeQuery = true)
+    Optional<Long> lockByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = """
+            update task_stats
+               set total = total + :total,
+                   todo = todo + :todo,
+                   in_progress = in_progress + :inProgress,
+                   done = done + :done,
+                   low_priority = low_priority + :low,
+                   medium_priority = medium_priority + :medium,
+                   high_priority = high_priority + :high
+             where user_id = :userId
+            """, nativeQuery = true)
+    int increment(@Param("userId") Long userId,
+                  @Param("total") long total,
+                  @Param("todo") long todo,
+                  @Param("inProgress") long inProgress,
+                  @Param("done") long done,
+                  @Param("low") long low,
+                  @Param("medium") long medium,
+                  @Param("high") long high);
+
+    @Modifying
+    @Query(value = """
+            update task_open_due_counts
+               set open_count = open_count + :delta
+             where user_id = :userId and due_date = :dueDate
+            """, nativeQuery = true)
+    int incrementOpenDue(@Param("userId") Long userId, @Param("dueDate") LocalDate dueDate, @Param("delta") long delta);
+
+    @Modifying
+    @Query(value = "insert into task_open_due_counts (user_id, due_date, open_count) values (:userId, :dueDate, :count)",
+            nativeQuery = true)
+    int insertOpenDue(@Param("userId") Long userId, @Param("dueDate") LocalDate dueDate, @Param("count") long count);
+
+    @Modifying
+    @Query(value = "delete from task_open_due_counts where user_id = :userId and open_count = 0", nativeQuery = true)
+    int deleteEmptyOpenDue(@Param("userId") Long userId);
+
+    /**
+     * Open tasks due before {@code today}; reads one row per distinct due date.
+     */
+    @Query(value = """
+            select coalesce(sum(open_count), 0) from task_open_due_counts
+             where user_id = :userId and due_date < :today
+            """, nativeQuery = true)
+    long countOverdue(@Param("userId") Long userId, @Param("today") LocalDate today);
+
+    /**
+     * Recomputes the user's counters from the tasks table.
+     */
+    @Modifying
+    @Query(value = """
+            update task_stats
+               set total = (select count(*) from tasks where user_id = :userId),
+                   todo = (select count(*) from tasks where user_id = :userId and status = 'TODO'),
+                   in_progress = (select count(*) from tasks where user_id = :userId and status = 'IN_PROGRESS'),
+                   done = (select count(*) from tasks where user_id = :userId and status = 'DONE'),
+                   low_priority = (select count(*) from tasks where user_id = :userId and priority = 'LOW'),
+                   medium_priority = (select count(*) from tasks where user_id = :userId and priority = 'MEDIUM'),
+                   high_priority = (select count(*) from tasks where user_id = :userId and priority = 'HIGH')
+             where user_id = :userId
+            """, nativeQuery = true)
+    int rebuild(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "delete from task_open_due_counts where user_id = :userId", nativeQuery = true)
+    int deleteOpenDue(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = """
+            insert into task_open_due_counts (user_id, due_date, open_count)
+            select user_id, due_date, count(*) from tasks
+             where user_id = :userId and status <> 'DONE' and due_date is not null
+             group by user_id, due_date
+            """, nativeQuery = true)
+    int rebuildOpenDue(@Param("userId") Long userId);
+}
@@ -0,0 +1,43 @@
+package com.example.todo.repository;
+
+import com.example.todo.entity.TaskTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+
+    /**
+     * Plain INSERT; {@code save} would first SELECT to decide between persist and merge
+     * because the id is assigned rather than generated.
+     */
+    @Modifying
+    @Query(value = "insert into task_tombstones (task_id, user_id, deleted_at) values (:taskId, :userId, :deletedAt)",
+            nativeQuery = true)
+    int insert(@Param("taskId") Long taskId, @Param("userId") Long userId, @Param("deletedAt") LocalDateTime deletedAt);
+
+    /**
+     * Keyset page of the user's tombstones after {@code (deletedAt, taskId)} in that order.
+     */
+    @Query("""
+            select t from TaskTombstone t
+             where t.userId = :userId
+               and (t.deletedAt > :deletedAt or (t.deletedAt = :deletedAt and t.taskId > :taskId))
+             order by t.userId, t.deletedAt, t.taskId
+            """)
+    List<TaskTombstone> findAfter(@Param("userId") Long userId,
+                                  @Param("deletedAt") LocalDateTime deletedAt,
+                                  @Param("taskId") Long taskId,
+                                  Pageable pageable);
+
+    @Modifying
+    @Query("delete from TaskTombstone t where t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -2,6 +2,7 @@ package com.example.todo.security;
 
 import com.example.todo.entity.User;
 import com.example.todo.repository.UserRepository;
+import com.example.todo.shard.UserShards;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -12,15 +13,28 @@ import java.util.Optional;
 public class CurrentUserService {
 
     private final UserRepository userRepository;
+    private final UserShards userShards;
 
-    public CurrentUserService(UserRepository userRepository) {
+    public CurrentUserService(UserRepository userRepository, UserShards userShards) {
         this.userRepository = userRepository;
+        this.userShards = userShards;
     }
 
     public Optional<User> getCurrentUser() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth != null && auth.getPrincipal() instanceof CustomUserDetails details) {
-            return userRepository.findById(details.getId());
+            return userShards.onDirectory(() -> userRepository.findById(details.getId()));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the authenticated user's id straight from the principal, without a query.
+     */
+    public Optional<Long> getCurrentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof CustomUserDetails details) {
+            return Optional.ofNullable(details.getId());
         }
         return Optional.empty();
     }
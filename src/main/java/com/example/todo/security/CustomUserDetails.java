@@ -30,6 +30,20 @@ public class CustomUserDetails implements UserDetails {
         this.updatedAt = user.getUpdatedAt() != null ? user.getUpdatedAt().toString() : null;
     }
 
+    /**
+     * Builds a principal from verified JWT claims, without touching the database.
+     * Password, email and timestamps are not carried in the token and stay {@code null}.
+     */
+    public CustomUserDetails(Long id, String username, String role) {
+        this.id = id;
+        this.username = username;
+        this.password = null;
+        this.email = null;
+        this.role = role;
+        this.createdAt = null;
+        this.updatedAt = null;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role));
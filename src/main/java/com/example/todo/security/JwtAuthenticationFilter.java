@@ -1,18 +1,24 @@
 package com.example.todo.security;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -20,9 +26,40 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtTokenProvider jwtTokenProvider;
     private final CustomUserDetailsService userDetailsService;
 
-    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider, CustomUserDetailsService userDetailsService) {
+    /**
+     * When enabled, every request re-loads the user from the database so that deleted
+     * or re-created accounts are rejected immediately. When disabled (the default), the
+     * principal is built from the verified token claims and no query is made.
+     */
+    @Value("${jwt.verify-user-on-request:false}")
+    private boolean verifyUserOnRequest;
+
+    /**
+     * {@code jwt.validations} by outcome: no bearer token, a valid one, one that failed
+     * verification, a verified one whose account is gone or disabled, or an error.
+     */
+    private final Counter missingTokens;
+    private final Counter validTokens;
+    private final Counter invalidTokens;
+    private final Counter rejectedTokens;
+    private final Counter failedValidations;
+
+    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider, CustomUserDetailsService userDetailsService,
+                                   MeterRegistry meterRegistry) {
         this.jwtTokenProvider = jwtTokenProvider;
         this.userDetailsService = userDetailsService;
+        this.missingTokens = validations(meterRegistry, "missing");
+        this.validTokens = validations(meterRegistry, "valid");
+        this.invalidTokens = validations(meterRegistry, "invalid");
+        this.rejectedTokens = validations(meterRegistry, "rejected");
+        this.failedValidations = validations(meterRegistry, "error");
+    }
+
+    private static Counter validations(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("jwt.validations")
+                .description("Bearer tokens seen by the JWT filter, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 
     @Override
@@ -33,23 +70,60 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
-                String username = jwtTokenProvider.getUsernameFromToken(jwt);
+            Optional<Claims> claims = StringUtils.hasText(jwt)
+                    ? jwtTokenProvider.parseClaims(jwt)
+                    : Optional.empty();
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            if (claims.isPresent()) {
+                UserDetails userDetails = resolveUserDetails(claims.get());
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                if (userDetails != null && userDetails.isEnabled()) {
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                    validTokens.increment();
+                } else {
+                    rejectedTokens.increment();
+                }
+            } else {
+                (StringUtils.hasText(jwt) ? invalidTokens : missingTokens).increment();
             }
         } catch (Exception ex) {
+            failedValidations.increment();
             logger.error("Could not set user authentication in security context", ex);
         }
 
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails resolveUserDetails(Claims claims) {
+        if (!verifyUserOnRequest) {
+            Optional<CustomUserDetails> fromClaims = jwtTokenProvider.getUserDetailsFromClaims(claims);
+            if (fromClaims.isPresent()) {
+                return fromClaims.get();
+            }
+        }
+
+        UserDetails userDetails;
+        try {
+            userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        } catch (UsernameNotFoundException ex) {
+            // The account was deleted after the token was issued: a rejection, not a fault
+            return null;
+        }
+
+        // A token minted for an account that has since been deleted and re-registered
+        // under the same username must not authenticate as the new account.
+        Long tokenUserId = jwtTokenProvider.getUserIdFromClaims(claims);
+        if (tokenUserId != null && userDetails instanceof CustomUserDetails details
+                && !tokenUserId.equals(details.getId())) {
+            return null;
+        }
+        return userDetails;
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
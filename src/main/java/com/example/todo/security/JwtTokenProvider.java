@@ -1,6 +1,7 @@
 package com.example.todo.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
@@ -9,22 +10,34 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.Optional;
 
 @Component
 public class JwtTokenProvider {
 
     private static final int MIN_SECRET_LENGTH_BYTES = 32;
 
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expiration-ms}")
     private long jwtExpirationMs;
 
+    @Value("${jwt.verified-token-cache-size:10000}")
+    private int verifiedTokenCacheSize;
+
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    private VerifiedTokenCache verifiedTokenCache;
+
     @PostConstruct
     public void validateSecret() {
         if (jwtSecret == null || jwtSecret.isEmpty()) {
@@ -45,10 +58,12 @@ public class JwtTokenProvider {
                 )
             );
         }
-    }
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        signingKey = Keys.hmacShaKeyFor(secretBytes);
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        verifiedTokenCache = new VerifiedTokenCache(verifiedTokenCacheSize);
     }
 
     public String generateToken(Authentication authentication) {
@@ -59,34 +74,82 @@ public class JwtTokenProvider {
 
         String role = userDetails.getAuthorities().iterator().next().getAuthority().replaceFirst("ROLE_", "");
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .subject(userDetails.getUsername())
-                .claim("role", role)
+                .claim(CLAIM_ROLE, role)
                 .issuedAt(now)
-                .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .expiration(expiryDate);
+        if (userDetails instanceof CustomUserDetails details && details.getId() != null) {
+            builder.claim(CLAIM_USER_ID, details.getId());
+        }
+        return builder
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * Verifies the token once and returns its claims, or empty if the token is missing,
+     * malformed, expired or signed with another key. Tokens seen before are answered from
+     * the verified-token cache without repeating the signature check.
+     */
+    public Optional<Claims> parseClaims(String token) {
+        if (!StringUtils.hasText(token)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(verifyClaims(token));
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+
     public String getUsernameFromToken(String token) {
-        Claims claims = getClaimsParser()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claims.getSubject();
+        return verifyClaims(token).getSubject();
     }
 
     public boolean validateToken(String token) {
-        try {
-            getClaimsParser().parseSignedClaims(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+        return parseClaims(token).isPresent();
+    }
+
+    /**
+     * Rebuilds the principal from the token's claims alone.
+     * Returns empty for tokens issued without the user id or role claims
+     * (e.g. before they were added), so callers can fall back to a database lookup.
+     */
+    public Optional<CustomUserDetails> getUserDetailsFromToken(String token) {
+        return getUserDetailsFromClaims(verifyClaims(token));
+    }
+
+    public Optional<CustomUserDetails> getUserDetailsFromClaims(Claims claims) {
+        Long userId = getUserIdFromClaims(claims);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        if (userId == null || role == null) {
+            return Optional.empty();
         }
+        return Optional.of(new CustomUserDetails(userId, claims.getSubject(), role));
     }
 
-    private JwtParser getClaimsParser() {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build();
+    /**
+     * Returns the user id carried in the token, or {@code null} for tokens issued without it.
+     */
+    public Long getUserIdFromToken(String token) {
+        return getUserIdFromClaims(verifyClaims(token));
+    }
+
+    public Long getUserIdFromClaims(Claims claims) {
+        return claims.get(CLAIM_USER_ID, Long.class);
+    }
+
+    private Claims verifyClaims(String token) {
+        String digest = VerifiedTokenCache.digest(token);
+        Claims cached = verifiedTokenCache.get(digest);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = jwtParser
+                .parseSignedClaims(token)
+                .getPayload();
+        verifiedTokenCache.put(digest, claims);
+        return claims;
     }
 }
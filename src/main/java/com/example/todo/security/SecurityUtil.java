@@ -16,6 +16,17 @@ public class SecurityUtil {
         return Optional.empty();
     }
 
+    /**
+     * The authenticated user's id, straight from the principal.
+     */
+    public static Optional<Long> getCurrentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof CustomUserDetails details) {
+            return Optional.ofNullable(details.getId());
+        }
+        return Optional.empty();
+    }
+
     public static Optional<User> getCurrentUser() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth != null && auth.getPrincipal() instanceof CustomUserDetails details) {
@@ -0,0 +1,53 @@
+package com.example.todo.security;
+
+import com.example.todo.util.BoundedExpiringMap;
+import io.jsonwebtoken.Claims;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Bounded cache of tokens whose signature has already been verified, keyed by a
+ * SHA-256 digest of the token so raw tokens are never retained. Entries are dropped
+ * once the token expires; when the cache is full, expired entries are purged first
+ * (see {@link BoundedExpiringMap}).
+ */
+final class VerifiedTokenCache {
+
+    private final BoundedExpiringMap<String, Entry> entries;
+
+    VerifiedTokenCache(int maxEntries) {
+        this.entries = new BoundedExpiringMap<>(maxEntries,
+                entry -> entry.expiresAtMillis() <= System.currentTimeMillis());
+    }
+
+    Claims get(String digest) {
+        Entry entry = entries.get(digest);
+        return entry != null ? entry.claims() : null;
+    }
+
+    void put(String digest, Claims claims) {
+        if (claims.getExpiration() != null) {
+            entries.put(digest, new Entry(claims, claims.getExpiration().getTime()));
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record Entry(Claims claims, long expiresAtMillis) {
+    }
+}
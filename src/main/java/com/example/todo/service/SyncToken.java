@@ -0,0 +1,39 @@
+package com.example.todo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Delta-sync position: how far a client has read the user's task changes, as
+ * {@code (updatedAt, id)}, and tombstones, as {@code (deletedAt, taskId)}.
+ * Clients receive it as an opaque URL-safe token.
+ */
+record SyncToken(LocalDateTime taskChangedAt, Long taskId, LocalDateTime deletedAt, Long deletedTaskId) {
+
+    private static final String SEPARATOR = "|";
+
+    String encode() {
+        String raw = String.join(SEPARATOR,
+                taskChangedAt.toString(), taskId.toString(), deletedAt.toString(), deletedTaskId.toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static SyncToken decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Invalid sync token");
+            }
+            return new SyncToken(
+                    LocalDateTime.parse(parts[0]),
+                    Long.parseLong(parts[1]),
+                    LocalDateTime.parse(parts[2]),
+                    Long.parseLong(parts[3]));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid sync token");
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.todo.service;
+
+import com.example.todo.entity.Task;
+import com.example.todo.repository.TaskCountKey;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Net change to one user's task counters, collected while tasks are written
+ * and applied at once by {@link TaskCounters#apply}.
+ */
+final class TaskCountDelta {
+
+    private long total;
+    private final Map<Task.Status, Long> byStatus = new EnumMap<>(Task.Status.class);
+    private final Map<Task.Priority, Long> byPriority = new EnumMap<>(Task.Priority.class);
+    // Sorted, so that concurrent writers update due-date rows in the same order.
+    private final TreeMap<LocalDate, Long> openByDueDate = new TreeMap<>();
+
+    TaskCountDelta add(Task task) {
+        return change(new TaskCountKey(task.getStatus(), task.getPriority(), task.getDueDate()), 1);
+    }
+
+    TaskCountDelta add(TaskCountKey key) {
+        return change(key, 1);
+    }
+
+    TaskCountDelta remove(TaskCountKey key) {
+        return change(key, -1);
+    }
+
+    TaskCountDelta change(TaskCountKey key, long count) {
+        total += count;
+        byStatus.merge(key.status(), count, Long::sum);
+        byPriority.merge(key.priority(), count, Long::sum);
+        if (key.status() != Task.Status.DONE && key.dueDate() != null) {
+            openByDueDate.merge(key.dueDate(), count, Long::sum);
+        }
+        return this;
+    }
+
+    long total() {
+        return total;
+    }
+
+    long status(Task.Status status) {
+        return byStatus.getOrDefault(status, 0L);
+    }
+
+    long priority(Task.Priority priority) {
+        return byPriority.getOrDefault(priority, 0L);
+    }
+
+    Map<LocalDate, Long> openByDueDate() {
+        return openByDueDate;
+    }
+
+    boolean isEmpty() {
+        return total == 0
+                && byStatus.values().stream().allMatch(count -> count == 0)
+                && byPriority.values().stream().allMatch(count -> count == 0)
+                && openByDueDate.values().stream().allMatch(count -> count == 0);
+    }
+}
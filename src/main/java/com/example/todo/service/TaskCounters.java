@@ -0,0 +1,84 @@
+package com.example.todo.service;
+
+import com.example.todo.entity.Task;
+import com.example.todo.repository.TaskStatsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Applies task writes to the per-user counters behind {@code GET /api/tasks/stats}, inside
+ * the writer's transaction so the counters commit or roll back with the tasks.
+ * <p>
+ * All counter changes are relative UPDATEs of the user's {@code task_stats} row, which locks it
+ * until commit; due-date rows are only touched after that, so they never race to be inserted.
+ * Task writes derive their delta from the old values their own UPDATE or DELETE returns: the
+ * task rows stay locked until commit, so no other write sees the same old values. They lock
+ * tasks before counters; {@link #lock} is for readers of the tasks table, such as the
+ * consistency check, which must keep writers out while they compare.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskCounters {
+
+    private final TaskStatsRepository statsRepository;
+
+    /**
+     * Creates the counters of a new user, all zero.
+     */
+    void init(Long userId) {
+        statsRepository.insertEmpty(userId);
+    }
+
+    void lock(Long userId) {
+        if (statsRepository.lockByUserId(userId).isEmpty()) {
+            statsRepository.insertEmpty(userId);
+        }
+    }
+
+    void apply(Long userId, TaskCountDelta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        if (increment(userId, delta) == 0) {
+            statsRepository.insertEmpty(userId);
+            increment(userId, delta);
+        }
+        boolean decremented = false;
+        for (Map.Entry<LocalDate, Long> entry : delta.openByDueDate().entrySet()) {
+            long count = entry.getValue();
+            if (count == 0) {
+                continue;
+            }
+            if (statsRepository.incrementOpenDue(userId, entry.getKey(), count) == 0) {
+                statsRepository.insertOpenDue(userId, entry.getKey(), count);
+            }
+            decremented |= count < 0;
+        }
+        if (decremented) {
+            statsRepository.deleteEmptyOpenDue(userId);
+        }
+    }
+
+    /**
+     * Recomputes the user's counters from the tasks table; the caller must hold {@link #lock}.
+     */
+    void rebuild(Long userId) {
+        statsRepository.rebuild(userId);
+        statsRepository.deleteOpenDue(userId);
+        statsRepository.rebuildOpenDue(userId);
+    }
+
+    private int increment(Long userId, TaskCountDelta delta) {
+        return statsRepository.increment(userId,
+                delta.total(),
+                delta.status(Task.Status.TODO),
+                delta.status(Task.Status.IN_PROGRESS),
+                delta.status(Task.Status.DONE),
+                delta.priority(Task.Priority.LOW),
+                delta.priority(Task.Priority.MEDIUM),
+                delta.priority(Task.Priority.HIGH));
+    }
+}
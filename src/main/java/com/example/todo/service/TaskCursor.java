@@ -0,0 +1,48 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.task.TaskSort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position for cursor pagination: the sort key of the last task on a page.
+ * Listings that span several index ranges (one per priority, or dated then undated
+ * tasks) also record which range, the {@code segment}, the task came from.
+ * Clients receive it as an opaque URL-safe token.
+ */
+record TaskCursor(TaskSort sort, int segment, LocalDateTime createdAt, LocalDate dueDate, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    String encode() {
+        String raw = String.join(SEPARATOR,
+                sort.name(),
+                Integer.toString(segment),
+                createdAt != null ? createdAt.toString() : "",
+                dueDate != null ? dueDate.toString() : "",
+                id.toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static TaskCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 5) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new TaskCursor(
+                    TaskSort.valueOf(parts[0]),
+                    Integer.parseInt(parts[1]),
+                    parts[2].isEmpty() ? null : LocalDateTime.parse(parts[2]),
+                    parts[3].isEmpty() ? null : LocalDate.parse(parts[3]),
+                    Long.parseLong(parts[4]));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.task.TaskEvent;
+import com.example.todo.dto.task.TaskEventType;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-Sent Events feed of committed task changes, per user.
+ * <p>
+ * Connections are async servlet requests, so an idle subscriber holds no thread. Events are
+ * published after commit and appended to a ring buffer of the last {@code tasks.events.replay-size}
+ * events, from which a reconnecting client is served everything after its {@code Last-Event-ID}.
+ * Each subscriber has a queue of {@code tasks.events.buffer-size} events drained by a sender pool,
+ * so publishing never waits for a client; a subscriber whose queue overflows is disconnected
+ * and will be told to resynchronize when it reconnects. The pool has
+ * {@code tasks.events.sender-threads} threads and queues up to {@code tasks.events.sender-queue-size}
+ * drains; when that queue is full a subscriber with new events is disconnected, the same as one
+ * that fell behind. Heartbeats are only sent to idle subscribers, so a heartbeat schedules at most
+ * one short write per connection. Writes block while a client's TCP window is full; a subscriber
+ * stuck in a write for longer than {@code tasks.events.send-timeout} is disconnected at the next
+ * heartbeat, and its thread is freed when the container's write timeout fails the write. Event ids carry the
+ * process start time, so ids from before a restart are recognised and answered with a
+ * {@code reset} event.
+ * State is in memory: with several instances, a client only sees writes made on its own.
+ */
+@Component
+@Slf4j
+public class TaskEventStream {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final int replaySize;
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final long sendTimeoutNanos;
+    private final Executor sender;
+
+    private final Object lock = new Object();
+    private final ArrayDeque<Published> replay;
+    private final Map<Long, Set<Subscriber>> subscribers = new HashMap<>();
+    private long lastId;
+
+    @Autowired
+    public TaskEventStream(@Value("${tasks.events.replay-size:1000}") int replaySize,
+                           @Value("${tasks.events.buffer-size:256}") int bufferSize,
+                           @Value("${tasks.events.timeout:30m}") Duration timeout,
+                           @Value("${tasks.events.send-timeout:10s}") Duration sendTimeout,
+                           @Value("${tasks.events.sender-threads:4}") int senderThreads,
+                           @Value("${tasks.events.sender-queue-size:10000}") int senderQueueSize) {
+        this(replaySize, bufferSize, timeout, sendTimeout, new ThreadPoolExecutor(senderThreads, senderThreads,
+                0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(senderQueueSize), senderThreadFactory()));
+    }
+
+    TaskEventStream(int replaySize, int bufferSize, Duration timeout, Duration sendTimeout, Executor sender) {
+        this.replaySize = replaySize;
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeout.toMillis();
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.sender = sender;
+        this.replay = new ArrayDeque<>(replaySize);
+    }
+
+    /**
+     * Publishes the event to the user's subscribers after the surrounding transaction commits,
+     * or immediately when there is none; a rolled back write publishes nothing.
+     */
+    public void publishAfterCommit(Long userId, TaskEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(userId, event);
+                }
+            });
+        } else {
+            publish(userId, event);
+        }
+    }
+
+    /**
+     * Opens a stream for the user, first replaying what was published after {@code lastEventId}.
+     */
+    public SseEmitter subscribe(Long userId, String lastEventId) {
+        return subscribe(userId, lastEventId, new SseEmitter(timeoutMs));
+    }
+
+    SseEmitter subscribe(Long userId, String lastEventId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        synchronized (lock) {
+            // Commits the response at once, so the client knows it is connected.
+            subscriber.offer(SseEmitter.event().comment("connected"));
+            if (lastEventId != null) {
+                replayAfter(userId, lastEventId, subscriber);
+            }
+            if (!subscriber.closed) {
+                subscribers.computeIfAbsent(userId, id -> new LinkedHashSet<>()).add(subscriber);
+            }
+        }
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+        return emitter;
+    }
+
+    /**
+     * Comments keep idle connections open through proxies and reveal dead ones; subscribers
+     * stuck in a write for longer than the send timeout are disconnected first. A subscriber
+     * with a write in progress or queued needs no comment and is skipped.
+     */
+    @Scheduled(fixedDelayString = "${tasks.events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        List<Subscriber> all = new ArrayList<>();
+        synchronized (lock) {
+            subscribers.values().forEach(all::addAll);
+        }
+        long now = System.nanoTime();
+        for (Subscriber subscriber : all) {
+            long since = subscriber.sendingSince;
+            if (since != 0 && now - since > sendTimeoutNanos) {
+                log.debug("Disconnecting task event subscriber blocked in a write for {} ms",
+                        TimeUnit.NANOSECONDS.toMillis(now - since));
+                subscriber.close();
+            } else {
+                subscriber.offerHeartbeat();
+            }
+        }
+    }
+
+    int subscriberCount(Long userId) {
+        synchronized (lock) {
+            return subscribers.getOrDefault(userId, Set.of()).size();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (sender instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    void publish(Long userId, TaskEvent event) {
+        synchronized (lock) {
+            long seq = ++lastId;
+            Published published = new Published(epoch + "-" + seq, seq, userId, event);
+            if (replay.size() == replaySize) {
+                replay.removeFirst();
+            }
+            replay.addLast(published);
+            for (Subscriber subscriber : List.copyOf(subscribers.getOrDefault(userId, Set.of()))) {
+                subscriber.offer(published.toSse());
+            }
+        }
+    }
+
+    private void replayAfter(Long userId, String lastEventId, Subscriber subscriber) {
+        long after = parseId(lastEventId);
+        Published oldest = replay.peekFirst();
+        // Anything from another run, newer than we know, or older than the buffer means missed events.
+        boolean complete = after >= 0 && after <= lastId && (oldest == null || after >= oldest.seq() - 1);
+        List<Published> missed = new ArrayList<>();
+        if (complete) {
+            for (Published published : replay) {
+                if (published.seq() > after && published.userId().equals(userId)) {
+                    missed.add(published);
+                }
+            }
+        }
+        if (!complete || missed.size() >= bufferSize) {
+            subscriber.offer(SseEmitter.event()
+                    .name(TaskEventType.RESET.getEventName())
+                    .data(TaskEvent.builder().type(TaskEventType.RESET).build(), MediaType.APPLICATION_JSON));
+            return;
+        }
+        for (Published published : missed) {
+            subscriber.offer(published.toSse());
+        }
+    }
+
+    private long parseId(String id) {
+        int dash = id.lastIndexOf('-');
+        if (dash < 0 || !id.substring(0, dash).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(id.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscriber.closed = true;
+        synchronized (lock) {
+            Set<Subscriber> userSubscribers = subscribers.get(subscriber.userId);
+            if (userSubscribers != null) {
+                userSubscribers.remove(subscriber);
+                if (userSubscribers.isEmpty()) {
+                    subscribers.remove(subscriber.userId);
+                }
+            }
+        }
+    }
+
+    private static ThreadFactory senderThreadFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "task-events-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record Published(String id, long seq, Long userId, TaskEvent event) {
+
+        SseEmitter.SseEventBuilder toSse() {
+            return SseEmitter.event()
+                    .id(id)
+                    .name(event.getType().getEventName())
+                    .data(event, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    /**
+     * One open stream. Events wait in a bounded queue and are written by the sender pool,
+     * one drain at a time per subscriber so they stay in order.
+     */
+    private final class Subscriber {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+        // System.nanoTime() when the write in progress started, made odd so it is never 0; 0 when not writing.
+        private volatile long sendingSince;
+
+        Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                log.debug("Disconnecting task event subscriber that fell {} events behind", bufferSize);
+                close();
+                return;
+            }
+            if (!scheduleDrain()) {
+                log.debug("Disconnecting task event subscriber: the sender queue is full");
+                close();
+            }
+        }
+
+        /**
+         * Skipped while a drain is running; events left queued by a drain the full pool turned
+         * away are picked up here instead.
+         */
+        void offerHeartbeat() {
+            if (closed || draining.get()) {
+                return;
+            }
+            if (queue.isEmpty()) {
+                queue.offer(SseEmitter.event().comment("heartbeat"));
+            }
+            scheduleDrain();
+        }
+
+        /**
+         * @return false if the pool's queue is full and the queued events were not scheduled
+         */
+        private boolean scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void drain() {
+            boolean failed = false;
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed && (event = queue.poll()) != null) {
+                    sendingSince = System.nanoTime() | 1;
+                    emitter.send(event);
+                    sendingSince = 0;
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the emitter already completed.
+                failed = true;
+                unsubscribe(this);
+            } finally {
+                sendingSince = 0;
+                draining.set(false);
+                if (closed) {
+                    if (!failed) {
+                        emitter.complete();
+                    }
+                } else if (!queue.isEmpty() && !scheduleDrain()) {
+                    close();
+                }
+            }
+        }
+
+        /**
+         * Completes the stream, or leaves that to the running drain: completing waits for a write
+         * in progress, which for a slow client may take long, and must not hold up the publisher,
+         * the heartbeat or another sender thread.
+         */
+        private void close() {
+            unsubscribe(this);
+            queue.clear();
+            if (!draining.get()) {
+                emitter.complete();
+            }
+        }
+    }
+}
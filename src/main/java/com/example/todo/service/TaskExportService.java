@@ -0,0 +1,196 @@
+package com.example.todo.service;
+
+import com.example.todo.config.ReplicaRoutingContext;
+import com.example.todo.dto.task.TaskExportFormat;
+import com.example.todo.dto.task.TaskResponse;
+import com.example.todo.entity.Task;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Writes all of a user's tasks to a stream without collecting them first.
+ * <p>
+ * Rows come from a forward-only JDBC cursor read {@code tasks.export.fetch-size} rows at a time
+ * and each row is written as soon as it is read, so memory use does not grow with the number of
+ * tasks. The output is flushed after every fetch; since servlet writes block while the client
+ * is not reading, a slow client slows the cursor down instead of filling the heap.
+ */
+@Service
+public class TaskExportService {
+
+    private static final String SELECT_TASKS = """
+            SELECT id, title, description, priority, status, due_date, user_id, created_at, updated_at
+            FROM tasks
+            WHERE user_id = ?
+            ORDER BY user_id, created_at DESC, id DESC
+            """;
+
+    private static final String CSV_HEADER = "id,title,description,priority,status,dueDate,userId,createdAt,updatedAt";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public TaskExportService(DataSource dataSource,
+                             TransactionTemplate transactionTemplate,
+                             ObjectMapper objectMapper,
+                             @Value("${tasks.export.fetch-size:1000}") int fetchSize) {
+        // A template of our own, so the fetch size does not leak into other queries.
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Runs in a read-only transaction: some drivers (PostgreSQL among them) only honour the
+     * fetch size with auto-commit off and otherwise load the whole result set. The export is
+     * streamed from a thread of its own, so the user is named for read routing explicitly;
+     * an export right after a write still reads from the primary.
+     */
+    public void export(Long userId, TaskExportFormat format, OutputStream out) throws IOException {
+        try {
+            ReplicaRoutingContext.runAs(userId, () -> readOnlyTransaction.executeWithoutResult(status -> {
+                try {
+                    switch (format) {
+                        case NDJSON -> exportNdjson(userId, out);
+                        case CSV -> exportCsv(userId, out);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void exportNdjson(Long userId, OutputStream out) throws IOException {
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Lines are ended explicitly instead of separating root values with a space.
+            json.setRootValueSeparator(null);
+            forEachTask(userId, task -> {
+                json.writeObject(task);
+                json.writeRaw('\n');
+            }, json::flush);
+        }
+    }
+
+    private void exportCsv(Long userId, OutputStream out) throws IOException {
+        Writer csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        csv.write(CSV_HEADER);
+        csv.write("\r\n");
+        forEachTask(userId, task -> {
+            csv.write(String.valueOf(task.getId()));
+            csv.write(',');
+            writeCsvField(csv, task.getTitle());
+            csv.write(',');
+            writeCsvField(csv, task.getDescription());
+            csv.write(',');
+            csv.write(task.getPriority().name());
+            csv.write(',');
+            csv.write(task.getStatus().name());
+            csv.write(',');
+            csv.write(task.getDueDate() != null ? task.getDueDate().toString() : "");
+            csv.write(',');
+            csv.write(String.valueOf(task.getUserId()));
+            csv.write(',');
+            csv.write(task.getCreatedAt() != null ? task.getCreatedAt().toString() : "");
+            csv.write(',');
+            csv.write(task.getUpdatedAt() != null ? task.getUpdatedAt().toString() : "");
+            csv.write("\r\n");
+        }, csv::flush);
+        csv.flush();
+    }
+
+    private void forEachTask(Long userId, RowWriter writer, Flush flush) {
+        RowCallbackHandler handler = new RowCallbackHandler() {
+            private int sinceFlush;
+
+            @Override
+            public void processRow(ResultSet rs) throws SQLException {
+                try {
+                    writer.write(mapRow(rs));
+                    if (++sinceFlush == fetchSize) {
+                        flush.flush();
+                        sinceFlush = 0;
+                    }
+                } catch (IOException e) {
+                    // The client went away; stop reading and let the statement be closed.
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        jdbcTemplate.query(SELECT_TASKS, handler, userId);
+    }
+
+    private static TaskResponse mapRow(ResultSet rs) throws SQLException {
+        Date dueDate = rs.getDate("due_date");
+        return TaskResponse.builder()
+                .id(rs.getLong("id"))
+                .title(rs.getString("title"))
+                .description(rs.getString("description"))
+                .priority(Task.Priority.valueOf(rs.getString("priority")))
+                .status(Task.Status.valueOf(rs.getString("status")))
+                .dueDate(dueDate != null ? dueDate.toLocalDate() : null)
+                .userId(rs.getLong("user_id"))
+                .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+                .updatedAt(toLocalDateTime(rs.getTimestamp("updated_at")))
+                .build();
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    /**
+     * Quotes a field when it contains a separator, quote or line break, doubling inner quotes.
+     */
+    static void writeCsvField(Writer csv, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            csv.write(value);
+            return;
+        }
+        csv.write('"');
+        csv.write(value.replace("\"", "\"\""));
+        csv.write('"');
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(TaskResponse task) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Flush {
+        void flush() throws IOException;
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.task.TaskCreateRequest;
+import com.example.todo.dto.task.TaskImportError;
+import com.example.todo.dto.task.TaskImportResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.fasterxml.jackson.core.exc.StreamConstraintsException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Imports tasks from an NDJSON or CSV upload while it is being received.
+ * <p>
+ * Records are parsed one at a time, validated, and collected into chunks of
+ * {@code tasks.import.chunk-size} that are inserted in a transaction each, so memory use
+ * depends on the chunk size and not on the size of the upload. Invalid records are reported
+ * by line and skipped; chunks already inserted stay inserted if the upload breaks off.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskImportService {
+
+    /** Longest NDJSON string value read; the fields of a valid task are far shorter. */
+    static final int MAX_STRING_CHARS = 16 * 1024;
+
+    private static final JsonFactory NDJSON_FACTORY = JsonFactory.builder()
+            .streamReadConstraints(StreamReadConstraints.builder().maxStringLength(MAX_STRING_CHARS).build())
+            .build();
+
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .enable(CsvParser.Feature.IGNORE_TRAILING_UNMAPPABLE)
+            .build();
+    private static final CsvSchema CSV_SCHEMA = CsvSchema.emptySchema().withHeader();
+
+    private final TaskService taskService;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${tasks.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${tasks.import.max-errors:100}")
+    private int maxErrors;
+
+    /**
+     * One JSON object per line, with the fields of {@link TaskCreateRequest}; errors are reported
+     * by the line the object starts on. A record with a field of the wrong type or an overlong
+     * string is skipped, but broken JSON ends the import, as a broken quote ends a CSV import.
+     */
+    public TaskImportResponse importNdjson(Long userId, InputStream in) throws IOException {
+        Import run = new Import(userId);
+        try (JsonParser parser = NDJSON_FACTORY.createParser(in);
+             MappingIterator<TaskCreateRequest> tasks = objectMapper.readerFor(TaskCreateRequest.class)
+                     .readValues(parser)) {
+            while (true) {
+                int line = 0;
+                TaskCreateRequest request;
+                try {
+                    if (!tasks.hasNextValue()) {
+                        break;
+                    }
+                    line = parser.currentTokenLocation().getLineNr();
+                    request = tasks.nextValue();
+                } catch (JsonMappingException e) {
+                    // The iterator skips the rest of the object, without buffering it, before the next value.
+                    String reason = e.getCause() instanceof StreamConstraintsException
+                            ? "Longer than " + MAX_STRING_CHARS + " characters"
+                            : "Invalid value";
+                    run.reject(line, Map.of(fieldOf(e), reason));
+                    continue;
+                } catch (JsonProcessingException e) {
+                    if (line == 0 && e.getLocation() != null) {
+                        line = e.getLocation().getLineNr();
+                    }
+                    run.reject(line, Map.of("line", "Malformed JSON; import stopped here"));
+                    break;
+                }
+                run.add(line, request);
+            }
+        }
+        return run.finish();
+    }
+
+    /**
+     * A header row naming {@link TaskCreateRequest} fields, then one task per row. Other
+     * columns, such as those of {@code GET /api/tasks/export?format=csv}, are ignored and
+     * empty cells count as absent. Lines are counted as one per record.
+     */
+    public TaskImportResponse importCsv(Long userId, InputStream in) throws IOException {
+        Import run = new Import(userId);
+        int lineNumber = 1;
+        try (MappingIterator<Map<String, String>> rows = CSV_MAPPER.readerForMapOf(String.class)
+                .with(CSV_SCHEMA)
+                .readValues(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            while (true) {
+                Map<String, String> row;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    row = rows.nextValue();
+                } catch (JsonProcessingException e) {
+                    // After a broken quote there is no reliable record boundary to resume from.
+                    run.reject(lineNumber + 1, Map.of("line", "Malformed CSV; import stopped here"));
+                    break;
+                }
+                lineNumber++;
+                row.values().removeIf(String::isEmpty);
+                try {
+                    run.add(lineNumber, objectMapper.convertValue(row, TaskCreateRequest.class));
+                } catch (IllegalArgumentException e) {
+                    run.reject(lineNumber, Map.of(fieldOf(e.getCause()), "Invalid value"));
+                }
+            }
+        }
+        return run.finish();
+    }
+
+    private static String fieldOf(Throwable e) {
+        if (e instanceof JsonMappingException mapping && !mapping.getPath().isEmpty()) {
+            String field = mapping.getPath().get(mapping.getPath().size() - 1).getFieldName();
+            if (field != null) {
+                return field;
+            }
+        }
+        return "task";
+    }
+
+    /**
+     * Progress of one import: the pending chunk and the outcome so far.
+     */
+    private final class Import {
+
+        private final Long userId;
+        private List<TaskCreateRequest> chunk = new ArrayList<>();
+        private final List<TaskImportError> errors = new ArrayList<>();
+        private int imported;
+        private int failed;
+
+        Import(Long userId) {
+            this.userId = userId;
+        }
+
+        void add(int line, TaskCreateRequest request) {
+            Map<String, String> violations = taskService.validate(request);
+            if (!violations.isEmpty()) {
+                reject(line, violations);
+                return;
+            }
+            chunk.add(request);
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void reject(int line, Map<String, String> reasons) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(TaskImportError.builder().line(line).errors(reasons).build());
+            }
+        }
+
+        TaskImportResponse finish() {
+            flush();
+            return TaskImportResponse.builder()
+                    .imported(imported)
+                    .failed(failed)
+                    .errors(errors)
+                    .errorsTruncated(failed > errors.size())
+                    .build();
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            imported += taskService.createValidatedTasks(chunk, userId);
+            chunk = new ArrayList<>();
+            // With open-in-view the request keeps one persistence context across the
+            // chunk transactions; drop the inserted tasks from it.
+            entityManager.clear();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.todo.service;
+
+import com.example.todo.shard.UserShards;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Schedules the jobs that cover all users, once for every database that holds users' tasks
+ * (see {@link UserShards}), with the connections of each run taken from that database.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskMaintenanceJobs {
+
+    private final TaskSyncService syncService;
+    private final TaskStatsService statsService;
+    private final UserShards userShards;
+
+    @Scheduled(fixedDelayString = "${tasks.sync.purge-interval-ms:3600000}")
+    public void purgeTombstones() {
+        userShards.forEachLocation(syncService::purgeTombstones);
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.stats.check-interval-ms:86400000}",
+            initialDelayString = "${tasks.stats.check-interval-ms:86400000}")
+    public void checkStats() {
+        userShards.forEachLocation(statsService::checkConsistency);
+    }
+}
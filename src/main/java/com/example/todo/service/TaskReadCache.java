@@ -0,0 +1,215 @@
+package com.example.todo.service;
+
+import com.example.todo.config.ReplicaRoutingContext;
+import com.example.todo.dto.task.PaginatedTaskResponse;
+import com.example.todo.dto.task.TaskResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * In-process cache of per-user task reads (first pages and single tasks), bounded by an
+ * estimated weight in bytes both overall and per user, with least-recently-used eviction.
+ * <p>
+ * Entries live in a bucket per user, so one user's reads can only ever be answered from
+ * that user's bucket. Each entry is stamped with the user's {@link TaskVersions} version at
+ * the time it was loaded and is only served while that version is current; a write bumps
+ * the version after commit (see {@link #invalidateAfterCommit}) and drops the bucket.
+ * A read that raced with a write is therefore stored under an outdated stamp and never served.
+ * Misses are loaded from the primary: a replica lagging behind the write that bumped the
+ * version would otherwise be cached under the new stamp and served until the next write.
+ * <p>
+ * Cached values are shared between callers and must not be modified.
+ * <p>
+ * Reported as {@code tasks.read.cache{result=hit|miss}}, {@code tasks.read.cache.evictions}
+ * and the {@code tasks.read.cache.weight} gauge.
+ */
+@Component
+public class TaskReadCache implements MeterBinder {
+
+    private static final long ENTRY_OVERHEAD_BYTES = 96;
+    private static final long TASK_BASE_BYTES = 160;
+
+    private final TaskVersions versions;
+    private final long maxWeight;
+    private final long maxWeightPerUser;
+
+    private final Object lock = new Object();
+    private final LinkedHashMap<Long, Bucket> buckets = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalWeight;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public TaskReadCache(TaskVersions versions,
+                         @Value("${tasks.cache.max-weight-bytes:16777216}") long maxWeight,
+                         @Value("${tasks.cache.max-weight-per-user-bytes:262144}") long maxWeightPerUser) {
+        this.versions = versions;
+        this.maxWeight = maxWeight;
+        this.maxWeightPerUser = maxWeightPerUser;
+    }
+
+    public TaskResponse getTask(Long userId, Long taskId, Supplier<TaskResponse> loader) {
+        return this.<TaskResponse>getOrLoad(userId, "task:" + taskId, loader, TaskReadCache::weigh);
+    }
+
+    public PaginatedTaskResponse getFirstPage(Long userId, int size, Supplier<PaginatedTaskResponse> loader) {
+        return this.<PaginatedTaskResponse>getOrLoad(userId, "page0:" + size, loader, TaskReadCache::weigh);
+    }
+
+    /**
+     * Invalidates everything cached for the user once the current transaction commits.
+     */
+    public void invalidateAfterCommit(Long userId) {
+        versions.bumpAfterCommit(userId, () -> {
+            synchronized (lock) {
+                Bucket bucket = buckets.remove(userId);
+                if (bucket != null) {
+                    totalWeight -= bucket.weight;
+                }
+            }
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("tasks.read.cache", hits, LongAdder::doubleValue)
+                .description("Task reads looked up in the cache, by result")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("tasks.read.cache", misses, LongAdder::doubleValue)
+                .description("Task reads looked up in the cache, by result")
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("tasks.read.cache.evictions", evictions, LongAdder::doubleValue)
+                .description("Cached task reads evicted to stay within the weight bounds")
+                .register(registry);
+        Gauge.builder("tasks.read.cache.weight", this, TaskReadCache::weight)
+                .description("Estimated size of the cached task reads")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private long weight() {
+        synchronized (lock) {
+            return totalWeight;
+        }
+    }
+
+    public Stats stats() {
+        synchronized (lock) {
+            int entries = buckets.values().stream().mapToInt(bucket -> bucket.entries.size()).sum();
+            return new Stats(hits.sum(), misses.sum(), evictions.sum(), entries, totalWeight);
+        }
+    }
+
+    private <T> T getOrLoad(Long userId, String key, Supplier<T> loader, ToLongFunction<T> weigher) {
+        if (maxWeight <= 0 || maxWeightPerUser <= 0) {
+            return loader.get();
+        }
+
+        // Read the version before loading: if a write commits while we load, the stamp
+        // is already outdated and the entry will never be served.
+        long version = versions.current(userId);
+        synchronized (lock) {
+            Bucket bucket = buckets.get(userId);
+            Entry entry = bucket != null ? bucket.entries.get(key) : null;
+            if (entry != null && entry.version == version) {
+                hits.increment();
+                @SuppressWarnings("unchecked")
+                T value = (T) entry.value;
+                return value;
+            }
+        }
+        misses.increment();
+
+        T value = ReplicaRoutingContext.callOnPrimary(loader);
+        long weight = ENTRY_OVERHEAD_BYTES + weigher.applyAsLong(value);
+        if (weight <= maxWeightPerUser) {
+            put(userId, key, new Entry(value, version, weight));
+        }
+        return value;
+    }
+
+    private void put(Long userId, String key, Entry entry) {
+        synchronized (lock) {
+            if (versions.current(userId) != entry.version) {
+                return;
+            }
+            Bucket bucket = buckets.computeIfAbsent(userId, id -> new Bucket());
+            Entry previous = bucket.entries.put(key, entry);
+            if (previous != null) {
+                bucket.weight -= previous.weight;
+                totalWeight -= previous.weight;
+            }
+            bucket.weight += entry.weight;
+            totalWeight += entry.weight;
+
+            evictFromBucket(bucket, maxWeightPerUser);
+            evictGlobally();
+        }
+    }
+
+    private void evictFromBucket(Bucket bucket, long limit) {
+        Iterator<Entry> eldest = bucket.entries.values().iterator();
+        while (bucket.weight > limit && eldest.hasNext()) {
+            Entry entry = eldest.next();
+            eldest.remove();
+            bucket.weight -= entry.weight;
+            totalWeight -= entry.weight;
+            evictions.increment();
+        }
+    }
+
+    private void evictGlobally() {
+        Iterator<Bucket> leastRecentUsers = buckets.values().iterator();
+        while (totalWeight > maxWeight && leastRecentUsers.hasNext()) {
+            Bucket bucket = leastRecentUsers.next();
+            evictFromBucket(bucket, 0);
+            leastRecentUsers.remove();
+        }
+    }
+
+    static long weigh(TaskResponse task) {
+        if (task == null) {
+            return 0;
+        }
+        return TASK_BASE_BYTES + 2L * (length(task.getTitle()) + length(task.getDescription()));
+    }
+
+    static long weigh(PaginatedTaskResponse page) {
+        long weight = 64;
+        if (page.getContent() != null) {
+            for (TaskResponse task : page.getContent()) {
+                weight += weigh(task);
+            }
+        }
+        return weight;
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    public record Stats(long hits, long misses, long evictions, int entries, long weightBytes) {
+    }
+
+    private static final class Bucket {
+        private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long weight;
+    }
+
+    private record Entry(Object value, long version, long weight) {
+    }
+}
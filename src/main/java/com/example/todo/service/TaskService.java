@@ -1,75 +1,187 @@
 package com.example.todo.service;
 
+import com.example.todo.dto.task.BatchTaskResponse;
+import com.example.todo.dto.task.BatchTaskResult;
+import com.example.todo.dto.task.BulkTaskUpdateRequest;
+import com.example.todo.dto.task.BulkTaskUpdateResponse;
+import com.example.todo.dto.task.CursorTaskResponse;
 import com.example.todo.dto.task.PaginatedTaskResponse;
 import com.example.todo.dto.task.TaskCreateRequest;
+import com.example.todo.dto.task.TaskEvent;
+import com.example.todo.dto.task.TaskEventType;
+import com.example.todo.dto.task.TaskFilter;
 import com.example.todo.dto.task.TaskResponse;
+import com.example.todo.dto.task.TaskSort;
 import com.example.todo.dto.task.TaskUpdateRequest;
 import com.example.todo.entity.Task;
 import com.example.todo.entity.User;
 import com.example.todo.exception.ResourceNotFoundException;
+import com.example.todo.repository.TaskCountKey;
+import com.example.todo.repository.TaskGroupCount;
 import com.example.todo.repository.TaskRepository;
+import com.example.todo.repository.TaskTombstoneRepository;
+import com.example.todo.repository.UserRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
+/**
+ * Task operations of one user, keyed by the owner's id taken from the authenticated principal.
+ */
 @Service
 @RequiredArgsConstructor
 public class TaskService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 1000;
+    private static final int MAX_BULK_IDS = 1000;
+    private static final List<Task.Priority> PRIORITY_ORDER =
+            List.of(Task.Priority.HIGH, Task.Priority.MEDIUM, Task.Priority.LOW);
+
     private final TaskRepository taskRepository;
+    private final TaskTombstoneRepository tombstoneRepository;
+    private final UserRepository userRepository;
+    private final Validator validator;
+    private final TaskReadCache readCache;
+    private final TaskCounters counters;
+    private final TaskEventStream events;
+
+    @Value("${tasks.batch.max-items:1000}")
+    private int maxBatchItems;
 
+    /**
+     * The owner is an uninitialized proxy, so creating a task never queries the users table.
+     * Like every write here, it updates the user's {@link TaskCounters} in the same
+     * transaction, and invalidates {@link TaskReadCache} and publishes on
+     * {@link TaskEventStream} once it commits.
+     */
     @Transactional
-    public TaskResponse createTask(TaskCreateRequest request, User user) {
-        Task task = Task.builder()
-                .title(request.getTitle())
-                .description(request.getDescription())
-                .priority(request.getPriority() != null ? request.getPriority() : Task.Priority.MEDIUM)
-                .status(request.getStatus() != null ? request.getStatus() : Task.Status.TODO)
-                .dueDate(request.getDueDate())
-                .user(user)
+    public TaskResponse createTask(TaskCreateRequest request, Long userId) {
+        Task task = taskRepository.save(newTask(request, userRepository.getReferenceById(userId)));
+        counters.apply(userId, new TaskCountDelta().add(task));
+        readCache.invalidateAfterCommit(userId);
+        TaskResponse response = toResponse(task);
+        events.publishAfterCommit(userId, TaskEvent.builder()
+                .type(TaskEventType.CREATED)
+                .taskId(task.getId())
+                .task(response)
+                .build());
+        return response;
+    }
+
+    /**
+     * Creates every valid item in one transaction and one flush; with sequence ids the
+     * inserts go out in JDBC batches of {@code hibernate.jdbc.batch_size}. Invalid items
+     * are reported per index and do not prevent the others from being created.
+     */
+    @Transactional
+    public BatchTaskResponse createTasks(List<TaskCreateRequest> requests, Long userId) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("At least one task is required");
+        }
+        if (requests.size() > maxBatchItems) {
+            throw new IllegalArgumentException("At most " + maxBatchItems + " tasks can be created per batch");
+        }
+
+        User owner = userRepository.getReferenceById(userId);
+        List<BatchTaskResult> results = new ArrayList<>(requests.size());
+        List<Task> tasks = new ArrayList<>(requests.size());
+        List<BatchTaskResult> pending = new ArrayList<>(requests.size());
+
+        for (int i = 0; i < requests.size(); i++) {
+            TaskCreateRequest request = requests.get(i);
+            Map<String, String> errors = validate(request);
+            BatchTaskResult result = BatchTaskResult.builder().index(i).build();
+            if (errors.isEmpty()) {
+                tasks.add(newTask(request, owner));
+                pending.add(result);
+            } else {
+                result.setErrors(errors);
+            }
+            results.add(result);
+        }
+
+        List<Task> saved = taskRepository.saveAllAndFlush(tasks);
+        counters.apply(userId, countsOf(saved));
+        readCache.invalidateAfterCommit(userId);
+        if (!saved.isEmpty()) {
+            events.publishAfterCommit(userId, changed());
+        }
+        for (int i = 0; i < saved.size(); i++) {
+            pending.get(i).setTask(toResponse(saved.get(i)));
+        }
+
+        return BatchTaskResponse.builder()
+                .results(results)
+                .created(saved.size())
+                .failed(results.size() - saved.size())
                 .build();
+    }
 
-        task = taskRepository.save(task);
-        return toResponse(task);
+    /**
+     * Inserts requests that already passed {@link #validate} in one transaction, without
+     * building responses. Used by {@link TaskImportService} for each chunk of an import.
+     */
+    @Transactional
+    public int createValidatedTasks(List<TaskCreateRequest> requests, Long userId) {
+        User owner = userRepository.getReferenceById(userId);
+        List<Task> tasks = new ArrayList<>(requests.size());
+        for (TaskCreateRequest request : requests) {
+            tasks.add(newTask(request, owner));
+        }
+        taskRepository.saveAll(tasks);
+        counters.apply(userId, countsOf(tasks));
+        readCache.invalidateAfterCommit(userId);
+        events.publishAfterCommit(userId, changed());
+        return tasks.size();
     }
 
+    /**
+     * Served from {@link TaskReadCache}; a miss selects straight into {@link TaskResponse}
+     * (see {@link TaskRepository#TASK_RESPONSE}) rather than loading the entity.
+     */
     @Transactional(readOnly = true)
-    public TaskResponse getTaskById(Long id, User currentUser) {
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Task not found"));
-
-        if (!task.getUser().getId().equals(currentUser.getId())) {
-            throw new ResourceNotFoundException("Task not found");
-        }
-        return toResponse(task);
+    public TaskResponse getTaskById(Long id, Long userId) {
+        return readCache.getTask(userId, id, () -> taskRepository.findResponseByIdAndUserId(id, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found")));
     }
 
     @Transactional(readOnly = true)
-    public List<TaskResponse> getTasks(User currentUser) {
-        List<Task> tasks = taskRepository.findByUserOrderByCreatedAtDesc(currentUser);
-        return tasks.stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+    public List<TaskResponse> getTasks(Long userId) {
+        return taskRepository.findResponsesByUserId(userId);
     }
 
     @Transactional(readOnly = true)
-    public PaginatedTaskResponse getTasksPaginated(User currentUser, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<Task> taskPage = taskRepository.findByUser(currentUser, pageable);
+    public PaginatedTaskResponse getTasksPaginated(Long userId, int page, int size) {
+        // The first page is what almost every client polls; deeper pages go straight to the database.
+        if (page == 0) {
+            return readCache.getFirstPage(userId, size, () -> loadPage(userId, page, size));
+        }
+        return loadPage(userId, page, size);
+    }
 
-        List<TaskResponse> content = taskPage.getContent().stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+    private PaginatedTaskResponse loadPage(Long userId, int page, int size) {
+        // Led by the user, so H2 reads idx_tasks_user_created_id in order instead of sorting.
+        Pageable pageable = PageRequest.of(page, size,
+                Sort.by(Sort.Order.asc("user.id"), Sort.Order.desc("createdAt"), Sort.Order.desc("id")));
+        Page<TaskResponse> taskPage = taskRepository.findResponsePageByUserId(userId, pageable);
 
         return PaginatedTaskResponse.builder()
-                .content(content)
+                .content(taskPage.getContent())
                 .number(taskPage.getNumber())
                 .size(taskPage.getSize())
                 .totalElements(taskPage.getTotalElements())
@@ -79,47 +191,247 @@ public class TaskService {
                 .build();
     }
 
-    @Transactional
-    public TaskResponse updateTask(Long id, TaskUpdateRequest request, User currentUser) {
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Task not found"));
-
-        if (!task.getUser().getId().equals(currentUser.getId())) {
-            throw new ResourceNotFoundException("Task not found");
+    /**
+     * Keyset listing with optional filters and sort. Only combinations that one of the
+     * task indexes returns already in order are accepted:
+     * <ul>
+     *   <li>{@code createdAt} and {@code priority} sorts: status and/or priority filters</li>
+     *   <li>{@code dueDate} sort: status filter and/or due-date range</li>
+     * </ul>
+     * Anything else is rejected rather than answered with a sort over all the user's tasks.
+     * The priority sort reads one index range per priority and the due-date sort reads dated
+     * tasks before undated ones; a page may continue from one range into the next.
+     */
+    @Transactional(readOnly = true)
+    public CursorTaskResponse getTasksAfterCursor(Long userId, TaskFilter filter, TaskSort sort, String cursor, int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
         }
+        if (filter == null) {
+            filter = new TaskFilter();
+        }
+        requireIndexedCombination(filter, sort);
 
-        if (request.getTitle() != null) {
-            task.setTitle(request.getTitle());
+        int segmentCount = segmentCount(filter, sort);
+        TaskCursor after = null;
+        if (StringUtils.hasText(cursor)) {
+            after = TaskCursor.decode(cursor);
+            if (after.sort() != sort || after.segment() < 0 || after.segment() >= segmentCount) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
         }
-        if (request.getDescription() != null) {
-            task.setDescription(request.getDescription());
+
+        // Fetch one extra row to learn whether another page follows without counting.
+        List<TaskResponse> tasks = new ArrayList<>(size + 1);
+        for (int segment = after != null ? after.segment() : 0; segment < segmentCount && tasks.size() <= size; segment++) {
+            TaskCursor from = after != null && after.segment() == segment ? after : null;
+            tasks.addAll(readSegment(userId, filter, sort, segment, from, size + 1 - tasks.size()));
         }
-        if (request.getPriority() != null) {
-            task.setPriority(request.getPriority());
+
+        boolean hasNext = tasks.size() > size;
+        List<TaskResponse> page = hasNext ? tasks.subList(0, size) : tasks;
+        String nextCursor = null;
+        if (hasNext) {
+            TaskResponse last = page.get(page.size() - 1);
+            nextCursor = new TaskCursor(sort, segmentOf(filter, sort, last),
+                    last.getCreatedAt(), last.getDueDate(), last.getId()).encode();
         }
-        if (request.getStatus() != null) {
-            task.setStatus(request.getStatus());
+
+        return CursorTaskResponse.builder()
+                .content(page)
+                .size(size)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    /**
+     * One conditional UPDATE on {@code id} and {@code user_id}, so the ownership check costs no
+     * extra read; a miss means the task does not exist or belongs to someone else, both 404.
+     * The counters are adjusted from the values the UPDATE replaced, which a title or
+     * description change leaves as they were.
+     */
+    @Transactional
+    public TaskResponse updateTask(Long id, TaskUpdateRequest request, Long userId) {
+        if (hasChanges(request)) {
+            TaskCountKey before = taskRepository.updateFields(id, userId, request)
+                    .orElseThrow(() -> new ResourceNotFoundException("Task not found"));
+            counters.apply(userId, new TaskCountDelta()
+                    .remove(before)
+                    .add(before.with(request.getStatus(), request.getPriority(), request.getDueDate())));
+            readCache.invalidateAfterCommit(userId);
         }
-        if (request.getDueDate() != null) {
-            task.setDueDate(request.getDueDate());
+        TaskResponse response = taskRepository.findResponseByIdAndUserId(id, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found"));
+        if (hasChanges(request)) {
+            events.publishAfterCommit(userId, TaskEvent.builder()
+                    .type(TaskEventType.UPDATED)
+                    .taskId(id)
+                    .task(response)
+                    .build());
         }
+        return response;
+    }
 
-        task = taskRepository.save(task);
-        return toResponse(task);
+    /**
+     * Applies one status, priority and/or due-date change to every task of the user
+     * matching the filter, as a single UPDATE. Tasks of other users never match.
+     */
+    @Transactional
+    public BulkTaskUpdateResponse bulkUpdateTasks(BulkTaskUpdateRequest request, Long userId) {
+        if (request.getStatus() == null && request.getPriority() == null && request.getDueDate() == null) {
+            throw new IllegalArgumentException("At least one of status, priority or dueDate must be set");
+        }
+        TaskFilter filter = request.getFilter();
+        if (filter != null) {
+            if (filter.getDueFrom() != null && filter.getDueTo() != null
+                    && filter.getDueFrom().isAfter(filter.getDueTo())) {
+                throw new IllegalArgumentException("dueFrom must not be after dueTo");
+            }
+            if (filter.getIds() != null) {
+                if (filter.getIds().size() > MAX_BULK_IDS) {
+                    throw new IllegalArgumentException("At most " + MAX_BULK_IDS + " ids can be given");
+                }
+                if (filter.getIds().isEmpty()) {
+                    return new BulkTaskUpdateResponse(0);
+                }
+            }
+        }
+        List<TaskGroupCount> before = taskRepository.bulkUpdate(userId, filter, request);
+        int updated = before.stream().mapToInt(group -> group.count().intValue()).sum();
+        if (updated > 0) {
+            TaskCountDelta delta = new TaskCountDelta();
+            for (TaskGroupCount group : before) {
+                delta.change(group.key(), -group.count());
+                delta.change(group.key().with(request.getStatus(), request.getPriority(), request.getDueDate()), group.count());
+            }
+            counters.apply(userId, delta);
+            readCache.invalidateAfterCommit(userId);
+            events.publishAfterCommit(userId, changed());
+        }
+        return new BulkTaskUpdateResponse(updated);
     }
 
+    /**
+     * One conditional DELETE on {@code id} and {@code user_id}, which also returns what the
+     * counters need to forget the task.
+     */
     @Transactional
-    public void deleteTask(Long id, User currentUser) {
-        Task task = taskRepository.findById(id)
+    public void deleteTask(Long id, Long userId) {
+        TaskCountKey deleted = taskRepository.deleteByIdAndUserId(id, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found"));
+        counters.apply(userId, new TaskCountDelta().remove(deleted));
+        // Lets delta sync tell clients to drop the task (see TaskSyncService).
+        tombstoneRepository.insert(id, userId, LocalDateTime.now());
+        readCache.invalidateAfterCommit(userId);
+        events.publishAfterCommit(userId, TaskEvent.builder()
+                .type(TaskEventType.DELETED)
+                .taskId(id)
+                .build());
+    }
+
+    private static boolean hasChanges(TaskUpdateRequest request) {
+        return request.getTitle() != null
+                || request.getDescription() != null
+                || request.getPriority() != null
+                || request.getStatus() != null
+                || request.getDueDate() != null;
+    }
+
+    /**
+     * Set-based writes announce that something changed rather than every task; clients
+     * catch up through {@code GET /api/tasks/changes}.
+     */
+    private static TaskEvent changed() {
+        return TaskEvent.builder().type(TaskEventType.CHANGED).build();
+    }
+
+    private static TaskCountDelta countsOf(List<Task> tasks) {
+        TaskCountDelta delta = new TaskCountDelta();
+        for (Task task : tasks) {
+            delta.add(task);
+        }
+        return delta;
+    }
+
+    private static void requireIndexedCombination(TaskFilter filter, TaskSort sort) {
+        boolean dueRange = filter.getDueFrom() != null || filter.getDueTo() != null;
+        if (dueRange && sort != TaskSort.DUE_DATE) {
+            throw new IllegalArgumentException("Filtering by due date requires sort=dueDate");
+        }
+        if (filter.getPriority() != null && sort == TaskSort.DUE_DATE) {
+            throw new IllegalArgumentException("Filtering by priority is not supported with sort=dueDate");
+        }
+        if (filter.getDueFrom() != null && filter.getDueTo() != null && filter.getDueFrom().isAfter(filter.getDueTo())) {
+            throw new IllegalArgumentException("dueFrom must not be after dueTo");
+        }
+    }
+
+    private static int segmentCount(TaskFilter filter, TaskSort sort) {
+        return switch (sort) {
+            case CREATED_AT -> 1;
+            case PRIORITY -> filter.getPriority() != null ? 1 : PRIORITY_ORDER.size();
+            // A due-date range never matches undated tasks.
+            case DUE_DATE -> filter.getDueFrom() != null || filter.getDueTo() != null ? 1 : 2;
+        };
+    }
+
+    private static int segmentOf(TaskFilter filter, TaskSort sort, TaskResponse task) {
+        return switch (sort) {
+            case CREATED_AT -> 0;
+            case PRIORITY -> filter.getPriority() != null ? 0 : PRIORITY_ORDER.indexOf(task.getPriority());
+            case DUE_DATE -> task.getDueDate() != null ? 0 : 1;
+        };
+    }
+
+    private List<TaskResponse> readSegment(Long userId, TaskFilter filter, TaskSort sort, int segment,
+                                           TaskCursor from, int limit) {
+        LocalDateTime afterCreatedAt = from != null ? from.createdAt() : null;
+        Long afterId = from != null ? from.id() : null;
+        return switch (sort) {
+            case CREATED_AT -> taskRepository.findCreatedAtKeyset(userId, filter, afterCreatedAt, afterId, limit);
+            case PRIORITY -> {
+                Task.Priority priority = filter.getPriority() != null ? filter.getPriority() : PRIORITY_ORDER.get(segment);
+                TaskFilter segmentFilter = TaskFilter.builder()
+                        .status(filter.getStatus())
+                        .priority(priority)
+                        .build();
+                yield taskRepository.findCreatedAtKeyset(userId, segmentFilter, afterCreatedAt, afterId, limit);
+            }
+            case DUE_DATE -> segment == 0
+                    ? taskRepository.findDueDateKeyset(userId, filter, from != null ? from.dueDate() : null, afterId, limit)
+                    : taskRepository.findUndatedKeyset(userId, filter, afterId, limit);
+        };
+    }
 
-        if (!task.getUser().getId().equals(currentUser.getId())) {
-            throw new ResourceNotFoundException("Task not found");
+    private Task newTask(TaskCreateRequest request, User owner) {
+        return Task.builder()
+                .title(request.getTitle())
+                .description(request.getDescription())
+                .priority(request.getPriority() != null ? request.getPriority() : Task.Priority.MEDIUM)
+                .status(request.getStatus() != null ? request.getStatus() : Task.Status.TODO)
+                .dueDate(request.getDueDate())
+                .user(owner)
+                .build();
+    }
+
+    /**
+     * Bean Validation errors of one create request, keyed by field; empty when it is valid.
+     */
+    Map<String, String> validate(TaskCreateRequest request) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        if (request == null) {
+            errors.put("task", "Task is required");
+            return errors;
+        }
+        Set<ConstraintViolation<TaskCreateRequest>> violations = validator.validate(request);
+        for (ConstraintViolation<TaskCreateRequest> violation : violations) {
+            errors.putIfAbsent(violation.getPropertyPath().toString(), violation.getMessage());
         }
-        taskRepository.delete(task);
+        return errors;
     }
 
-    private TaskResponse toResponse(Task task) {
+    static TaskResponse toResponse(Task task) {
         return TaskResponse.builder()
                 .id(task.getId())
                 .title(task.getTitle())
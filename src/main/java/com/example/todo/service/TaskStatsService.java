@@ -0,0 +1,203 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.task.TaskStatsResponse;
+import com.example.todo.entity.Task;
+import com.example.todo.entity.TaskStats;
+import com.example.todo.repository.TaskStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Reads the task counters maintained by {@link TaskCounters}, and checks them against the tasks table.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskStatsService {
+
+    private static final String ACTUAL_COUNTS = """
+            SELECT user_id,
+                   COUNT(*) AS total,
+                   SUM(CASE WHEN status = 'TODO' THEN 1 ELSE 0 END) AS todo,
+                   SUM(CASE WHEN status = 'IN_PROGRESS' THEN 1 ELSE 0 END) AS in_progress,
+                   SUM(CASE WHEN status = 'DONE' THEN 1 ELSE 0 END) AS done,
+                   SUM(CASE WHEN priority = 'LOW' THEN 1 ELSE 0 END) AS low_priority,
+                   SUM(CASE WHEN priority = 'MEDIUM' THEN 1 ELSE 0 END) AS medium_priority,
+                   SUM(CASE WHEN priority = 'HIGH' THEN 1 ELSE 0 END) AS high_priority,
+                   SUM(CASE WHEN status <> 'DONE' AND due_date IS NOT NULL THEN 1 ELSE 0 END) AS open_due
+            FROM tasks
+            %s
+            GROUP BY user_id
+            """;
+
+    private static final String STORED_COUNTS = """
+            SELECT s.user_id, s.total, s.todo, s.in_progress, s.done,
+                   s.low_priority, s.medium_priority, s.high_priority,
+                   COALESCE((SELECT SUM(d.open_count) FROM task_open_due_counts d WHERE d.user_id = s.user_id), 0) AS open_due
+            FROM task_stats s
+            %s
+            """;
+
+    private static final String ACTUAL_OPEN_DUE = """
+            SELECT due_date, COUNT(*) AS open_count FROM tasks
+            WHERE user_id = ? AND status <> 'DONE' AND due_date IS NOT NULL
+            GROUP BY due_date
+            """;
+
+    private static final String STORED_OPEN_DUE =
+            "SELECT due_date, open_count FROM task_open_due_counts WHERE user_id = ? AND open_count <> 0";
+
+    private static final RowMapper<TaskCounts> COUNTS = (rs, rowNum) -> new TaskCounts(
+            rs.getLong("user_id"),
+            rs.getLong("total"),
+            rs.getLong("todo"),
+            rs.getLong("in_progress"),
+            rs.getLong("done"),
+            rs.getLong("low_priority"),
+            rs.getLong("medium_priority"),
+            rs.getLong("high_priority"),
+            rs.getLong("open_due"));
+
+    private final TaskStatsRepository statsRepository;
+    private final TaskCounters counters;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${tasks.stats.repair-drift:false}")
+    private boolean repairDrift;
+
+    /**
+     * Two primary-key reads, whatever the number of tasks; overdue is summed over the
+     * user's distinct due dates before today.
+     */
+    @Transactional(readOnly = true)
+    public TaskStatsResponse getStats(Long userId) {
+        TaskStats stats = statsRepository.findById(userId)
+                .orElseGet(() -> TaskStats.builder().userId(userId).build());
+
+        Map<Task.Status, Long> byStatus = new EnumMap<>(Task.Status.class);
+        byStatus.put(Task.Status.TODO, stats.getTodo());
+        byStatus.put(Task.Status.IN_PROGRESS, stats.getInProgress());
+        byStatus.put(Task.Status.DONE, stats.getDone());
+
+        Map<Task.Priority, Long> byPriority = new EnumMap<>(Task.Priority.class);
+        byPriority.put(Task.Priority.LOW, stats.getLowPriority());
+        byPriority.put(Task.Priority.MEDIUM, stats.getMediumPriority());
+        byPriority.put(Task.Priority.HIGH, stats.getHighPriority());
+
+        return TaskStatsResponse.builder()
+                .total(stats.getTotal())
+                .byStatus(byStatus)
+                .byPriority(byPriority)
+                .overdue(statsRepository.countOverdue(userId, LocalDate.now()))
+                .build();
+    }
+
+    /**
+     * Recomputes every user's counters from the tasks table and reports the users whose stored
+     * counters differ. The full comparison runs without locks, so a user is only reported after
+     * a second comparison under the user's counter lock confirms the drift; that one also compares
+     * the due-date rows one by one. With {@code tasks.stats.repair-drift} the counters of those
+     * users are then rebuilt. Covers the users of the current database; scheduled by
+     * {@link TaskMaintenanceJobs}.
+     *
+     * @return ids of the users whose counters had drifted
+     */
+    public List<Long> checkConsistency() {
+        Map<Long, TaskCounts> actual = byUser(jdbcTemplate.query(ACTUAL_COUNTS.formatted(""), COUNTS));
+        Map<Long, TaskCounts> stored = byUser(jdbcTemplate.query(STORED_COUNTS.formatted(""), COUNTS));
+
+        Set<Long> users = new HashSet<>(actual.keySet());
+        users.addAll(stored.keySet());
+        List<Long> drifted = new ArrayList<>();
+        for (Long userId : users) {
+            if (!countsEqual(actual.get(userId), stored.get(userId))) {
+                Boolean confirmed = transactionTemplate.execute(status -> confirmDrift(userId));
+                if (Boolean.TRUE.equals(confirmed)) {
+                    drifted.add(userId);
+                }
+            }
+        }
+        if (drifted.isEmpty()) {
+            log.debug("Task counters of {} users match the tasks table", users.size());
+        }
+        return drifted;
+    }
+
+    private boolean confirmDrift(Long userId) {
+        counters.lock(userId);
+        TaskCounts actual = first(jdbcTemplate.query(ACTUAL_COUNTS.formatted("WHERE user_id = ?"), COUNTS, userId));
+        TaskCounts stored = first(jdbcTemplate.query(STORED_COUNTS.formatted("WHERE s.user_id = ?"), COUNTS, userId));
+        Map<LocalDate, Long> actualOpenDue = openDue(ACTUAL_OPEN_DUE, userId);
+        Map<LocalDate, Long> storedOpenDue = openDue(STORED_OPEN_DUE, userId);
+        if (countsEqual(actual, stored) && actualOpenDue.equals(storedOpenDue)) {
+            return false;
+        }
+        log.warn("Task counters of user {} have drifted: stored {}, actual {}{}",
+                userId, stored, actual, repairDrift ? "; rebuilding them" : "");
+        if (repairDrift) {
+            counters.rebuild(userId);
+        }
+        return true;
+    }
+
+    private Map<LocalDate, Long> openDue(String sql, Long userId) {
+        Map<LocalDate, Long> counts = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            counts.put(rs.getDate("due_date").toLocalDate(), rs.getLong("open_count"));
+        }, userId);
+        return counts;
+    }
+
+    private static Map<Long, TaskCounts> byUser(List<TaskCounts> rows) {
+        Map<Long, TaskCounts> byUser = new HashMap<>(rows.size());
+        for (TaskCounts row : rows) {
+            byUser.put(row.userId(), row);
+        }
+        return byUser;
+    }
+
+    private static TaskCounts first(List<TaskCounts> rows) {
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * A user without tasks may have a row of zeros or no row at all.
+     */
+    private static boolean countsEqual(TaskCounts actual, TaskCounts stored) {
+        return Objects.equals(orZero(actual), orZero(stored));
+    }
+
+    private static TaskCounts orZero(TaskCounts counts) {
+        return counts != null ? counts.withoutUser() : TaskCounts.ZERO;
+    }
+
+    /**
+     * One user's counters, as stored or as recomputed from the tasks table.
+     */
+    record TaskCounts(Long userId, long total, long todo, long inProgress, long done,
+                      long low, long medium, long high, long openWithDueDate) {
+
+        static final TaskCounts ZERO = new TaskCounts(null, 0, 0, 0, 0, 0, 0, 0, 0);
+
+        TaskCounts withoutUser() {
+            return new TaskCounts(null, total, todo, inProgress, done, low, medium, high, openWithDueDate);
+        }
+    }
+}
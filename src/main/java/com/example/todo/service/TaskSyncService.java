@@ -0,0 +1,117 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.task.TaskChangesResponse;
+import com.example.todo.dto.task.TaskResponse;
+import com.example.todo.entity.TaskTombstone;
+import com.example.todo.exception.SyncTokenExpiredException;
+import com.example.todo.repository.TaskRepository;
+import com.example.todo.repository.TaskTombstoneRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Delta sync: the tasks changed and deleted since a client's last sync token.
+ * <p>
+ * Changes are read in {@code (updated_at, id)} order and tombstones in {@code (deleted_at, task_id)}
+ * order, each as a keyset page. Once a client has caught up, its position is moved back to
+ * {@code now - tasks.sync.overlap}, so that writes which committed after the read but carry an
+ * earlier timestamp are still picked up next time; the price is that recent changes may be
+ * delivered twice. Tombstones are kept for {@code tasks.sync.tombstone-ttl}; older tokens are
+ * rejected because deletions may have been forgotten.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskSyncService {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final TaskRepository taskRepository;
+    private final TaskTombstoneRepository tombstoneRepository;
+
+    @Value("${tasks.sync.overlap:5s}")
+    private Duration overlap;
+
+    @Value("${tasks.sync.tombstone-ttl:30d}")
+    private Duration tombstoneTtl;
+
+    @Transactional(readOnly = true)
+    public TaskChangesResponse getChanges(Long userId, String since, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime settled = now.minus(overlap);
+
+        SyncToken from;
+        if (StringUtils.hasText(since)) {
+            from = SyncToken.decode(since);
+            if (from.deletedAt().isBefore(now.minus(tombstoneTtl))) {
+                throw new SyncTokenExpiredException("Sync token expired; start over without since");
+            }
+        } else {
+            // Full sync: every task, and only deletions from here on.
+            from = new SyncToken(BEGINNING, 0L, settled, 0L);
+        }
+
+        // Fetch one extra row of each to learn whether more follow without counting.
+        Pageable limit = PageRequest.ofSize(size + 1);
+        List<TaskResponse> changed = taskRepository.findChangedAfter(
+                userId, from.taskChangedAt(), from.taskId(), limit);
+        List<TaskTombstone> tombstones = tombstoneRepository.findAfter(
+                userId, from.deletedAt(), from.deletedTaskId(), limit);
+
+        boolean moreChanged = changed.size() > size;
+        boolean moreDeleted = tombstones.size() > size;
+        if (moreChanged) {
+            changed = changed.subList(0, size);
+        }
+        if (moreDeleted) {
+            tombstones = tombstones.subList(0, size);
+        }
+
+        LocalDateTime taskChangedAt = settled;
+        Long taskId = 0L;
+        if (moreChanged) {
+            TaskResponse last = changed.get(changed.size() - 1);
+            taskChangedAt = last.getUpdatedAt();
+            taskId = last.getId();
+        }
+        LocalDateTime deletedAt = settled;
+        Long deletedTaskId = 0L;
+        if (moreDeleted) {
+            TaskTombstone last = tombstones.get(tombstones.size() - 1);
+            deletedAt = last.getDeletedAt();
+            deletedTaskId = last.getTaskId();
+        }
+
+        return TaskChangesResponse.builder()
+                .changed(changed)
+                .deleted(tombstones.stream().map(TaskTombstone::getTaskId).toList())
+                .syncToken(new SyncToken(taskChangedAt, taskId, deletedAt, deletedTaskId).encode())
+                .hasMore(moreChanged || moreDeleted)
+                .build();
+    }
+
+    /**
+     * Purges the tombstones of the current database; scheduled by {@link TaskMaintenanceJobs}.
+     */
+    @Transactional
+    public void purgeTombstones() {
+        int purged = tombstoneRepository.deleteOlderThan(LocalDateTime.now().minus(tombstoneTtl));
+        if (purged > 0) {
+            log.info("Purged {} task tombstones older than {}", purged, tombstoneTtl);
+        }
+    }
+}
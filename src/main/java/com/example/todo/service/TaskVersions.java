@@ -0,0 +1,67 @@
+package com.example.todo.service;
+
+import com.example.todo.util.BoundedExpiringMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user version of the task data, replaced by every task mutation once it has committed.
+ * Anything derived from a user's tasks can be stamped with the version it was read at and
+ * treated as stale as soon as the version moves on.
+ * <p>
+ * Versions of at most {@code tasks.cache.max-versioned-users} users are kept. They are all
+ * drawn from one counter, so a user evicted and seen again starts at a version never handed
+ * out before, and a stamp can't match again after a bump or an eviction.
+ */
+@Component
+public class TaskVersions {
+
+    // The counter restarts at zero with the process; the start time keeps tags from one
+    // run from matching tags handed out by an earlier one.
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong counter = new AtomicLong();
+    private final BoundedExpiringMap<Long, Long> versions;
+
+    public TaskVersions(@Value("${tasks.cache.max-versioned-users:100000}") int maxUsers) {
+        this.versions = new BoundedExpiringMap<>(maxUsers);
+    }
+
+    public long current(Long userId) {
+        return versions.computeIfAbsent(userId, id -> counter.incrementAndGet());
+    }
+
+    /**
+     * Opaque token that changes whenever any of the user's tasks change, suitable as an entity tag.
+     */
+    public String tag(Long userId) {
+        return Long.toString(epoch, 36) + "-" + current(userId);
+    }
+
+    /**
+     * Bumps the user's version after the surrounding transaction commits, or immediately
+     * when there is none. The bump happens on the calling thread before the transactional
+     * method returns, so it precedes the response that acknowledges the write.
+     */
+    public void bumpAfterCommit(Long userId, Runnable onBump) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(userId);
+                    onBump.run();
+                }
+            });
+        } else {
+            bump(userId);
+            onBump.run();
+        }
+    }
+
+    private void bump(Long userId) {
+        versions.put(userId, counter.incrementAndGet());
+    }
+}
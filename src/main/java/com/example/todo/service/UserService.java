@@ -6,6 +6,7 @@ import com.example.todo.entity.User;
 import com.example.todo.exception.ResourceAlreadyExistsException;
 import com.example.todo.exception.ResourceNotFoundException;
 import com.example.todo.repository.UserRepository;
+import com.example.todo.shard.UserShards;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -19,6 +20,8 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TaskCounters taskCounters;
+    private final UserShards userShards;
 
     @Transactional
     public UserResponse register(UserRegisterRequest request) {
@@ -37,6 +40,8 @@ public class UserService {
                 .build();
 
         user = userRepository.save(user);
+        Long userId = user.getId();
+        userShards.initialize(user, () -> taskCounters.init(userId));
         log.info("New user created: {} (ID: {})", user.getUsername(), user.getId());
         return toResponse(user);
     }
@@ -48,7 +53,7 @@ public class UserService {
 
     @Transactional(readOnly = true)
     public UserResponse getUserById(Long id) {
-        User user = userRepository.findById(id)
+        User user = userShards.onDirectory(() -> userRepository.findById(id))
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         return toResponse(user);
     }
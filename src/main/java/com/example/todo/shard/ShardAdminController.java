@@ -0,0 +1,54 @@
+package com.example.todo.shard;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Shard administration for users with the {@code ADMIN} role. Locations are shard indexes,
+ * and {@code -1} for users whose data is still in the directory database. Moves need a single
+ * instance serving the API and answer 409 while another one is running.
+ */
+@RestController
+@RequestMapping("/api/admin/shards")
+@ConditionalOnExpression("'${tasks.shards.urls:}' != ''")
+@RequiredArgsConstructor
+public class ShardAdminController {
+
+    private final ShardDirectory shardDirectory;
+    private final ShardRebalancer shardRebalancer;
+
+    /**
+     * Number of users per location.
+     */
+    @GetMapping
+    public Map<Integer, Long> getUserCounts() {
+        return shardDirectory.userCounts();
+    }
+
+    /**
+     * Moves every user who is not on the shard the ring assigns them, e.g. after a shard
+     * was appended to {@code tasks.shards.urls}, or users registered before sharding.
+     */
+    @PostMapping("/rebalance")
+    public ShardRebalancer.Result rebalance() {
+        return shardRebalancer.rebalance();
+    }
+
+    /**
+     * Moves one user's data to the given shard. Answers 409 when the user's requests in
+     * flight did not finish within {@code tasks.shards.move-timeout}.
+     */
+    @PostMapping("/users/{userId}")
+    public ResponseEntity<Map<String, Object>> moveUser(@PathVariable Long userId, @RequestParam int shard) {
+        if (!shardRebalancer.move(userId, shard)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "User " + userId + " is busy, try again"));
+        }
+        return ResponseEntity.ok(Map.of("userId", userId, "shard", shard));
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.todo.shard;
+
+import com.example.todo.config.HikariPools;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Sharding of users' data, enabled by listing the shard JDBC URLs in {@code tasks.shards.urls}.
+ * {@code spring.datasource} becomes the directory: it keeps every user's account, which
+ * registration and login use, and the {@code user_shards} table. A user's tasks, counters,
+ * tombstones and a copy of the account, which only the foreign keys use, live on the user's
+ * shard, where all of the user's requests go. A shard's id is its position in the list, so shards may only be appended.
+ * <p>
+ * Flyway migrates every shard on startup from {@code spring.flyway.locations}, leaving out the
+ * directory-only {@code db/directory} ({@code user_shards}, {@code shard_instances}) and adding
+ * the shard-only {@code db/shard}, which starts each shard's {@code tasks_seq} at
+ * {@code (index + 1) << 40} and drops the directory tables of shards migrated before they were
+ * split off. The shards' ranges are disjoint, so task ids are unique across shards and users
+ * move with their ids. An id does not tell a task's shard: Hibernate's pooled generator may
+ * insert on one shard ids from a block it drew from another.
+ */
+@Configuration
+@ConditionalOnExpression("'${tasks.shards.urls:}' != ''")
+public class ShardConfig {
+
+    private static final int TASK_ID_RANGE_BITS = 40;
+    private static final String SHARD_MIGRATIONS = "classpath:db/shard";
+    private static final String DIRECTORY_MIGRATIONS = "classpath:db/directory";
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(
+            DataSourceProperties directoryProperties,
+            Environment environment,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${tasks.shards.urls}") List<String> urls,
+            @Value("${tasks.shards.username:${spring.datasource.username:}}") String username,
+            @Value("${tasks.shards.password:${spring.datasource.password:}}") String password,
+            @Value("${spring.flyway.locations:classpath:db/migration,classpath:db/directory}") String[] migrations,
+            @Value("${tasks.replicas.urls:}") String replicaUrls) {
+        if (!replicaUrls.isBlank()) {
+            throw new IllegalStateException("tasks.shards.urls and tasks.replicas.urls cannot be combined");
+        }
+        HikariDataSource directory = directoryProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        HikariPools.configure(directory, environment, meterRegistry, "directory");
+
+        String[] shardMigrations = Stream.concat(
+                        Arrays.stream(migrations).map(String::trim)
+                                .filter(location -> !location.equals(DIRECTORY_MIGRATIONS)),
+                        Stream.of(SHARD_MIGRATIONS))
+                .toArray(String[]::new);
+        List<HikariDataSource> shards = new ArrayList<>();
+        for (String url : urls) {
+            int index = shards.size();
+            HikariDataSource shard = new HikariDataSource();
+            HikariPools.configure(shard, environment, meterRegistry, "shard-" + index);
+            shard.setJdbcUrl(url.trim());
+            shard.setUsername(username);
+            shard.setPassword(password);
+            Flyway.configure()
+                    .dataSource(shard)
+                    .locations(shardMigrations)
+                    // Directory migrations that shards migrated before the split had applied.
+                    .ignoreMigrationPatterns("*:missing")
+                    .placeholders(Map.of("first_task_id", String.valueOf((long) (index + 1) << TASK_ID_RANGE_BITS)))
+                    .load()
+                    .migrate();
+            shards.add(shard);
+        }
+        return new ShardRoutingDataSource(directory, shards);
+    }
+
+    /**
+     * The data source of the application: connections are only taken from a pool at the
+     * first statement, once the request or job has chosen its location.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    @Bean
+    public ShardDirectory shardDirectory(ShardRoutingDataSource shardRoutingDataSource,
+                                         @Value("${tasks.shards.directory-cache-size:100000}") int cacheSize) {
+        return new ShardDirectory(new JdbcTemplate(shardRoutingDataSource.pool(ShardContext.DIRECTORY)),
+                new ShardRing(shardRoutingDataSource.shardCount()), cacheSize);
+    }
+
+    @Bean
+    UserMoveGate userMoveGate() {
+        return new UserMoveGate();
+    }
+
+    @Bean
+    ShardInstances shardInstances(ShardRoutingDataSource shardRoutingDataSource,
+                                  @Value("${tasks.shards.instance-heartbeat-ms:10000}") long heartbeatMillis) {
+        return new ShardInstances(new JdbcTemplate(shardRoutingDataSource.pool(ShardContext.DIRECTORY)),
+                heartbeatMillis);
+    }
+
+    @Bean
+    public ShardRebalancer shardRebalancer(ShardRoutingDataSource shardRoutingDataSource,
+                                           ShardDirectory shardDirectory,
+                                           UserMoveGate userMoveGate,
+                                           ShardInstances shardInstances,
+                                           @Value("${tasks.shards.move-timeout:5s}") Duration moveTimeout) {
+        return new ShardRebalancer(shardRoutingDataSource, shardDirectory, userMoveGate, shardInstances,
+                moveTimeout.toMillis());
+    }
+
+    /**
+     * Right behind Spring Security, which has to identify the user first.
+     */
+    @Bean
+    public FilterRegistrationBean<ShardContextFilter> shardContextFilter(ShardDirectory shardDirectory,
+                                                                         UserMoveGate userMoveGate) {
+        FilterRegistrationBean<ShardContextFilter> registration =
+                new FilterRegistrationBean<>(new ShardContextFilter(shardDirectory, userMoveGate));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+
+    /**
+     * Carries the location over to the application task executor, which finishes streamed
+     * responses such as exports after the request thread has returned.
+     */
+    @Bean
+    public TaskDecorator shardContextTaskDecorator() {
+        return task -> {
+            int location = ShardContext.current();
+            return () -> ShardContext.runOn(location, task);
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.todo.shard;
+
+import java.util.function.Supplier;
+
+/**
+ * The database that connections taken on the current thread come from: a shard index, or
+ * {@link #DIRECTORY} for {@code spring.datasource}, which is also where nothing was chosen.
+ * Set it before a transaction takes its first connection; a transaction keeps the one it got.
+ */
+public final class ShardContext {
+
+    public static final int DIRECTORY = -1;
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static int current() {
+        Integer location = CURRENT.get();
+        return location != null ? location : DIRECTORY;
+    }
+
+    public static void runOn(int location, Runnable work) {
+        callOn(location, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public static <T> T callOn(int location, Supplier<T> work) {
+        Integer previous = enter(location);
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Switches the thread to a location and returns what {@link #restore} needs to switch back,
+     * for callers whose work throws checked exceptions.
+     */
+    static Integer enter(int location) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(location);
+        return previous;
+    }
+
+    static void restore(Integer previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.todo.shard;
+
+import com.example.todo.security.SecurityUtil;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Runs each authenticated request on the location of its user, after Spring Security has
+ * established who that is. Requests without a user, such as registration and login, use
+ * the directory. The request shares the user's {@link UserMoveGate} lock until it returns;
+ * streamed responses continue after that and are not held back by a move.
+ */
+class ShardContextFilter extends OncePerRequestFilter {
+
+    private final ShardDirectory directory;
+    private final UserMoveGate gate;
+
+    ShardContextFilter(ShardDirectory directory, UserMoveGate gate) {
+        this.directory = directory;
+        this.gate = gate;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Administrators move users; their own requests must not wait for a move.
+        return request.getRequestURI().startsWith(request.getContextPath() + "/api/admin/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        Optional<Long> userId = SecurityUtil.getCurrentUserId();
+        if (userId.isEmpty()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        Lock lock = gate.request(userId.get());
+        lock.lock();
+        Integer previous = ShardContext.enter(directory.locate(userId.get()));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ShardContext.restore(previous);
+            lock.unlock();
+        }
+    }
+}
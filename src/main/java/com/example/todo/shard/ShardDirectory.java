@@ -0,0 +1,116 @@
+package com.example.todo.shard;
+
+import com.example.todo.util.BoundedExpiringMap;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Where each user's data lives, recorded in the {@code user_shards} table of the directory
+ * database and cached in memory. Users without a row were registered before sharding was
+ * enabled and still live in the directory database until they are moved.
+ * <p>
+ * The cache is only kept correct by this process: moves must run in the instance that serves
+ * the users, the only one while they run (see {@link ShardRebalancer}).
+ */
+public class ShardDirectory {
+
+    private final JdbcTemplate directory;
+    private final ShardRing ring;
+    private final BoundedExpiringMap<Long, Integer> cache;
+
+    /**
+     * @param directory a template on the directory pool itself, not on the routing data source
+     */
+    public ShardDirectory(JdbcTemplate directory, ShardRing ring, int maxCachedUsers) {
+        this.directory = directory;
+        this.ring = ring;
+        this.cache = new BoundedExpiringMap<>(maxCachedUsers);
+    }
+
+    /**
+     * The shard index of the user, or {@link ShardContext#DIRECTORY}.
+     */
+    public int locate(Long userId) {
+        Integer cached = cache.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        List<Integer> shards = directory.queryForList(
+                "SELECT shard FROM user_shards WHERE user_id = ?", Integer.class, userId);
+        int location = shards.isEmpty() ? ShardContext.DIRECTORY : shards.get(0);
+        cache.put(userId, location);
+        return location;
+    }
+
+    /**
+     * The shard the ring assigns to the user, where new users are placed and where
+     * rebalancing moves everyone else.
+     */
+    public int home(Long userId) {
+        return ring.shardFor(userId);
+    }
+
+    /**
+     * Records a new user's shard with the given template, so that it commits or rolls back
+     * with the user's row.
+     */
+    void placed(JdbcTemplate transaction, Long userId, int shard) {
+        transaction.update("INSERT INTO user_shards (user_id, shard) VALUES (?, ?)", userId, shard);
+        cache.put(userId, shard);
+    }
+
+    void moved(Long userId, int shard) {
+        if (directory.update("UPDATE user_shards SET shard = ? WHERE user_id = ?", shard, userId) == 0) {
+            directory.update("INSERT INTO user_shards (user_id, shard) VALUES (?, ?)", userId, shard);
+        }
+        cache.put(userId, shard);
+    }
+
+    /**
+     * Users living anywhere else than the shard the ring assigns them, with their location.
+     */
+    Map<Long, Integer> misplaced() {
+        Map<Long, Integer> misplaced = new LinkedHashMap<>();
+        directory.query("""
+                SELECT u.id, s.shard FROM users u LEFT JOIN user_shards s ON s.user_id = u.id ORDER BY u.id
+                """, rs -> {
+            long userId = rs.getLong(1);
+            int location = rs.getObject(2) != null ? rs.getInt(2) : ShardContext.DIRECTORY;
+            if (location != ring.shardFor(userId)) {
+                misplaced.put(userId, location);
+            }
+        });
+        return misplaced;
+    }
+
+    /**
+     * Number of users per location, the directory database included.
+     */
+    Map<Integer, Long> userCounts() {
+        Map<Integer, Long> counts = new LinkedHashMap<>();
+        counts.put(ShardContext.DIRECTORY, 0L);
+        for (int shard = 0; shard < ring.size(); shard++) {
+            counts.put(shard, 0L);
+        }
+        directory.query("""
+                SELECT COALESCE(s.shard, -1), COUNT(*) FROM users u LEFT JOIN user_shards s ON s.user_id = u.id
+                GROUP BY COALESCE(s.shard, -1)
+                """, rs -> {
+            counts.put(rs.getInt(1), rs.getLong(2));
+        });
+        return counts;
+    }
+
+    List<Integer> locations() {
+        List<Integer> locations = new ArrayList<>();
+        locations.add(ShardContext.DIRECTORY);
+        for (int shard = 0; shard < ring.size(); shard++) {
+            locations.add(shard);
+        }
+        return locations;
+    }
+}
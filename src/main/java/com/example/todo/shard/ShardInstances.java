@@ -0,0 +1,70 @@
+package com.example.todo.shard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The instances serving the API, each with a row in the {@code shard_instances} table of the
+ * directory database that it refreshes every {@code tasks.shards.instance-heartbeat-ms} and
+ * removes on shutdown. A row not refreshed for three heartbeats belongs to an instance that
+ * died and is ignored, then deleted.
+ */
+@Slf4j
+class ShardInstances implements AutoCloseable {
+
+    private static final int MISSED_HEARTBEATS = 3;
+
+    private final JdbcTemplate directory;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final long expiryMillis;
+
+    /**
+     * @param directory a template on the directory pool itself, not on the routing data source
+     */
+    ShardInstances(JdbcTemplate directory, long heartbeatMillis) {
+        this.directory = directory;
+        this.expiryMillis = heartbeatMillis * MISSED_HEARTBEATS;
+        directory.update("INSERT INTO shard_instances (instance_id, seen_at) VALUES (?, ?)", instanceId, now());
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.shards.instance-heartbeat-ms:10000}")
+    void heartbeat() {
+        if (directory.update("UPDATE shard_instances SET seen_at = ? WHERE instance_id = ?", now(), instanceId) == 0) {
+            directory.update("INSERT INTO shard_instances (instance_id, seen_at) VALUES (?, ?)", instanceId, now());
+        }
+        directory.update("DELETE FROM shard_instances WHERE seen_at < ?", expiredBefore());
+    }
+
+    /**
+     * Number of other instances seen within the expiry.
+     */
+    int others() {
+        Integer others = directory.queryForObject(
+                "SELECT COUNT(*) FROM shard_instances WHERE instance_id <> ? AND seen_at >= ?",
+                Integer.class, instanceId, expiredBefore());
+        return others != null ? others : 0;
+    }
+
+    @Override
+    public void close() {
+        try {
+            directory.update("DELETE FROM shard_instances WHERE instance_id = ?", instanceId);
+        } catch (DataAccessException e) {
+            log.warn("Could not remove instance {} from shard_instances; it expires on its own", instanceId, e);
+        }
+    }
+
+    private Timestamp expiredBefore() {
+        return Timestamp.from(Instant.now().minusMillis(expiryMillis));
+    }
+
+    private static Timestamp now() {
+        return Timestamp.from(Instant.now());
+    }
+}
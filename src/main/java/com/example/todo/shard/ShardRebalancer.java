@@ -0,0 +1,198 @@
+package com.example.todo.shard;
+
+import com.example.todo.exception.ShardMoveRejectedException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves users' rows between shards while the application keeps serving. A move copies the
+ * user's rows to the target in one transaction, switches the directory, then deletes them
+ * from the source; only the moved user's requests wait for it (see {@link UserMoveGate}).
+ * Task ids stay as they are: the shards' sequences hand out disjoint ranges, so no other
+ * shard has or will generate the same id.
+ * <p>
+ * A move that fails after the copy leaves the source authoritative, and a retry replaces
+ * whatever the failed attempt left on the target.
+ * <p>
+ * Single instance only: the directory cache and the request locks are kept in memory, so
+ * another instance would keep serving a moved user from the old location. Moves are refused
+ * while {@link ShardInstances} sees another instance.
+ */
+@Slf4j
+public class ShardRebalancer {
+
+    // After the user's row when copying, and in reverse order when deleting, for the foreign keys.
+    private static final List<String> COPY_ORDER =
+            List.of("task_stats", "task_open_due_counts", "tasks", "task_tombstones");
+    private static final List<String> DELETE_ORDER =
+            List.of("task_tombstones", "tasks", "task_open_due_counts", "task_stats");
+
+    private final ShardRoutingDataSource dataSource;
+    private final ShardDirectory directory;
+    private final UserMoveGate gate;
+    private final ShardInstances instances;
+    private final long moveTimeoutMillis;
+
+    public ShardRebalancer(ShardRoutingDataSource dataSource, ShardDirectory directory,
+                           UserMoveGate gate, ShardInstances instances, long moveTimeoutMillis) {
+        this.dataSource = dataSource;
+        this.directory = directory;
+        this.gate = gate;
+        this.instances = instances;
+        this.moveTimeoutMillis = moveTimeoutMillis;
+    }
+
+    public record Result(int moved, int skipped) {
+    }
+
+    /**
+     * Moves every user that does not live on the shard the ring assigns, one at a time, for
+     * instance after a shard was added. Users whose requests keep their lock busy for longer
+     * than the move timeout are skipped and picked up by the next run.
+     */
+    public Result rebalance() {
+        requireSingleInstance();
+        int moved = 0;
+        int skipped = 0;
+        for (Map.Entry<Long, Integer> user : directory.misplaced().entrySet()) {
+            if (move(user.getKey(), directory.home(user.getKey()))) {
+                moved++;
+            } else {
+                skipped++;
+            }
+        }
+        log.info("Rebalanced shards: {} users moved, {} skipped", moved, skipped);
+        return new Result(moved, skipped);
+    }
+
+    /**
+     * Moves one user to a shard; answers false when the user's requests did not let go in time.
+     */
+    public boolean move(Long userId, int target) {
+        if (target < 0 || target >= dataSource.shardCount()) {
+            throw new IllegalArgumentException("Unknown shard " + target);
+        }
+        requireSingleInstance();
+        try {
+            if (!gate.lockForMove(userId, moveTimeoutMillis)) {
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        try {
+            int source = directory.locate(userId);
+            if (source == target) {
+                return true;
+            }
+            try (Connection from = dataSource.pool(source).getConnection();
+                 Connection to = dataSource.pool(target).getConnection()) {
+                copy(from, to, userId);
+                directory.moved(userId, target);
+                delete(from, userId, source != ShardContext.DIRECTORY);
+            }
+            log.info("Moved user {} from {} to shard {}", userId, location(source), target);
+            return true;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not move user " + userId + " to shard " + target, e);
+        } finally {
+            gate.unlockAfterMove(userId);
+        }
+    }
+
+    private void requireSingleInstance() {
+        int others = instances.others();
+        if (others > 0) {
+            throw new ShardMoveRejectedException("Users can only be moved while a single instance serves the API; "
+                    + others + " other instance(s) running");
+        }
+    }
+
+    private static void copy(Connection from, Connection to, Long userId) throws SQLException {
+        to.setAutoCommit(false);
+        try {
+            delete(to, userId, true);
+            copyRows(from, to, "users", "id", userId);
+            for (String table : COPY_ORDER) {
+                copyRows(from, to, table, "user_id", userId);
+            }
+            to.commit();
+        } catch (SQLException | RuntimeException e) {
+            to.rollback();
+            throw e;
+        } finally {
+            to.setAutoCommit(true);
+        }
+    }
+
+    private static void delete(Connection connection, Long userId, boolean withUser) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            for (String table : DELETE_ORDER) {
+                deleteRows(connection, table, "user_id", userId);
+            }
+            if (withUser) {
+                deleteRows(connection, "users", "id", userId);
+            }
+            if (autoCommit) {
+                connection.commit();
+            }
+        } catch (SQLException | RuntimeException e) {
+            if (autoCommit) {
+                connection.rollback();
+            }
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static void copyRows(Connection from, Connection to, String table, String userColumn, Long userId)
+            throws SQLException {
+        try (PreparedStatement select = from.prepareStatement(
+                "SELECT * FROM " + table + " WHERE " + userColumn + " = ?")) {
+            select.setLong(1, userId);
+            try (ResultSet rows = select.executeQuery()) {
+                ResultSetMetaData columns = rows.getMetaData();
+                StringBuilder names = new StringBuilder();
+                StringBuilder values = new StringBuilder();
+                for (int i = 1; i <= columns.getColumnCount(); i++) {
+                    names.append(i > 1 ? ", " : "").append(columns.getColumnName(i));
+                    values.append(i > 1 ? ", ?" : "?");
+                }
+                try (PreparedStatement insert = to.prepareStatement(
+                        "INSERT INTO " + table + " (" + names + ") VALUES (" + values + ")")) {
+                    while (rows.next()) {
+                        for (int i = 1; i <= columns.getColumnCount(); i++) {
+                            insert.setObject(i, rows.getObject(i));
+                        }
+                        insert.addBatch();
+                    }
+                    insert.executeBatch();
+                }
+            }
+        }
+    }
+
+    private static void deleteRows(Connection connection, String table, String userColumn, Long userId)
+            throws SQLException {
+        try (PreparedStatement delete = connection.prepareStatement(
+                "DELETE FROM " + table + " WHERE " + userColumn + " = ?")) {
+            delete.setLong(1, userId);
+            delete.executeUpdate();
+        }
+    }
+
+    private static String location(int location) {
+        return location == ShardContext.DIRECTORY ? "the directory" : "shard " + location;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.todo.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent-hash ring over user ids. Each shard owns many points on the ring, and a user
+ * belongs to the shard of the first point at or after the user's hash. Adding a shard only
+ * takes users over from the others, roughly {@code 1 / shards} of them; nobody moves
+ * between existing shards.
+ * <p>
+ * Hashes come from MD5, so placement is the same in every JVM and every release.
+ */
+public final class ShardRing {
+
+    private static final int POINTS_PER_SHARD = 160;
+
+    private final NavigableMap<Long, Integer> points = new TreeMap<>();
+    private final int shards;
+
+    public ShardRing(int shards) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = shards;
+        for (int shard = 0; shard < shards; shard++) {
+            for (int point = 0; point < POINTS_PER_SHARD; point++) {
+                points.put(hash("shard-" + shard + "#" + point), shard);
+            }
+        }
+    }
+
+    public int shardFor(long userId) {
+        Map.Entry<Long, Integer> point = points.ceilingEntry(hash(Long.toString(userId)));
+        return (point != null ? point : points.firstEntry()).getValue();
+    }
+
+    public int size() {
+        return shards;
+    }
+
+    private static long hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+            long hash = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                hash = (hash << 8) | (digest[i] & 0xff);
+            }
+            return hash;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.todo.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands out connections from the pool of the thread's {@link ShardContext}. Connections must
+ * be taken lazily (see {@code ShardConfig}) so that a transaction started before its location
+ * was set still lands on the right database.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final HikariDataSource directory;
+    private final List<HikariDataSource> shards;
+
+    public ShardRoutingDataSource(HikariDataSource directory, List<HikariDataSource> shards) {
+        this.directory = directory;
+        this.shards = List.copyOf(shards);
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ShardContext.DIRECTORY, directory);
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(directory);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+
+    /**
+     * The pool of one location, for work that has to span several, such as moving a user.
+     */
+    public HikariDataSource pool(int location) {
+        return location == ShardContext.DIRECTORY ? directory : shards.get(location);
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    @Override
+    public void close() {
+        shards.forEach(HikariDataSource::close);
+        directory.close();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.todo.shard;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps a user's requests and a move of the user's data apart: requests share the user's
+ * lock, a move takes it exclusively, so it waits for requests in flight and holds new ones
+ * back until the data is in its new place. Locks are striped over user ids, so a move
+ * briefly holds back the few other users in its stripe too.
+ */
+class UserMoveGate {
+
+    private static final int STRIPES = 1024;
+
+    private final ReadWriteLock[] stripes = new ReadWriteLock[STRIPES];
+
+    UserMoveGate() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    Lock request(Long userId) {
+        return stripe(userId).readLock();
+    }
+
+    /**
+     * Locks the user for a move, or answers false when requests did not finish in time.
+     */
+    boolean lockForMove(Long userId, long timeoutMillis) throws InterruptedException {
+        return stripe(userId).writeLock().tryLock(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void unlockAfterMove(Long userId) {
+        stripe(userId).writeLock().unlock();
+    }
+
+    private ReadWriteLock stripe(Long userId) {
+        return stripes[Math.floorMod(Long.hashCode(userId), STRIPES)];
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.todo.shard;
+
+import com.example.todo.entity.User;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.function.Supplier;
+
+/**
+ * What the services need to know about sharding; without {@code tasks.shards.urls} every
+ * method simply runs the given work where the caller is.
+ */
+@Component
+public class UserShards {
+
+    private final ShardDirectory directory;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+
+    public UserShards(ObjectProvider<ShardDirectory> directory, DataSource dataSource,
+                      TransactionTemplate transactionTemplate) {
+        this.directory = directory.getIfAvailable();
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.newTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Places a user that was just inserted into the directory, in the caller's transaction, and
+     * runs {@code initOnShard} where the user's tasks will live. On a shard that is a transaction
+     * of its own, together with the copy of the user's row that the shard's foreign keys need;
+     * it commits first, so a failing directory commit can at worst leave an unused copy behind.
+     * The copy is not kept up to date when the account changes: only its id may be used, and
+     * account reads go through {@link #onDirectory}.
+     */
+    public void initialize(User user, Runnable initOnShard) {
+        if (directory == null) {
+            initOnShard.run();
+            return;
+        }
+        int shard = directory.home(user.getId());
+        ShardContext.runOn(shard, () -> newTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.update("""
+                            INSERT INTO users (id, username, password, email, role, created_at, updated_at)
+                            VALUES (?, ?, ?, ?, ?, ?, ?)
+                            """,
+                    user.getId(), user.getUsername(), user.getPassword(), user.getEmail(), user.getRole(),
+                    user.getCreatedAt(), user.getUpdatedAt());
+            initOnShard.run();
+        }));
+        directory.placed(jdbcTemplate, user.getId(), shard);
+    }
+
+    /**
+     * Reads accounts from the directory, which holds the only up-to-date row of every user,
+     * even while the request runs on the user's shard. That is a transaction of its own, since
+     * the caller's may already have taken a connection on the shard.
+     */
+    public <T> T onDirectory(Supplier<T> read) {
+        if (directory == null) {
+            return read.get();
+        }
+        return ShardContext.callOn(ShardContext.DIRECTORY, () -> newTransaction.execute(status -> read.get()));
+    }
+
+    /**
+     * Runs maintenance that covers all users once per database that holds any: the directory
+     * and every shard.
+     */
+    public void forEachLocation(Runnable work) {
+        if (directory == null) {
+            work.run();
+            return;
+        }
+        for (int location : directory.locations()) {
+            ShardContext.runOn(location, work);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.todo.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Concurrent map holding at most {@code maxEntries} entries, for small in-process caches.
+ * Values the {@code expired} predicate accepts are never returned and are purged first when
+ * the map is full; if that is not enough, arbitrary entries go until a tenth of the capacity
+ * is free, so a full map doesn't sweep again on every put. A bound of zero or less disables it.
+ */
+public final class BoundedExpiringMap<K, V> {
+
+    private final int maxEntries;
+    private final Predicate<? super V> expired;
+    private final Map<K, V> entries = new ConcurrentHashMap<>();
+
+    public BoundedExpiringMap(int maxEntries) {
+        this(maxEntries, value -> false);
+    }
+
+    public BoundedExpiringMap(int maxEntries, Predicate<? super V> expired) {
+        this.maxEntries = maxEntries;
+        this.expired = expired;
+    }
+
+    public V get(K key) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+        V value = entries.get(key);
+        if (value != null && expired.test(value)) {
+            entries.remove(key, value);
+            return null;
+        }
+        return value;
+    }
+
+    public void put(K key, V value) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            evict();
+        }
+        entries.put(key, value);
+    }
+
+    /**
+     * The key's value, or the one {@code create} makes for it if there is none. Concurrent
+     * callers for the same key get the same value.
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> create) {
+        if (maxEntries <= 0) {
+            return create.apply(key);
+        }
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        if (entries.size() >= maxEntries) {
+            evict();
+        }
+        return entries.computeIfAbsent(key, create);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict() {
+        entries.values().removeIf(expired);
+
+        int target = maxEntries - Math.max(1, maxEntries / 10);
+        Iterator<K> keys = entries.keySet().iterator();
+        while (entries.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+-- Shard of each user's data when tasks.shards.urls is set (see ShardConfig). Only the
+-- directory database uses it; users without a row live in the directory database itself.
+
+CREATE TABLE user_shards (
+    user_id BIGINT NOT NULL PRIMARY KEY,
+    shard   INT    NOT NULL,
+    CONSTRAINT fk_user_shards_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE INDEX idx_user_shards_shard ON user_shards (shard);
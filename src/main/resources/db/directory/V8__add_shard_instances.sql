@@ -0,0 +1,8 @@
+-- Instances serving the API while tasks.shards.urls is set (see ShardInstances). Only the
+-- directory database uses it: shard moves are refused while another instance is alive,
+-- since the directory cache and the per-user request locks live in each instance's memory.
+
+CREATE TABLE shard_instances (
+    instance_id VARCHAR(36) NOT NULL PRIMARY KEY,
+    seen_at     TIMESTAMP   NOT NULL
+);
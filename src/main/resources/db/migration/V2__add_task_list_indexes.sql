@@ -0,0 +1,9 @@
+-- Every task list is scoped to one user and ordered newest first. These indexes
+-- let the list queries read a user's rows already in (created_at DESC, id DESC)
+-- order instead of sorting the whole user partition.
+
+-- GET /api/tasks (page and cursor modes) and TaskService.getTasks
+CREATE INDEX idx_tasks_user_created_id ON tasks (user_id, created_at DESC, id DESC);
+
+-- Listings filtered by status: WHERE user_id = ? AND status = ? ORDER BY created_at DESC, id DESC
+CREATE INDEX idx_tasks_user_status_created ON tasks (user_id, status, created_at DESC, id DESC);
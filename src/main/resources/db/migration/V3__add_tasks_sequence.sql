@@ -0,0 +1,10 @@
+-- Task ids come from a pooled sequence so Hibernate can assign them before the
+-- INSERT and send inserts in JDBC batches; with the identity column every row
+-- needed its own round trip to read back the generated key.
+-- INCREMENT BY must equal the allocationSize declared on Task.id.
+CREATE SEQUENCE tasks_seq START WITH 1 INCREMENT BY 50;
+
+-- Inserts that do not supply an id (plain SQL, data fixes) take a value from the
+-- same sequence, so they can never collide with a block Hibernate has reserved.
+ALTER TABLE tasks ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE tasks ALTER COLUMN id SET DEFAULT NEXT VALUE FOR tasks_seq;
@@ -0,0 +1,15 @@
+-- Indexes for the filtered and sorted cursor listings (see TaskService.getTasksAfterCursor).
+-- Each one returns a user's matching rows already in the listing's order, so a page
+-- is an index seek plus a short ordered scan.
+
+-- sort=createdAt&priority=..., and each priority range of sort=priority
+CREATE INDEX idx_tasks_user_priority_created ON tasks (user_id, priority, created_at DESC, id DESC);
+
+-- The same with a status filter
+CREATE INDEX idx_tasks_user_status_priority_created ON tasks (user_id, status, priority, created_at DESC, id DESC);
+
+-- sort=dueDate, optionally with dueFrom/dueTo; also the undated (due_date IS NULL) range
+CREATE INDEX idx_tasks_user_due_id ON tasks (user_id, due_date, id);
+
+-- The same with a status filter
+CREATE INDEX idx_tasks_user_status_due_id ON tasks (user_id, status, due_date, id);
@@ -0,0 +1,15 @@
+-- Delta sync (GET /api/tasks/changes) reads a user's tasks in (updated_at, id) order
+-- from a position, and the ids of tasks deleted since that position.
+
+CREATE INDEX idx_tasks_user_updated_id ON tasks (user_id, updated_at, id);
+
+-- One row per deleted task, kept for tasks.sync.tombstone-ttl and then purged.
+CREATE TABLE task_tombstones (
+    task_id    BIGINT       NOT NULL PRIMARY KEY,
+    user_id    BIGINT       NOT NULL,
+    deleted_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT fk_task_tombstones_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE INDEX idx_task_tombstones_user_deleted ON task_tombstones (user_id, deleted_at, task_id);
+CREATE INDEX idx_task_tombstones_deleted ON task_tombstones (deleted_at);
@@ -0,0 +1,44 @@
+-- Per-user task counters for GET /api/tasks/stats, kept up to date by every task write
+-- in the writer's transaction (see TaskCounters). The task_stats row is also the lock
+-- that serializes counter maintenance per user.
+
+CREATE TABLE task_stats (
+    user_id         BIGINT NOT NULL PRIMARY KEY,
+    total           BIGINT NOT NULL DEFAULT 0,
+    todo            BIGINT NOT NULL DEFAULT 0,
+    in_progress     BIGINT NOT NULL DEFAULT 0,
+    done            BIGINT NOT NULL DEFAULT 0,
+    low_priority    BIGINT NOT NULL DEFAULT 0,
+    medium_priority BIGINT NOT NULL DEFAULT 0,
+    high_priority   BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT fk_task_stats_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+-- Open (not DONE) tasks per due date. Overdue is the sum over dates before today, which
+-- touches one row per distinct due date rather than one per task.
+CREATE TABLE task_open_due_counts (
+    user_id    BIGINT NOT NULL,
+    due_date   DATE   NOT NULL,
+    open_count BIGINT NOT NULL,
+    CONSTRAINT pk_task_open_due_counts PRIMARY KEY (user_id, due_date),
+    CONSTRAINT fk_task_open_due_counts_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+INSERT INTO task_stats (user_id, total, todo, in_progress, done, low_priority, medium_priority, high_priority)
+SELECT u.id,
+       COUNT(t.id),
+       SUM(CASE WHEN t.status = 'TODO' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN t.status = 'IN_PROGRESS' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN t.status = 'DONE' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN t.priority = 'LOW' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN t.priority = 'MEDIUM' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN t.priority = 'HIGH' THEN 1 ELSE 0 END)
+FROM users u
+LEFT JOIN tasks t ON t.user_id = u.id
+GROUP BY u.id;
+
+INSERT INTO task_open_due_counts (user_id, due_date, open_count)
+SELECT user_id, due_date, COUNT(*)
+FROM tasks
+WHERE status <> 'DONE' AND due_date IS NOT NULL
+GROUP BY user_id, due_date;
@@ -0,0 +1,4 @@
+-- Applied to shards only (see ShardConfig), when the shard is first migrated: its task ids
+-- start at the first id of its range, (index + 1) << 40, so ids taken from different
+-- shards' sequences never collide.
+ALTER SEQUENCE tasks_seq RESTART WITH ${first_task_id};
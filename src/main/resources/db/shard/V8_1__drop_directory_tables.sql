@@ -0,0 +1,4 @@
+-- Applied to shards only (see ShardConfig). Shards migrated before the directory's tables
+-- moved to db/directory got empty copies of them; a shard created since has none.
+DROP TABLE IF EXISTS shard_instances;
+DROP TABLE IF EXISTS user_shards;
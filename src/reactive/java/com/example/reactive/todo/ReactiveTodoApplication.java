@@ -0,0 +1,33 @@
+package com.example.reactive.todo;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+/**
+ * The task API on WebFlux and R2DBC, built with the {@code reactive} Maven profile.
+ * It serves the same {@code /api/auth} and core {@code /api/tasks} contract as the servlet
+ * application from the same schema and DTOs, without blocking a thread on the database.
+ * <p>
+ * It lives outside {@code com.example.todo} so that neither application scans the other's
+ * components. JDBC and JPA are excluded; Flyway still migrates through its own JDBC
+ * connection ({@code spring.flyway.url}) before the R2DBC pool is used.
+ */
+@SpringBootApplication(exclude = {
+        DataSourceAutoConfiguration.class,
+        DataSourceTransactionManagerAutoConfiguration.class,
+        HibernateJpaAutoConfiguration.class,
+        JpaRepositoriesAutoConfiguration.class})
+public class ReactiveTodoApplication {
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveTodoApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles("reactive")
+                .run(args);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.reactive.todo.controller;
+
+import com.example.reactive.todo.service.ReactiveUserService;
+import com.example.todo.dto.user.UserLoginRequest;
+import com.example.todo.dto.user.UserRegisterRequest;
+import com.example.todo.dto.user.UserResponse;
+import com.example.todo.security.JwtTokenProvider;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+public class ReactiveAuthController {
+
+    private final ReactiveUserService userService;
+    private final ReactiveAuthenticationManager authenticationManager;
+    private final JwtTokenProvider jwtTokenProvider;
+
+    @PostMapping("/register")
+    public Mono<UserResponse> register(@Valid @RequestBody UserRegisterRequest request) {
+        return userService.register(request);
+    }
+
+    @PostMapping("/login")
+    public Mono<Map<String, String>> login(@Valid @RequestBody UserLoginRequest request) {
+        return authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(
+                                request.getUsername(),
+                                request.getPassword()
+                        ))
+                .map(authentication -> Map.of("token", jwtTokenProvider.generateToken(authentication), "type", "Bearer"));
+    }
+}
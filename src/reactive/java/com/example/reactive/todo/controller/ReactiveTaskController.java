@@ -0,0 +1,57 @@
+package com.example.reactive.todo.controller;
+
+import com.example.reactive.todo.service.ReactiveTaskService;
+import com.example.todo.dto.task.PaginatedTaskResponse;
+import com.example.todo.dto.task.TaskCreateRequest;
+import com.example.todo.dto.task.TaskResponse;
+import com.example.todo.dto.task.TaskUpdateRequest;
+import com.example.todo.security.CustomUserDetails;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * The core of {@code TaskController} on WebFlux: create, read, page, update and delete.
+ * Batch, bulk, cursor, import/export, sync, stats and event endpoints are only served by
+ * the servlet application.
+ */
+@RestController
+@RequestMapping("/api/tasks")
+@RequiredArgsConstructor
+public class ReactiveTaskController {
+
+    private final ReactiveTaskService taskService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<TaskResponse> createTask(@Valid @RequestBody TaskCreateRequest request,
+                                         @AuthenticationPrincipal CustomUserDetails user) {
+        return taskService.createTask(request, user.getId());
+    }
+
+    @GetMapping("/{id}")
+    public Mono<TaskResponse> getTask(@PathVariable Long id, @AuthenticationPrincipal CustomUserDetails user) {
+        return taskService.getTaskById(id, user.getId());
+    }
+
+    @GetMapping
+    public Mono<PaginatedTaskResponse> getTasks(@RequestParam(defaultValue = "0") int page,
+                                                @RequestParam(defaultValue = "20") int size,
+                                                @AuthenticationPrincipal CustomUserDetails user) {
+        return taskService.getTasksPaginated(user.getId(), page, size);
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<TaskResponse> updateTask(@PathVariable Long id, @Valid @RequestBody TaskUpdateRequest request,
+                                         @AuthenticationPrincipal CustomUserDetails user) {
+        return taskService.updateTask(id, request, user.getId());
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<Void> deleteTask(@PathVariable Long id, @AuthenticationPrincipal CustomUserDetails user) {
+        return taskService.deleteTask(id, user.getId());
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.reactive.todo.repository;
+
+import com.example.todo.dto.task.TaskResponse;
+import com.example.todo.dto.task.TaskUpdateRequest;
+import com.example.todo.entity.Task;
+import com.example.todo.repository.TaskCountKey;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The tasks and task_tombstones tables over R2DBC, with the same statements the servlet
+ * application runs through JPA: reads select straight into {@link TaskResponse}, and
+ * updates and deletes are single conditional statements on {@code id} and {@code user_id}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactiveTaskRepository {
+
+    private static final String COLUMNS =
+            "id, title, description, priority, status, due_date, user_id, created_at, updated_at";
+
+    private final DatabaseClient db;
+
+    public Mono<TaskResponse> findResponseByIdAndUserId(Long id, Long userId) {
+        return db.sql("select " + COLUMNS + " from tasks where id = :id and user_id = :userId")
+                .bind("id", id)
+                .bind("userId", userId)
+                .map(ReactiveTaskRepository::toResponse)
+                .one();
+    }
+
+    /**
+     * Page of the user's tasks, newest first, in the order of the servlet application's pages.
+     */
+    public Flux<TaskResponse> findResponsePageByUserId(Long userId, int limit, long offset) {
+        return db.sql("select " + COLUMNS + """
+                         from tasks
+                        where user_id = :userId
+                        order by user_id, created_at desc, id desc
+                        limit :limit offset :offset
+                        """)
+                .bind("userId", userId)
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(ReactiveTaskRepository::toResponse)
+                .all();
+    }
+
+    public Mono<Long> countByUserId(Long userId) {
+        return db.sql("select count(*) as total from tasks where user_id = :userId")
+                .bind("userId", userId)
+                .map(row -> row.get("total", Long.class))
+                .one();
+    }
+
+    /**
+     * Inserts the task, taking its id from {@code tasks_seq} through the column default,
+     * and returns it with that id.
+     */
+    public Mono<TaskResponse> insert(TaskResponse task) {
+        DatabaseClient.GenericExecuteSpec insert = db.sql("""
+                        insert into tasks (title, description, priority, status, due_date, user_id, created_at, updated_at)
+                        values (:title, :description, :priority, :status, :dueDate, :userId, :createdAt, :updatedAt)
+                        """)
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .bind("title", task.getTitle())
+                .bind("priority", task.getPriority().name())
+                .bind("status", task.getStatus().name())
+                .bind("userId", task.getUserId())
+                .bind("createdAt", task.getCreatedAt())
+                .bind("updatedAt", task.getUpdatedAt());
+        insert = task.getDescription() != null
+                ? insert.bind("description", task.getDescription())
+                : insert.bindNull("description", String.class);
+        insert = task.getDueDate() != null
+                ? insert.bind("dueDate", task.getDueDate())
+                : insert.bindNull("dueDate", LocalDate.class);
+        return insert.map(row -> row.get("id", Long.class))
+                .one()
+                .map(id -> {
+                    task.setId(id);
+                    return task;
+                });
+    }
+
+    /**
+     * Sets the non-null fields of the request and {@code updated_at}; returns what the task's
+     * counters were kept by before, read from the update's {@code OLD TABLE}, or empty when
+     * the task does not exist or belongs to someone else.
+     */
+    public Mono<TaskCountKey> updateFields(Long id, Long userId, TaskUpdateRequest changes, LocalDateTime now) {
+        List<String> assignments = new ArrayList<>();
+        if (changes.getTitle() != null) {
+            assignments.add("title = :title");
+        }
+        if (changes.getDescription() != null) {
+            assignments.add("description = :description");
+        }
+        if (changes.getPriority() != null) {
+            assignments.add("priority = :priority");
+        }
+        if (changes.getStatus() != null) {
+            assignments.add("status = :status");
+        }
+        if (changes.getDueDate() != null) {
+            assignments.add("due_date = :dueDate");
+        }
+        assignments.add("updated_at = :updatedAt");
+
+        DatabaseClient.GenericExecuteSpec update = db.sql("select status, priority, due_date from old table ("
+                        + "update tasks set " + String.join(", ", assignments) + " where id = :id and user_id = :userId)")
+                .bind("id", id)
+                .bind("userId", userId)
+                .bind("updatedAt", now);
+        if (changes.getTitle() != null) {
+            update = update.bind("title", changes.getTitle());
+        }
+        if (changes.getDescription() != null) {
+            update = update.bind("description", changes.getDescription());
+        }
+        if (changes.getPriority() != null) {
+            update = update.bind("priority", changes.getPriority().name());
+        }
+        if (changes.getStatus() != null) {
+            update = update.bind("status", changes.getStatus().name());
+        }
+        if (changes.getDueDate() != null) {
+            update = update.bind("dueDate", changes.getDueDate());
+        }
+        return update.map(ReactiveTaskRepository::toCountKey).one();
+    }
+
+    /**
+     * Deletes the task; returns what its counters were kept by, or empty when the task does
+     * not exist or belongs to someone else.
+     */
+    public Mono<TaskCountKey> deleteByIdAndUserId(Long id, Long userId) {
+        return db.sql("select status, priority, due_date from old table (delete from tasks where id = :id and user_id = :userId)")
+                .bind("id", id)
+                .bind("userId", userId)
+                .map(ReactiveTaskRepository::toCountKey)
+                .one();
+    }
+
+    /**
+     * Records the deletion for delta sync, as the servlet application does.
+     */
+    public Mono<Long> insertTombstone(Long taskId, Long userId, LocalDateTime deletedAt) {
+        return db.sql("insert into task_tombstones (task_id, user_id, deleted_at) values (:taskId, :userId, :deletedAt)")
+                .bind("taskId", taskId)
+                .bind("userId", userId)
+                .bind("deletedAt", deletedAt)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static TaskCountKey toCountKey(Readable row) {
+        return new TaskCountKey(
+                Task.Status.valueOf(row.get("status", String.class)),
+                Task.Priority.valueOf(row.get("priority", String.class)),
+                row.get("due_date", LocalDate.class));
+    }
+
+    private static TaskResponse toResponse(Readable row) {
+        return TaskResponse.builder()
+                .id(row.get("id", Long.class))
+                .title(row.get("title", String.class))
+                .description(row.get("description", String.class))
+                .priority(Task.Priority.valueOf(row.get("priority", String.class)))
+                .status(Task.Status.valueOf(row.get("status", String.class)))
+                .dueDate(row.get("due_date", LocalDate.class))
+                .userId(row.get("user_id", Long.class))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .updatedAt(row.get("updated_at", LocalDateTime.class))
+                .build();
+    }
+}
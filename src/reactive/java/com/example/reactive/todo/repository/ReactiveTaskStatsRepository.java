@@ -0,0 +1,80 @@
+package com.example.reactive.todo.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * The statements of {@code TaskStatsRepository} over R2DBC: counters change only through
+ * relative UPDATEs, so concurrent writers cannot lose increments.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactiveTaskStatsRepository {
+
+    private final DatabaseClient db;
+
+    public Mono<Long> insertEmpty(Long userId) {
+        return db.sql("insert into task_stats (user_id) values (:userId)")
+                .bind("userId", userId)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> increment(Long userId, long total, long todo, long inProgress, long done,
+                                long low, long medium, long high) {
+        return db.sql("""
+                        update task_stats
+                           set total = total + :total,
+                               todo = todo + :todo,
+                               in_progress = in_progress + :inProgress,
+                               done = done + :done,
+                               low_priority = low_priority + :low,
+                               medium_priority = medium_priority + :medium,
+                               high_priority = high_priority + :high
+                         where user_id = :userId
+                        """)
+                .bind("userId", userId)
+                .bind("total", total)
+                .bind("todo", todo)
+                .bind("inProgress", inProgress)
+                .bind("done", done)
+                .bind("low", low)
+                .bind("medium", medium)
+                .bind("high", high)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> incrementOpenDue(Long userId, LocalDate dueDate, long delta) {
+        return db.sql("""
+                        update task_open_due_counts
+                           set open_count = open_count + :delta
+                         where user_id = :userId and due_date = :dueDate
+                        """)
+                .bind("userId", userId)
+                .bind("dueDate", dueDate)
+                .bind("delta", delta)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> insertOpenDue(Long userId, LocalDate dueDate, long count) {
+        return db.sql("insert into task_open_due_counts (user_id, due_date, open_count) values (:userId, :dueDate, :count)")
+                .bind("userId", userId)
+                .bind("dueDate", dueDate)
+                .bind("count", count)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteEmptyOpenDue(Long userId) {
+        return db.sql("delete from task_open_due_counts where user_id = :userId and open_count = 0")
+                .bind("userId", userId)
+                .fetch()
+                .rowsUpdated();
+    }
+}
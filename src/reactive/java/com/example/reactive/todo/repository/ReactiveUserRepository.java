@@ -0,0 +1,74 @@
+package com.example.reactive.todo.repository;
+
+import com.example.todo.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * The users table over R2DBC. Rows are read into the shared {@link User} class, which is
+ * a plain object here: JPA is not active in the reactive application.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactiveUserRepository {
+
+    private final DatabaseClient db;
+
+    public Mono<User> findByUsername(String username) {
+        return db.sql("select id, username, password, email, role, created_at, updated_at from users where username = :username")
+                .bind("username", username)
+                .map(row -> User.builder()
+                        .id(row.get("id", Long.class))
+                        .username(row.get("username", String.class))
+                        .password(row.get("password", String.class))
+                        .email(row.get("email", String.class))
+                        .role(row.get("role", String.class))
+                        .createdAt(row.get("created_at", LocalDateTime.class))
+                        .updatedAt(row.get("updated_at", LocalDateTime.class))
+                        .build())
+                .one();
+    }
+
+    public Mono<Boolean> existsByUsername(String username) {
+        return exists("select 1 from users where username = :value", username);
+    }
+
+    public Mono<Boolean> existsByEmail(String email) {
+        return exists("select 1 from users where email = :value", email);
+    }
+
+    /**
+     * Inserts the user and returns it with its generated id.
+     */
+    public Mono<User> insert(User user) {
+        return db.sql("""
+                        insert into users (username, password, email, role, created_at, updated_at)
+                        values (:username, :password, :email, :role, :createdAt, :updatedAt)
+                        """)
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .bind("username", user.getUsername())
+                .bind("password", user.getPassword())
+                .bind("email", user.getEmail())
+                .bind("role", user.getRole())
+                .bind("createdAt", user.getCreatedAt())
+                .bind("updatedAt", user.getUpdatedAt())
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .map(id -> {
+                    user.setId(id);
+                    return user;
+                });
+    }
+
+    private Mono<Boolean> exists(String sql, String value) {
+        return db.sql(sql)
+                .bind("value", value)
+                .map(row -> true)
+                .first()
+                .defaultIfEmpty(false);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.reactive.todo.security;
+
+import com.example.todo.security.CustomUserDetails;
+import com.example.todo.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.Optional;
+
+/**
+ * The reactive counterpart of {@code JwtAuthenticationFilter}: a valid bearer token puts its
+ * principal into the Reactor context of the rest of the chain. Token checks are the same and
+ * share {@link JwtTokenProvider}, including its verified-token cache.
+ * <p>
+ * Not a bean: WebFlux would also add every {@code WebFilter} bean to the application's own
+ * filter chain, so it is only created for the security chain.
+ */
+@Slf4j
+public class ReactiveJwtAuthenticationFilter implements WebFilter {
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final ReactiveCustomUserDetailsService userDetailsService;
+
+    private final boolean verifyUserOnRequest;
+
+    /**
+     * @param verifyUserOnRequest as in {@code JwtAuthenticationFilter}: when set, every request
+     *                            re-loads the user; otherwise the principal is built from the
+     *                            verified claims without a query
+     */
+    public ReactiveJwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider,
+                                           ReactiveCustomUserDetailsService userDetailsService,
+                                           boolean verifyUserOnRequest) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.userDetailsService = userDetailsService;
+        this.verifyUserOnRequest = verifyUserOnRequest;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String jwt = getJwtFromRequest(exchange);
+        Optional<Claims> claims = StringUtils.hasText(jwt)
+                ? jwtTokenProvider.parseClaims(jwt)
+                : Optional.empty();
+        if (claims.isEmpty()) {
+            return chain.filter(exchange);
+        }
+
+        return resolveUserDetails(claims.get())
+                .filter(UserDetails::isEnabled)
+                .map(userDetails -> ReactiveSecurityContextHolder.withAuthentication(
+                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities())))
+                .onErrorResume(ex -> {
+                    log.error("Could not set user authentication in security context", ex);
+                    return Mono.empty();
+                })
+                .defaultIfEmpty(Context.empty())
+                .flatMap(context -> chain.filter(exchange).contextWrite(context));
+    }
+
+    private Mono<UserDetails> resolveUserDetails(Claims claims) {
+        if (!verifyUserOnRequest) {
+            Optional<CustomUserDetails> fromClaims = jwtTokenProvider.getUserDetailsFromClaims(claims);
+            if (fromClaims.isPresent()) {
+                return Mono.just(fromClaims.get());
+            }
+        }
+
+        // A token minted for an account that has since been deleted and re-registered
+        // under the same username must not authenticate as the new account.
+        Long tokenUserId = jwtTokenProvider.getUserIdFromClaims(claims);
+        return userDetailsService.findByUsername(claims.getSubject())
+                .filter(userDetails -> tokenUserId == null
+                        || !(userDetails instanceof CustomUserDetails details)
+                        || tokenUserId.equals(details.getId()));
+    }
+
+    private String getJwtFromRequest(ServerWebExchange exchange) {
+        String bearerToken = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
+            return bearerToken.substring(7);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.reactive.todo.service;
+
+import com.example.reactive.todo.repository.ReactiveTaskStatsRepository;
+import com.example.todo.entity.Task;
+import com.example.todo.repository.TaskCountKey;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps the per-user task counters in step with single-task writes, in the writer's
+ * transaction and in the same order as {@code TaskCounters}: the {@code task_stats} row
+ * first, which locks it, then the due-date rows.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReactiveTaskCounters {
+
+    private final ReactiveTaskStatsRepository statsRepository;
+
+    Mono<Void> init(Long userId) {
+        return statsRepository.insertEmpty(userId).then();
+    }
+
+    /**
+     * Moves one task from {@code removed} to {@code added}; either may be {@code null}
+     * for a task that is created or deleted.
+     */
+    Mono<Void> apply(Long userId, TaskCountKey removed, TaskCountKey added) {
+        if (removed != null && removed.equals(added)) {
+            return Mono.empty();
+        }
+        long[] status = new long[Task.Status.values().length];
+        long[] priority = new long[Task.Priority.values().length];
+        // Sorted, so that concurrent writers update due-date rows in the same order.
+        Map<LocalDate, Long> openByDueDate = new TreeMap<>();
+        long total = count(added, 1, status, priority, openByDueDate) + count(removed, -1, status, priority, openByDueDate);
+
+        Mono<Long> increment = Mono.defer(() -> statsRepository.increment(userId, total,
+                status[Task.Status.TODO.ordinal()],
+                status[Task.Status.IN_PROGRESS.ordinal()],
+                status[Task.Status.DONE.ordinal()],
+                priority[Task.Priority.LOW.ordinal()],
+                priority[Task.Priority.MEDIUM.ordinal()],
+                priority[Task.Priority.HIGH.ordinal()]));
+        Mono<Long> counters = increment.flatMap(updated -> updated > 0
+                ? Mono.just(updated)
+                : statsRepository.insertEmpty(userId).then(increment));
+
+        boolean decremented = openByDueDate.values().stream().anyMatch(count -> count < 0);
+        return counters
+                .thenMany(Flux.fromIterable(openByDueDate.entrySet())
+                        .filter(entry -> entry.getValue() != 0)
+                        .concatMap(entry -> statsRepository.incrementOpenDue(userId, entry.getKey(), entry.getValue())
+                                .flatMap(updated -> updated > 0
+                                        ? Mono.just(updated)
+                                        : statsRepository.insertOpenDue(userId, entry.getKey(), entry.getValue()))))
+                .then(decremented ? statsRepository.deleteEmptyOpenDue(userId).then() : Mono.<Void>empty());
+    }
+
+    private static long count(TaskCountKey key, long count, long[] status, long[] priority,
+                              Map<LocalDate, Long> openByDueDate) {
+        if (key == null) {
+            return 0;
+        }
+        status[key.status().ordinal()] += count;
+        priority[key.priority().ordinal()] += count;
+        if (key.status() != Task.Status.DONE && key.dueDate() != null) {
+            openByDueDate.merge(key.dueDate(), count, Long::sum);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.reactive.todo.service;
+
+import com.example.reactive.todo.repository.ReactiveTaskRepository;
+import com.example.todo.dto.task.PaginatedTaskResponse;
+import com.example.todo.dto.task.TaskCreateRequest;
+import com.example.todo.dto.task.TaskResponse;
+import com.example.todo.dto.task.TaskUpdateRequest;
+import com.example.todo.entity.Task;
+import com.example.todo.exception.ResourceNotFoundException;
+import com.example.todo.repository.TaskCountKey;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * The task operations of {@code TaskService} that the reactive application serves, with the
+ * same rules: ownership is part of every statement, and writes update the user's counters
+ * and tombstones in their transaction. The read cache, ETags and change events of the servlet
+ * application are held in its memory and have no counterpart here.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveTaskService {
+
+    private final ReactiveTaskRepository taskRepository;
+    private final ReactiveTaskCounters counters;
+
+    @Transactional
+    public Mono<TaskResponse> createTask(TaskCreateRequest request, Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        TaskResponse task = TaskResponse.builder()
+                .title(request.getTitle())
+                .description(request.getDescription())
+                .priority(request.getPriority() != null ? request.getPriority() : Task.Priority.MEDIUM)
+                .status(request.getStatus() != null ? request.getStatus() : Task.Status.TODO)
+                .dueDate(request.getDueDate())
+                .userId(userId)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        return taskRepository.insert(task)
+                .flatMap(created -> counters.apply(userId, null, countKey(created)).thenReturn(created));
+    }
+
+    @Transactional(readOnly = true)
+    public Mono<TaskResponse> getTaskById(Long id, Long userId) {
+        return taskRepository.findResponseByIdAndUserId(id, userId)
+                .switchIfEmpty(notFound());
+    }
+
+    @Transactional(readOnly = true)
+    public Mono<PaginatedTaskResponse> getTasksPaginated(Long userId, int page, int size) {
+        if (page < 0) {
+            return Mono.error(new IllegalArgumentException("Page index must not be less than zero"));
+        }
+        if (size < 1) {
+            return Mono.error(new IllegalArgumentException("Page size must not be less than one"));
+        }
+        return Mono.zip(
+                        taskRepository.findResponsePageByUserId(userId, size, (long) page * size).collectList(),
+                        taskRepository.countByUserId(userId))
+                .map(pageAndTotal -> {
+                    long total = pageAndTotal.getT2();
+                    int totalPages = (int) Math.ceil(total / (double) size);
+                    return PaginatedTaskResponse.builder()
+                            .content(pageAndTotal.getT1())
+                            .number(page)
+                            .size(size)
+                            .totalElements(total)
+                            .totalPages(totalPages)
+                            .first(page == 0)
+                            .last(page + 1 >= totalPages)
+                            .build();
+                });
+    }
+
+    @Transactional
+    public Mono<TaskResponse> updateTask(Long id, TaskUpdateRequest request, Long userId) {
+        Mono<Void> write = Mono.empty();
+        if (hasChanges(request)) {
+            // The UPDATE returns what it replaced, as in TaskService.
+            write = taskRepository.updateFields(id, userId, request, LocalDateTime.now())
+                    .switchIfEmpty(notFound())
+                    .flatMap(before -> counters.apply(userId, before,
+                            before.with(request.getStatus(), request.getPriority(), request.getDueDate())));
+        }
+        return write.then(taskRepository.findResponseByIdAndUserId(id, userId))
+                .switchIfEmpty(notFound());
+    }
+
+    @Transactional
+    public Mono<Void> deleteTask(Long id, Long userId) {
+        return taskRepository.deleteByIdAndUserId(id, userId)
+                .switchIfEmpty(notFound())
+                .flatMap(deleted -> counters.apply(userId, deleted, null))
+                .then(taskRepository.insertTombstone(id, userId, LocalDateTime.now()))
+                .then();
+    }
+
+    private static boolean hasChanges(TaskUpdateRequest request) {
+        return request.getTitle() != null
+                || request.getDescription() != null
+                || request.getPriority() != null
+                || request.getStatus() != null
+                || request.getDueDate() != null;
+    }
+
+    private static TaskCountKey countKey(TaskResponse task) {
+        return new TaskCountKey(task.getStatus(), task.getPriority(), task.getDueDate());
+    }
+
+    private static <T> Mono<T> notFound() {
+        return Mono.error(() -> new ResourceNotFoundException("Task not found"));
+    }
+}
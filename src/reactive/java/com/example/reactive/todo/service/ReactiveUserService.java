@@ -0,0 +1,67 @@
+package com.example.reactive.todo.service;
+
+import com.example.reactive.todo.repository.ReactiveUserRepository;
+import com.example.todo.dto.user.UserRegisterRequest;
+import com.example.todo.dto.user.UserResponse;
+import com.example.todo.entity.User;
+import com.example.todo.exception.ResourceAlreadyExistsException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveUserService {
+
+    private final ReactiveUserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final ReactiveTaskCounters taskCounters;
+
+    /**
+     * Registers the user as {@code UserService} does. BCrypt takes tens of milliseconds of CPU,
+     * so the password is hashed on the bounded elastic scheduler rather than on an event loop.
+     */
+    @Transactional
+    public Mono<UserResponse> register(UserRegisterRequest request) {
+        return userRepository.existsByUsername(request.getUsername())
+                .flatMap(exists -> exists
+                        ? Mono.<Void>error(new ResourceAlreadyExistsException("Username already exists"))
+                        : Mono.<Void>empty())
+                .then(userRepository.existsByEmail(request.getEmail()))
+                .flatMap(exists -> exists
+                        ? Mono.<String>error(new ResourceAlreadyExistsException("Email already exists"))
+                        : Mono.fromCallable(() -> passwordEncoder.encode(request.getPassword()))
+                                .subscribeOn(Schedulers.boundedElastic()))
+                .flatMap(password -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    return userRepository.insert(User.builder()
+                            .username(request.getUsername())
+                            .password(password)
+                            .email(request.getEmail())
+                            .role("USER")
+                            .createdAt(now)
+                            .updatedAt(now)
+                            .build());
+                })
+                .flatMap(user -> taskCounters.init(user.getId()).thenReturn(user))
+                .doOnNext(user -> log.info("New user created: {} (ID: {})", user.getUsername(), user.getId()))
+                .map(ReactiveUserService::toResponse);
+    }
+
+    private static UserResponse toResponse(User user) {
+        return UserResponse.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .role(user.getRole())
+                .createdAt(user.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.todo.config;
+
+import com.example.todo.util.RestAssuredTestBase;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The Prometheus scrape endpoint as Prometheus would read it, after some API traffic.
+ */
+@AutoConfigureObservability
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class MetricsRestAssuredTest extends RestAssuredTestBase {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Scrape should report API, JWT, password, pool and Hibernate metrics")
+    void shouldExposeMetricsForPrometheus() {
+        String token = registerAndLogin("metrics", "password123", "metrics@example.com");
+        given()
+                .header("Authorization", bearer(token))
+                .body("{\"title\": \"Measured\"}")
+                .when()
+                .post("/api/tasks")
+                .then()
+                .statusCode(201);
+        given().header("Authorization", bearer(token)).when().get("/api/tasks?page=0&size=20").then().statusCode(200);
+        given().header("Authorization", bearer(token)).when().get("/api/tasks?cursor=&size=20").then().statusCode(200);
+        given().header("Authorization", bearer("not-a-jwt")).when().get("/api/tasks");
+
+        List<String> lines = given()
+                .header("Authorization", bearer(adminToken()))
+                .when()
+                .get("/actuator/prometheus")
+                .then()
+                .statusCode(200)
+                .extract()
+                .asString()
+                .lines()
+                .toList();
+
+        assertThat(lines)
+                .anyMatch(line -> line.startsWith("http_server_requests_seconds_bucket{")
+                        && line.contains("operation=\"TaskController.createTask\""))
+                .anyMatch(line -> line.startsWith("http_server_requests_seconds_bucket{")
+                        && line.contains("operation=\"TaskController.getTasks\""))
+                .anyMatch(line -> line.startsWith("http_server_requests_seconds_bucket{")
+                        && line.contains("operation=\"TaskController.getTasksByCursor\""))
+                .anyMatch(line -> line.startsWith("http_server_requests_seconds_count{")
+                        && line.contains("operation=\"AuthController.login\""))
+                .anyMatch(line -> line.startsWith("jwt_validations_total{outcome=\"valid\"") && !line.endsWith(" 0.0"))
+                .anyMatch(line -> line.startsWith("jwt_validations_total{outcome=\"invalid\"") && !line.endsWith(" 0.0"))
+                .anyMatch(line -> line.startsWith("password_encoder_seconds_count{operation=\"encode\""))
+                .anyMatch(line -> line.startsWith("password_encoder_seconds_count{operation=\"matches\""))
+                .anyMatch(line -> line.startsWith("hikaricp_connections_active{"))
+                .anyMatch(line -> line.startsWith("hibernate_query_executions_total{"))
+                .anyMatch(line -> line.startsWith("hibernate_entities_loads_total{"));
+    }
+
+    @Test
+    @DisplayName("Scrape on the API port should need an ADMIN token")
+    void shouldRequireAdminForScrapeOnApiPort() {
+        String token = registerAndLogin("metricsuser", "password123", "metricsuser@example.com");
+
+        given().when().get("/actuator/prometheus").then().statusCode(403);
+        given().header("Authorization", bearer(token)).when().get("/actuator/prometheus").then().statusCode(403);
+    }
+
+    @Test
+    @DisplayName("Health should be readable without a token")
+    void shouldExposeHealthWithoutToken() {
+        given()
+                .when()
+                .get("/actuator/health")
+                .then()
+                .statusCode(200);
+    }
+
+    private String adminToken() {
+        String username = "metricsadmin_" + System.currentTimeMillis();
+        given()
+                .body(String.format("""
+                        {"username": "%s", "password": "password123", "email": "%s@example.com"}
+                        """, username, username))
+                .when()
+                .post("/api/auth/register")
+                .then()
+                .statusCode(200);
+        jdbcTemplate.update("UPDATE users SET role = 'ADMIN' WHERE username = ?", username);
+        return extractToken(given()
+                .body(String.format("""
+                        {"username": "%s", "password": "password123"}
+                        """, username))
+                .when()
+                .post("/api/auth/login")
+                .then()
+                .statusCode(200)
+                .extract()
+                .asString());
+    }
+}
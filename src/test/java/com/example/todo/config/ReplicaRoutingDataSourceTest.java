@@ -0,0 +1,174 @@
+package com.example.todo.config;
+
+import com.example.todo.entity.User;
+import com.example.todo.security.CustomUserDetails;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final String name = UUID.randomUUID().toString();
+    private ReplicaRoutingDataSource routing;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        if (routing != null) {
+            routing.close();
+        }
+    }
+
+    @Test
+    void shouldSendConnectionsOutsideReadOnlyTransactionsToPrimary() throws SQLException {
+        routing = routing(ReplicaRoutingDataSource.Selection.ROUND_ROBIN, Duration.ofMinutes(1));
+
+        assertEquals("primary", database());
+    }
+
+    @Test
+    void shouldAlternateReplicasRoundRobin() throws SQLException {
+        routing = routing(ReplicaRoutingDataSource.Selection.ROUND_ROBIN, Duration.ofMinutes(1));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(List.of("replica-0", "replica-1", "replica-0", "replica-1"),
+                List.of(database(), database(), database(), database()));
+    }
+
+    @Test
+    void shouldPickReplicaWithFewestConnectionsInUse() throws SQLException {
+        routing = routing(ReplicaRoutingDataSource.Selection.LEAST_CONNECTIONS, Duration.ofMinutes(1));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        try (Connection held = routing.getConnection()) {
+            String busy = database(held);
+            for (int i = 0; i < 3; i++) {
+                assertNotEquals(busy, database());
+            }
+        }
+    }
+
+    @Test
+    void shouldKeepUserOnPrimaryAfterCommittedWrite() throws SQLException {
+        routing = routing(ReplicaRoutingDataSource.Selection.ROUND_ROBIN, Duration.ofMinutes(1));
+        authenticate(1L);
+
+        assertEquals("primary", writeAndCommit());
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals("primary", database());
+        authenticate(2L);
+        assertTrue(database().startsWith("replica-"));
+    }
+
+    @Test
+    void shouldNotKeepUserOnPrimaryAfterRolledBackWrite() throws SQLException {
+        routing = routing(ReplicaRoutingDataSource.Selection.ROUND_ROBIN, Duration.ofMinutes(1));
+        authenticate(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        database();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertTrue(database().startsWith("replica-"));
+    }
+
+    @Test
+    void shouldReturnUserToReplicasAfterWindow() throws SQLException {
+        routing = routing(ReplicaRoutingDataSource.Selection.ROUND_ROBIN, Duration.ZERO);
+        authenticate(1L);
+
+        writeAndCommit();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertTrue(database().startsWith("replica-"));
+    }
+
+    @Test
+    void shouldSendReadsPinnedToPrimaryToPrimary() throws SQLException {
+        routing = routing(ReplicaRoutingDataSource.Selection.ROUND_ROBIN, Duration.ofMinutes(1));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals("primary", ReplicaRoutingContext.callOnPrimary(this::uncheckedDatabase));
+        assertTrue(database().startsWith("replica-"));
+    }
+
+    private String uncheckedDatabase() {
+        try {
+            return database();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Takes a connection in a read-write transaction and runs what would follow its commit.
+     */
+    private String writeAndCommit() throws SQLException {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        String database = database();
+        List<TransactionSynchronization> synchronizations =
+                new ArrayList<>(TransactionSynchronizationManager.getSynchronizations());
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        return database;
+    }
+
+    private ReplicaRoutingDataSource routing(ReplicaRoutingDataSource.Selection selection, Duration window) {
+        return new ReplicaRoutingDataSource(pool("primary"), List.of(pool("replica-0"), pool("replica-1")),
+                selection, window);
+    }
+
+    private HikariDataSource pool(String database) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:" + name + "-" + database + ";DB_CLOSE_DELAY=-1");
+        pool.setUsername("sa");
+        pool.setPoolName(database);
+        return pool;
+    }
+
+    private String database() throws SQLException {
+        try (Connection connection = routing.getConnection()) {
+            return database(connection);
+        }
+    }
+
+    private String database(Connection connection) throws SQLException {
+        String url = connection.getMetaData().getURL();
+        return url.substring(url.indexOf(name) + name.length() + 1).split(";")[0];
+    }
+
+    private static void authenticate(Long userId) {
+        CustomUserDetails user = new CustomUserDetails(User.builder()
+                .id(userId)
+                .username("user" + userId)
+                .email("user" + userId + "@example.com")
+                .role("USER")
+                .build());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+}
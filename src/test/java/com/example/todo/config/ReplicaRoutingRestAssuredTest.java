@@ -0,0 +1,167 @@
+package com.example.todo.config;
+
+import com.example.todo.util.H2ReplicaSync;
+import com.example.todo.util.RestAssuredTestBase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+
+/**
+ * Read routing against two local H2 replicas that only catch up with the primary when the
+ * test copies it over, so a read served by a replica shows by what it misses.
+ */
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@TestPropertySource(properties = {
+        "spring.datasource.url=" + ReplicaRoutingRestAssuredTest.PRIMARY,
+        "tasks.replicas.urls=" + ReplicaRoutingRestAssuredTest.REPLICA_0 + "," + ReplicaRoutingRestAssuredTest.REPLICA_1,
+        "tasks.replicas.read-your-writes-window=2s"
+})
+class ReplicaRoutingRestAssuredTest extends RestAssuredTestBase {
+
+    static final String PRIMARY = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_0 = "jdbc:h2:mem:routing-replica-0;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_1 = "jdbc:h2:mem:routing-replica-1;DB_CLOSE_DELAY=-1";
+    private static final long PAST_WINDOW_MS = 2500;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        token = registerAndLogin("routing", "password123", "routing@example.com");
+        syncReplicas();
+    }
+
+    @Test
+    @DisplayName("A user should read their own write before the replicas have it")
+    void shouldReadOwnWriteFromPrimary() {
+        long id = createTask("Fresh");
+
+        given()
+                .header("Authorization", bearer(token))
+                .when()
+                .get("/api/tasks/" + id)
+                .then()
+                .statusCode(200)
+                .body("title", equalTo("Fresh"));
+    }
+
+    @Test
+    @DisplayName("An export streamed right after a write should include it")
+    void shouldExportOwnWriteFromPrimary() {
+        createTask("Exported fresh");
+
+        given()
+                .header("Authorization", bearer(token))
+                .when()
+                .get("/api/tasks/export?format=csv")
+                .then()
+                .statusCode(200)
+                .body(containsString("Exported fresh"));
+    }
+
+    @Test
+    @DisplayName("Reads after the window should be served by the replicas")
+    void shouldReadFromReplicasAfterWindow() throws InterruptedException {
+        createTask("Not replicated yet");
+        Thread.sleep(PAST_WINDOW_MS);
+
+        given()
+                .header("Authorization", bearer(token))
+                .when()
+                .get("/api/tasks?cursor=&size=20")
+                .then()
+                .statusCode(200)
+                .body("content", hasSize(0));
+
+        syncReplicas();
+
+        given()
+                .header("Authorization", bearer(token))
+                .when()
+                .get("/api/tasks?cursor=&size=20")
+                .then()
+                .statusCode(200)
+                .body("content[0].title", equalTo("Not replicated yet"));
+    }
+
+    @Test
+    @DisplayName("A cached read after the window should not keep what a lagging replica returned")
+    void shouldNotCacheLaggingReplicaRead() throws InterruptedException {
+        long id = createTask("Original");
+        Thread.sleep(PAST_WINDOW_MS);
+        syncReplicas();
+
+        given()
+                .header("Authorization", bearer(token))
+                .body("{\"title\": \"Updated\"}")
+                .when()
+                .patch("/api/tasks/" + id)
+                .then()
+                .statusCode(200);
+        Thread.sleep(PAST_WINDOW_MS);
+
+        for (int i = 0; i < 2; i++) {
+            given()
+                    .header("Authorization", bearer(token))
+                    .when()
+                    .get("/api/tasks/" + id)
+                    .then()
+                    .statusCode(200)
+                    .body("title", equalTo("Updated"));
+        }
+    }
+
+    @Test
+    @DisplayName("Reads should be spread over all replicas")
+    void shouldSpreadReadsOverReplicas() throws InterruptedException {
+        long id = createTask("Original");
+        Thread.sleep(PAST_WINDOW_MS);
+        syncReplicas();
+        H2ReplicaSync.execute(REPLICA_0, "UPDATE tasks SET title = ? WHERE id = ?", "replica-0", id);
+        H2ReplicaSync.execute(REPLICA_1, "UPDATE tasks SET title = ? WHERE id = ?", "replica-1", id);
+
+        // Cursor pages are always read from the database, never from the read cache.
+        Set<String> titles = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            titles.add(given()
+                    .header("Authorization", bearer(token))
+                    .when()
+                    .get("/api/tasks?cursor=&size=20")
+                    .then()
+                    .statusCode(200)
+                    .extract()
+                    .path("content[0].title"));
+        }
+
+        assertThat(titles).containsExactlyInAnyOrder("replica-0", "replica-1");
+    }
+
+    private long createTask(String title) {
+        return given()
+                .header("Authorization", bearer(token))
+                .body("{\"title\": \"" + title + "\"}")
+                .when()
+                .post("/api/tasks")
+                .then()
+                .statusCode(201)
+                .extract()
+                .jsonPath()
+                .getLong("id");
+    }
+
+    private static void syncReplicas() {
+        H2ReplicaSync.copy(PRIMARY, List.of(REPLICA_0, REPLICA_1));
+    }
+}
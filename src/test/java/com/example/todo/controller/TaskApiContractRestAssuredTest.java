@@ -0,0 +1,9 @@
+package com.example.todo.controller;
+
+import com.example.todo.util.TaskApiContractTestBase;
+
+/**
+ * The shared task API contract against the servlet application.
+ */
+class TaskApiContractRestAssuredTest extends TaskApiContractTestBase {
+}
@@ -1,15 +1,32 @@
 package com.example.todo.controller;
 
+import com.example.todo.service.TaskStatsService;
 import com.example.todo.util.RestAssuredTestBase;
+import io.restassured.path.json.JsonPath;
 import io.restassured.response.Response;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.DirtiesContext;
 
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.*;
@@ -17,6 +34,10 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.collection.IsEmptyCollection.empty;
 import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * RestAssured integration tests for TaskController API endpoints.
@@ -25,6 +46,12 @@ import static org.hamcrest.Matchers.lessThan;
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 class TaskControllerRestAssuredTest extends RestAssuredTestBase {
 
+    @Autowired
+    private TaskStatsService taskStatsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private String user1Token;
     private String user2Token;
 
@@ -471,4 +498,1086 @@ class TaskControllerRestAssuredTest extends RestAssuredTestBase {
                 .statusCode(200)
                 .time(lessThan(500L)); // Less than 500ms
     }
+
+    @Test
+    @DisplayName("Should walk all tasks with cursor pagination without duplicates")
+    void shouldPaginateWithCursor() {
+        for (int i = 1; i <= 5; i++) {
+            given()
+                    .header("Authorization", bearer(user1Token))
+                    .body(String.format("""
+                        {
+                            "title": "Cursor Task %d",
+                            "priority": "LOW",
+                            "status": "TODO"
+                        }
+                        """, i))
+                    .when()
+                    .post("/api/tasks")
+                    .then()
+                    .statusCode(201);
+        }
+
+        Set<Long> seenIds = new HashSet<>();
+        String cursor = "";
+        int pages = 0;
+        boolean hasNext;
+        do {
+            Response page = given()
+                    .header("Authorization", bearer(user1Token))
+                    .queryParam("cursor", cursor)
+                    .queryParam("size", 2)
+                    .when()
+                    .get("/api/tasks")
+                    .then()
+                    .statusCode(200)
+                    .body("size", equalTo(2))
+                    .body("$", not(hasKey("totalElements")))
+                    .extract()
+                    .response();
+
+            seenIds.addAll(page.jsonPath().getList("content.id", Long.class));
+            hasNext = page.jsonPath().getBoolean("hasNext");
+            cursor = page.jsonPath().getString("nextCursor");
+            pages++;
+        } while (hasNext);
+
+        assertEquals(3, pages);
+        assertEquals(5, seenIds.size());
+        assertNull(cursor);
+    }
+
+    @Test
+    @DisplayName("Should reject malformed cursor")
+    void shouldRejectMalformedCursor() {
+        given()
+                .header("Authorization", bearer(user1Token))
+                .queryParam("cursor", "not-a-cursor")
+                .when()
+                .get("/api/tasks")
+                .then()
+                .statusCode(400)
+                .body("error", equalTo("Invalid cursor"));
+    }
+
+    @Test
+    @DisplayName("Should not return another user's tasks through a cursor")
+    void shouldScopeCursorToCurrentUser() {
+        given()
+                .header("Authorization", bearer(user1Token))
+                .body("""
+                    {
+                        "title": "User1 Cursor Task",
+                        "priority": "LOW",
+                        "status": "TODO"
+                    }
+                    """)
+                .when()
+                .post("/api/tasks")
+                .then()
+                .statusCode(201);
+
+        given()
+                .header("Authorization", bearer(user2Token))
+                .queryParam("cursor", "")
+                .when()
+                .get("/api/tasks")
+                .then()
+                .statusCode(200)
+                .body("content", empty())
+                .body("hasNext", equalTo(false));
+    }
+
+    @Test
+    @DisplayName("Should create valid tasks in a batch and report invalid ones by index")
+    void shouldCreateTasksInBatch() {
+        given()
+                .header("Authorization", bearer(user1Token))
+                .body("""
+                    [
+                        { "title": "Batch Task 1", "priority": "HIGH" },
+                        { "title": "" },
+                        { "title": "Batch Task 3", "status": "DONE" }
+                    ]
+                    """)
+                .when()
+                .post("/api/tasks/batch")
+                .then()
+                .statusCode(200)
+                .body("created", equalTo(2))
+                .body("failed", equalTo(1))
+                .body("results", hasSize(3))
+                .body("results[0].index", equalTo(0))
+                .body("results[0].task.title", equalTo("Batch Task 1"))
+                .body("results[0].task.priority", equalTo("HIGH"))
+                .body("results[0].task.status", equalTo("TODO"))
+                .body("results[0]", not(hasKey("errors")))
+                .body("results[1].errors.title", equalTo("Title is required"))
+                .body("results[1]", not(hasKey("task")))
+                .body("results[2].task.status", equalTo("DONE"));
+
+        given()
+                .header("Authorization", bearer(user1Token))
+                .when()
+                .get("/api/tasks")
+                .then()
+                .statusCode(200)
+                .body("totalElements", equalTo(2));
+
+        given()
+                .header("Authorization", bearer(user2Token))
+                .when()
+                .get("/api/tasks")
+                .then()
+                .statusCode(200)
+                .body("totalElements", equalTo(0));
+    }
+
+    @Test
+    @DisplayName("Should reject an empty batch")
+    void shouldRejectEmptyBatch() {
+        given()
+                .header("Authorization", bearer(user1Token))
+                .body("[]")
+                .when()
+                .post("/api/tasks/batch")
+                .then()
+                .statusCode(400)
+                .body("error", equalTo("At least one task is required"));
+    }
+
+    @Test
+    @DisplayName("Should bulk update only the current user's matching tasks")
+    void shouldBulkUpdateMatchingTasks() {
+        Long dueSoon = createTask(user1Token, "Due soon", "TODO", LocalDate.now().plusDays(1));
+        Long dueLater = createTask(user1Token, "Due later", "TODO", LocalDate.now().plusDays(30));
+        Long inProgress = createTask(user1Token, "Started", "IN_PROGRESS", LocalDate.now().plusDays(1));
+        Long foreign = createTask(user2Token, "Foreign", "TODO", LocalDate.now().plusDays(1));
+
+        given()
+                .header("Authorization", bearer(user1Token))
+                .body(String.format("""
+                    {
+                        "filter": { "status": "TODO", "dueTo": "%s" },
+                        "status": "DONE",
+                        "priority": "HIGH"
+                    }
+                    """, LocalDate.now().plusDays(7)))
+                .when()
+                .patch("/api/tasks/bulk")
+                .then()
+                .statusCode(200)
+                .body("updated", equalTo(1));
+
+        assertTask(user1Token, dueSoon, "DONE", "HIGH");
+        assertTask(user1Token, dueLater, "TODO", "LOW");
+        assertTask(user1Token, inProgress, "IN_PROGRESS", "LOW");
+        assertTask(user2Token, foreign, "TODO", "LOW");
+
+        // Ids of another user's tasks are ignored rather than updated
+        given()
+                .header("Authorization", bearer(user1Token))
+                .body(String.format("""
+                    {
+                        "filter": { "ids": [%d, %d] },
+                        "status": "DONE"
+                    }
+                    """, dueLater, foreign))
+                .when()
+                .patch("/api/tasks/bulk")
+                .then()
+                .statusCode(200)
+                .body("updated", equalTo(1));
+
+        assertTask(user1Token, dueLater, "DONE", "LOW");
+        assertTask(user2Token, foreign, "TODO", "LOW");
+    }
+
+    @Test
+    @DisplayName("Should reject a bulk update without changes")
+    void shouldRejectBulkUpdateWithoutChanges() {
+        given()
+                .header("Authorization", bearer(user1Token))
+                .body("""
+                    {
+                        "filter": { "status": "TODO" }
+                    }
+                    """)
+                .when()
+                .patch("/api/tasks/bulk")
+                .then()
+                .statusCode(400)
+                .body("error", equalTo("At least one of status, priority or dueDate must be set"));
+    }
+
+    @Test
+    @DisplayName("Should list by priority across priority ranges with a cursor")
+    void shouldSortByPriorityWithCursor() {
+        Long low = postTask(user1Token, """
+                { "title": "Low", "priority": "LOW" }
+                """);
+        Long olderHigh = postTask(user1Token, """
+                { "title": "Older high", "priority": "HIGH" }
+                """);
+        Long medium = postTask(user1Token, """
+                { "title": "Medium", "priority": "MEDIUM" }
+                """);
+        Long newerHigh = postTask(user1Token, """
+                { "title": "Newer high", "priority": "HIGH" }
+                """);
+
+        Response first = given()
+                .header("Authorization", bearer(user1Token))
+                .queryParam("cursor", "")
+                .queryParam("sort", "priority")
+                .queryParam("size", 3)
+                .when()
+                .get("/api/tasks")
+                .then()
+                .statusCode(200)
+                .body("hasNext", equalTo(true))
+                .extract()
+                .response();
+        assertEquals(List.of(newerHigh, olderHigh, medium), first.jsonPath().getList("content.id", Long.class));
+
+        Response second = given()
+                .header("Authorization", bearer(user1Token))
+                .queryParam("cursor", first.jsonPath().getString("nextCursor"))
+                .queryParam("sort", "priority")
+                .queryParam("size", 3)
+                .when()
+                .get("/api/tasks")
+                .then()
+                .statusCode(200)
+                .body("hasNext", equalTo(false))
+                .extract()
+                .response();
+        assertEquals(List.of(low), second.jsonPath().getList("content.id", Long.class));
+    }
+
+    @Test
+    @DisplayName("Should list by due date with undated tasks last")
+    void shouldSortByDueDateWithUndatedLast() {
+        Long later = postTask(user1Token, String.format("""
+                { "title": "Later", "dueDate": "%s" }
+                """, LocalDate.now().plusDays(3)));
+        Long undated = postTask(user1Token, """
+                { "title": "Undated" }
+                """);
+        Long sooner = postTask(user1Token, String.format("""
+                { "title": "Sooner", "dueDate": "%s" }
+                """, LocalDate.now().plusDays(1)));
+
+        Response first = given()
+                .header("Authorization", bearer(user1Token))
+                .queryParam("cursor", "")
+                .queryParam("sort", "dueDate")
+                .queryParam("size", 2)
+                .when()
+                .get("/api/tasks")
+                .then()
+                .statusCode(200)
+                .body("hasNext", equalTo(true))
+                .extract()
+                .response();
+        assertEquals(List.of(sooner, later), first.jsonPath().getList("content.id", Long.class));
+
+        given()
+                .header("Authorization", bearer(user1Token))
+                .queryParam("cursor", first.jsonPath().getString("nextCursor"))
+                .queryParam("sort", "dueDate")
+                .queryParam("size", 2)
+                .when()
+                .get("/api/tasks")
+                .then()
+                .statusCode(200)
+                .body("content.id", equalTo(List.of(undated.intValue())))
+                .body("hasNext", equalTo(false));
+
+        // A due-date range only ever matches dated tasks
+        given()
+                .header("Authorization", bearer(user1Token))
+                .queryParam("cursor", "")
+                .queryParam("sort", "dueDate")
+                .queryParam("dueTo", LocalDate.now().plusDays(2).toString())
+                .when()
+                .get("/api/tasks")
+                .then()
+                .statusCode(200)
+                .body("content.id", equalTo(List.of(sooner.intValue())));
+    }
+
+    @Test
+    @DisplayName("Should filter cursor listing by status and priority")
+    void shouldFilterCursorListing() {
+        postTask(user1Token, """
+                { "title": "Todo high", "priority": "HIGH", "status": "TODO" }
+                """);
+        Long match = postTask(user1Token, """
+                { "title": "Done high", "priority": "HIGH", "status": "DONE" }
+                """);
+        postTask(user1Token, """
+                { "title": "Done low", "priority": "LOW", "status": "DONE" }
+                """);
+
+        given()
+                .header("Authorization", bearer(user1Token))
+                .queryParam("cursor", "")
+                .queryParam("status", "DONE")
+                .queryParam("priority", "HIGH")
+                .when()
+                .get("/api/tasks")
+                .then()
+                .statusCode(200)
+                .body("content.id", equalTo(List.of(match.intValue())))
+                .body("hasNext", equalTo(false));
+    }
+
+    @Test
+    @DisplayName("Should reject filter and sort combinations without a matching index")
+    void shouldRejectUnsupportedListingCombinations() {
+        given()
+                .header("Authorization", bearer(user1Token))
+                .queryParam("cursor", "")
+                .queryParam("dueFrom", LocalDate.now().toString())
+                .when()
+                .get("/api/tasks")
+                .then()
+                .statusCode(400)
+                .body("error", equalTo("Filtering by due date requires sort=dueDate"));
+
+        given()
+                .header("Authorization", bearer(user1Token))
+                .queryParam("cursor", "")
+                .queryParam("sort", "dueDate")
+                .queryParam("priority", "HIGH")
+                .when()
+                .get("/api/tasks")
+                .then()
+                .statusCode(400)
+                .body("error", equalTo("Filtering by priority is not supported with sort=dueDate"));
+
+        given()
+                .header("Authorization", bearer(user1Token))
+                .queryParam("cursor", "")
+                .queryParam("sort", "title")
+                .when()
+                .get("/api/tasks")
+                .then()
+                .statusCode(400)
+                .body("error", equalTo("Unsupported sort: title"));
+
+        given()
+                .header("Authorization", bearer(user1Token))
+                .queryParam("cursor", "")
+                .queryParam("status", "FINISHED")
+                .when()
+                .get("/api/tasks")
+                .then()
+                .statusCode(400)
+                .body("error", equalTo("Invalid value for parameter 'status'"));
+
+        // Offset pagination does not filter or sort
+        given()
+                .header("Authorization", bearer(user1Token))
+                .queryParam("status", "TODO")
+                .when()
+                .get("/api/tasks")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor issued for another sort")
+    void shouldRejectCursorFromOtherSort() {
+        for (int i = 0; i < 3; i++) {
+            postTask(user1Token, """
+                    { "title": "Task" }
+                    """);
+        }
+        String cursor = given()
+                .header("Authorization", bearer(user1Token))
+                .queryParam("cursor", "")
+                .queryParam("size", 1)
+                .when()
+                .get("/api/tasks")
+                .then()
+                .statusCode(200)
+                .extract()
+                .jsonPath()
+                .getString("nextCursor");
+
+        given()
+                .header("Authorization", bearer(user1Token))
+                .queryParam("cursor", cursor)
+                .queryParam("sort", "dueDate")
+                .when()
+                .get("/api/tasks")
+                .then()
+                .statusCode(400)
+                .body("error", equalTo("Invalid cursor"));
+    }
+
+    @Test
+    @DisplayName("Should answer 304 for an unchanged task list until a task changes")
+    void shouldRevalidateTaskListWithETag() {
+        Long taskId = postTask(user1Token, """
+                { "title": "Tagged" }
+                """);
+
+        String etag = given()
+                .header("Authorization", bearer(user1Token))
+                .when()
+                .get("/api/tasks")
+                .then()
+                .statusCode(200)
+                .header("ETag", startsWith("W/"))
+                .extract()
+                .header("ETag");
+
+        given()
+                .header("Authorization", bearer(user1Token))
+                .header("If-None-Match", etag)
+                .when()
+                .get("/api/tasks")
+                .then()
+                .statusCode(304)
+                .header("ETag", equalTo(etag));
+
+        // The tag covers the query, so it does not validate another page or page size
+        given()
+                .header("Authorization", bearer(user1Token))
+                .header("If-None-Match", etag)
+                .queryParam("size", 5)
+                .when()
+                .get("/api/tasks")
+                .then()
+                .statusCode(200)
+                .header("ETag", not(equalTo(etag)));
+        given()
+                .header("Authorization", bearer(user1Token))
+                .header("If-None-Match", etag)
+                .queryParam("cursor", "")
+                .when()
+                .get("/api/tasks")
+                .then()
+                .statusCode(200);
+
+        // Another user's writes do not affect this user's tag
+        postTask(user2Token, """
+                { "title": "Other user" }
+                """);
+        given()
+                .header("Authorization", bearer(user1Token))
+                .header("If-None-Match", etag)
+                .when()
+                .get("/api/tasks")
+                .then()
+                .statusCode(304);
+
+        given()
+                .header("Authorization", bearer(user1Token))
+                .pathParam("id", taskId)
+                .body("""
+                    { "status": "DONE" }
+                    """)
+                .when()
+                .patch("/api/tasks/{id}")
+                .then()
+                .statusCode(200);
+
+        given()
+                .header("Authorization", bearer(user1Token))
+                .header("If-None-Match", etag)
+                .when()
+                .get("/api/tasks")
+                .then()
+                .statusCode(200)
+                .header("ETag", not(equalTo(etag)))
+                .body("content[0].status", equalTo("DONE"));
+    }
+
+    @Test
+    @DisplayName("Should answer 304 for an unchanged single task")
+    void shouldRevalidateSingleTaskWithETag() {
+        Long taskId = postTask(user1Token, """
+                { "title": "Tagged" }
+                """);
+        Long otherId = postTask(user1Token, """
+                { "title": "Other" }
+                """);
+
+        String etag = given()
+                .header("Authorization", bearer(user1Token))
+                .pathParam("id", taskId)
+                .when()
+                .get("/api/tasks/{id}")
+                .then()
+                .statusCode(200)
+                .extract()
+                .header("ETag");
+
+        // Changing a different task leaves this task's tag alone
+        given()
+                .header("Authorization", bearer(user1Token))
+                .pathParam("id", otherId)
+                .body("""
+                    { "title": "Other changed" }
+                    """)
+                .when()
+                .patch("/api/tasks/{id}")
+                .then()
+                .statusCode(200);
+
+        given()
+                .header("Authorization", bearer(user1Token))
+                .header("If-None-Match", etag)
+                .pathParam("id", taskId)
+                .when()
+                .get("/api/tasks/{id}")
+                .then()
+                .statusCode(304);
+
+        given()
+                .header("Authorization", bearer(user1Token))
+                .pathParam("id", taskId)
+                .body("""
+                    { "title": "Tagged changed" }
+                    """)
+                .when()
+                .patch("/api/tasks/{id}")
+                .then()
+                .statusCode(200);
+
+        given()
+                .header("Authorization", bearer(user1Token))
+                .header("If-None-Match", etag)
+                .pathParam("id", taskId)
+                .when()
+                .get("/api/tasks/{id}")
+                .then()
+                .statusCode(200)
+                .body("title", equalTo("Tagged changed"));
+    }
+
+    @Test
+    @DisplayName("Should return only changes and deletions since the sync token")
+    void shouldSyncChangesSinceToken() {
+        Long kept = postTask(user1Token, """
+                { "title": "Kept" }
+                """);
+        Long edited = postTask(user1Token, """
+                { "title": "Edited" }
+                """);
+        Long removed = postTask(user1Token, """
+                { "title": "Removed" }
+                """);
+        postTask(user2Token, """
+                { "title": "Other user" }
+                """);
+
+        Response full = given()
+                .header("Authorization", bearer(user1Token))
+                .when()
+                .get("/api/tasks/changes")
+                .then()
+                .statusCode(200)
+                .body("hasMore", equalTo(false))
+                .body("deleted", empty())
+                .extract()
+                .response();
+        assertEquals(Set.of(kept, edited, removed), new HashSet<>(full.jsonPath().getList("changed.id", Long.class)));
+
+        given()
+                .header("Authorization", bearer(user1Token))
+                .pathParam("id", edited)
+                .body("""
+                    { "status": "DONE" }
+                    """)
+                .when()
+                .patch("/api/tasks/{id}")
+                .then()
+                .statusCode(200);
+        given()
+                .header("Authorization", bearer(user1Token))
+                .pathParam("id", removed)
+                .when()
+                .delete("/api/tasks/{id}")
+                .then()
+                .statusCode(200);
+
+        Response delta = given()
+                .header("Authorization", bearer(user1Token))
+                .queryParam("since", full.jsonPath().getString("syncToken"))
+                .when()
+                .get("/api/tasks/changes")
+                .then()
+                .statusCode(200)
+                .extract()
+                .response();
+
+        // Changes inside the overlap window may be repeated, but the edit must be there
+        // with its new state and the deleted task must not come back as changed.
+        List<Long> changedIds = delta.jsonPath().getList("changed.id", Long.class);
+        assertTrue(changedIds.contains(edited));
+        assertFalse(changedIds.contains(removed));
+        assertEquals("DONE", delta.jsonPath().getString("changed.find { it.id == " + edited + " }.status"));
+        assertEquals(List.of(removed), delta.jsonPath().getList("deleted", Long.class));
+
+        // The other user sees neither the tasks nor the deletion
+        given()
+                .header("Authorization", bearer(user2Token))
+                .queryParam("since", full.jsonPath().getString("syncToken"))
+                .when()
+                .get("/api/tasks/changes")
+                .then()
+                .statusCode(200)
+                .body("changed.title", not(hasItem("Edited")))
+                .body("deleted", empty());
+    }
+
+    @Test
+    @DisplayName("Should page through a full sync")
+    void shouldPageThroughFullSync() {
+        for (int i = 0; i < 3; i++) {
+            postTask(user1Token, """
+                    { "title": "Synced" }
+                    """);
+        }
+
+        Set<Long> seen = new HashSet<>();
+        String since = null;
+        boolean hasMore = true;
+        int calls = 0;
+        while (hasMore) {
+            var request = given()
+                    .header("Authorization", bearer(user1Token))
+                    .queryParam("size", 2);
+            if (since != null) {
+                request.queryParam("since", since);
+            }
+            Response page = request
+                    .when()
+                    .get("/api/tasks/changes")
+                    .then()
+                    .statusCode(200)
+                    .extract()
+                    .response();
+            seen.addAll(page.jsonPath().getList("changed.id", Long.class));
+            since = page.jsonPath().getString("syncToken");
+            hasMore = page.jsonPath().getBoolean("hasMore");
+            calls++;
+        }
+
+        assertEquals(2, calls);
+        assertEquals(3, seen.size());
+    }
+
+    @Test
+    @DisplayName("Should answer 410 for an expired sync token and 400 for a malformed one")
+    void shouldRejectExpiredOrMalformedSyncToken() {
+        String expired = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                "2000-01-01T00:00|0|2000-01-01T00:00|0".getBytes(StandardCharsets.UTF_8));
+
+        given()
+                .header("Authorization", bearer(user1Token))
+                .queryParam("since", expired)
+                .when()
+                .get("/api/tasks/changes")
+                .then()
+                .statusCode(410);
+
+        given()
+                .header("Authorization", bearer(user1Token))
+                .queryParam("since", "garbage")
+                .when()
+                .get("/api/tasks/changes")
+                .then()
+                .statusCode(400)
+                .body("error", equalTo("Invalid sync token"));
+    }
+
+    @Test
+    @DisplayName("Should export own tasks as NDJSON, newest first")
+    void shouldExportTasksAsNdjson() {
+        Long older = postTask(user1Token, """
+                { "title": "Older" }
+                """);
+        Long newer = postTask(user1Token, """
+                { "title": "Newer", "priority": "HIGH" }
+                """);
+        postTask(user2Token, """
+                { "title": "Not mine" }
+                """);
+
+        Response response = given()
+                .header("Authorization", bearer(user1Token))
+                .when()
+                .get("/api/tasks/export")
+                .then()
+                .statusCode(200)
+                .contentType(containsString("application/x-ndjson"))
+                .header("Content-Disposition", containsString("tasks.ndjson"))
+                .extract()
+                .response();
+
+        List<String> lines = response.asString().lines().toList();
+        assertEquals(2, lines.size());
+        JsonPath first = JsonPath.from(lines.get(0));
+        assertEquals(newer, first.getLong("id"));
+        assertEquals("HIGH", first.getString("priority"));
+        assertEquals(older, JsonPath.from(lines.get(1)).getLong("id"));
+    }
+
+    @Test
+    @DisplayName("Should export tasks as CSV with quoted fields")
+    void shouldExportTasksAsCsv() {
+        Long id = postTask(user1Token, """
+                { "title": "Buy milk, eggs", "description": "Say \\"hi\\"\\nto the baker" }
+                """);
+
+        String csv = given()
+                .header("Authorization", bearer(user1Token))
+                .queryParam("format", "csv")
+                .when()
+                .get("/api/tasks/export")
+                .then()
+                .statusCode(200)
+                .contentType(containsString("text/csv"))
+                .extract()
+                .asString();
+
+        assertTrue(csv.startsWith("id,title,description,priority,status,dueDate,userId,createdAt,updatedAt\r\n"));
+        assertTrue(csv.contains(id + ",\"Buy milk, eggs\",\"Say \"\"hi\"\"\nto the baker\",MEDIUM,TODO,,"));
+    }
+
+    @Test
+    @DisplayName("Should reject an unsupported export format")
+    void shouldRejectUnsupportedExportFormat() {
+        given()
+                .header("Authorization", bearer(user1Token))
+                .queryParam("format", "xml")
+                .when()
+                .get("/api/tasks/export")
+                .then()
+                .statusCode(400)
+                .body("error", equalTo("Unsupported format: xml"));
+    }
+
+    @Test
+    @DisplayName("Should import NDJSON lines and report invalid ones")
+    void shouldImportNdjson() {
+        given()
+                .header("Authorization", bearer(user1Token))
+                .contentType("application/x-ndjson")
+                .body("""
+                    {"title":"Imported one","priority":"HIGH"}
+                    {"description":"missing title"}
+                    {"title":"Imported two","dueDate":"2024-12-31"}
+                    """.getBytes(StandardCharsets.UTF_8))
+                .when()
+                .post("/api/tasks/import")
+                .then()
+                .statusCode(200)
+                .body("imported", equalTo(2))
+                .body("failed", equalTo(1))
+                .body("errors[0].line", equalTo(2))
+                .body("errors[0].errors.title", equalTo("Title is required"));
+
+        given()
+                .header("Authorization", bearer(user1Token))
+                .when()
+                .get("/api/tasks")
+                .then()
+                .statusCode(200)
+                .body("content.title", hasItems("Imported one", "Imported two"));
+    }
+
+    @Test
+    @DisplayName("Should import a CSV export back")
+    void shouldImportCsvExport() {
+        postTask(user1Token, """
+                { "title": "Round, trip", "priority": "LOW", "dueDate": "2030-01-15" }
+                """);
+        String csv = given()
+                .header("Authorization", bearer(user1Token))
+                .queryParam("format", "csv")
+                .when()
+                .get("/api/tasks/export")
+                .then()
+                .statusCode(200)
+                .extract()
+                .asString();
+
+        given()
+                .header("Authorization", bearer(user2Token))
+                .contentType("text/csv")
+                .body(csv)
+                .when()
+                .post("/api/tasks/import")
+                .then()
+                .statusCode(200)
+                .body("imported", equalTo(1))
+                .body("failed", equalTo(0));
+
+        given()
+                .header("Authorization", bearer(user2Token))
+                .when()
+                .get("/api/tasks")
+                .then()
+                .statusCode(200)
+                .body("content[0].title", equalTo("Round, trip"))
+                .body("content[0].priority", equalTo("LOW"))
+                .body("content[0].dueDate", equalTo("2030-01-15"));
+    }
+
+    @Test
+    @DisplayName("Should keep stats in step with creates, updates, bulk updates and deletes")
+    void shouldReportTaskStats() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        Long a = createTask(user1Token, "A", "TODO", yesterday);
+        Long b = createTask(user1Token, "B", "IN_PROGRESS", yesterday);
+        Long c = createTask(user1Token, "C", "DONE", yesterday);
+        Long d = postTask(user1Token, """
+                { "title": "D", "priority": "HIGH" }
+                """);
+        postTask(user2Token, """
+                { "title": "Other user" }
+                """);
+
+        patchTask(user1Token, b, "{ \"status\": \"DONE\" }");
+        patchTask(user1Token, d, "{ \"dueDate\": \"" + yesterday + "\" }");
+        given()
+                .header("Authorization", bearer(user1Token))
+                .pathParam("id", c)
+                .when()
+                .delete("/api/tasks/{id}")
+                .then()
+                .statusCode(200);
+        given()
+                .header("Authorization", bearer(user1Token))
+                .body("{ \"filter\": { \"ids\": [" + a + "] }, \"priority\": \"HIGH\" }")
+                .when()
+                .patch("/api/tasks/bulk")
+                .then()
+                .statusCode(200)
+                .body("updated", equalTo(1));
+
+        given()
+                .header("Authorization", bearer(user1Token))
+                .when()
+                .get("/api/tasks/stats")
+                .then()
+                .statusCode(200)
+                .body("total", equalTo(3))
+                .body("byStatus.TODO", equalTo(2))
+                .body("byStatus.IN_PROGRESS", equalTo(0))
+                .body("byStatus.DONE", equalTo(1))
+                .body("byPriority.LOW", equalTo(1))
+                .body("byPriority.MEDIUM", equalTo(0))
+                .body("byPriority.HIGH", equalTo(2))
+                .body("overdue", equalTo(2));
+
+        given()
+                .header("Authorization", bearer(user2Token))
+                .when()
+                .get("/api/tasks/stats")
+                .then()
+                .statusCode(200)
+                .body("total", equalTo(1))
+                .body("overdue", equalTo(0));
+    }
+
+    @Test
+    @DisplayName("Consistency check should report counters that drifted from the tasks table")
+    void shouldReportCounterDrift() {
+        Long id = createTask(user1Token, "Checked", "TODO", LocalDate.now().plusDays(3));
+        postTask(user2Token, """
+                { "title": "Other user" }
+                """);
+        Long userId = given()
+                .header("Authorization", bearer(user1Token))
+                .pathParam("id", id)
+                .when()
+                .get("/api/tasks/{id}")
+                .then()
+                .statusCode(200)
+                .extract()
+                .jsonPath()
+                .getLong("userId");
+
+        assertTrue(taskStatsService.checkConsistency().isEmpty());
+
+        jdbcTemplate.update("UPDATE task_open_due_counts SET open_count = open_count + 1 WHERE user_id = ?", userId);
+
+        assertEquals(List.of(userId), taskStatsService.checkConsistency());
+    }
+
+    @Test
+    @Timeout(value = 30, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+    @DisplayName("Event stream should deliver the user's own changes and resume after Last-Event-ID")
+    void shouldStreamTaskEvents() throws Exception {
+        String createdId;
+        Long id;
+        try (EventStream other = openEvents(user2Token, null);
+             EventStream events = openEvents(user1Token, null)) {
+            postTask(user2Token, """
+                    { "title": "Not mine" }
+                    """);
+            id = postTask(user1Token, """
+                    { "title": "Mine" }
+                    """);
+
+            SseEvent created = events.next();
+            assertEquals("created", created.name());
+            JsonPath data = JsonPath.from(created.data());
+            assertEquals(id, data.getLong("taskId"));
+            assertEquals("Mine", data.getString("task.title"));
+            createdId = created.id();
+        }
+
+        // Missed while disconnected, replayed on reconnect
+        given()
+                .header("Authorization", bearer(user1Token))
+                .pathParam("id", id)
+                .when()
+                .delete("/api/tasks/{id}")
+                .then()
+                .statusCode(200);
+
+        try (EventStream events = openEvents(user1Token, createdId)) {
+            SseEvent deleted = events.next();
+            assertEquals("deleted", deleted.name());
+            assertEquals(id, JsonPath.from(deleted.data()).getLong("taskId"));
+        }
+    }
+
+    @Test
+    @Timeout(value = 30, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+    @DisplayName("Event stream should ask for a resync when Last-Event-ID is unknown")
+    void shouldResetEventStreamForUnknownLastEventId() throws Exception {
+        try (EventStream events = openEvents(user1Token, "0-1")) {
+            SseEvent reset = events.next();
+            assertEquals("reset", reset.name());
+            assertNull(reset.id());
+        }
+    }
+
+    /**
+     * Opens the event stream and returns its lines once the subscription is registered,
+     * which the server signals with a {@code :connected} comment.
+     */
+    private EventStream openEvents(String token, String lastEventId) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/tasks/events"))
+                .header("Authorization", bearer(token))
+                .header("Accept", "text/event-stream");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        HttpResponse<Stream<String>> response = HttpClient.newHttpClient()
+                .send(request.build(), HttpResponse.BodyHandlers.ofLines());
+        assertEquals(200, response.statusCode());
+        EventStream events = new EventStream(response.body());
+        assertEquals(":connected", events.lines.next());
+        return events;
+    }
+
+    private record SseEvent(String id, String name, String data) {
+    }
+
+    private static final class EventStream implements AutoCloseable {
+
+        private final Stream<String> body;
+        private final Iterator<String> lines;
+
+        EventStream(Stream<String> body) {
+            this.body = body;
+            this.lines = body.iterator();
+        }
+
+        /**
+         * Reads up to the next event, skipping comments such as heartbeats.
+         */
+        SseEvent next() {
+            String id = null;
+            String name = null;
+            StringBuilder data = new StringBuilder();
+            while (lines.hasNext()) {
+                String line = lines.next();
+                if (line.isEmpty()) {
+                    if (name != null) {
+                        return new SseEvent(id, name, data.toString());
+                    }
+                } else if (line.startsWith("id:")) {
+                    id = line.substring(3);
+                } else if (line.startsWith("event:")) {
+                    name = line.substring(6);
+                } else if (line.startsWith("data:")) {
+                    data.append(line.substring(5));
+                }
+            }
+            throw new AssertionError("Event stream ended");
+        }
+
+        @Override
+        public void close() {
+            body.close();
+        }
+    }
+
+    private Long postTask(String token, String body) {
+        return given()
+                .header("Authorization", bearer(token))
+                .body(body)
+                .when()
+                .post("/api/tasks")
+                .then()
+                .statusCode(201)
+                .extract()
+                .jsonPath()
+                .getLong("id");
+    }
+
+    private Long createTask(String token, String title, String status, LocalDate dueDate) {
+        return given()
+                .header("Authorization", bearer(token))
+                .body(String.format("""
+                    {
+                        "title": "%s",
+                        "priority": "LOW",
+                        "status": "%s",
+                        "dueDate": "%s"
+                    }
+                    """, title, status, dueDate))
+                .when()
+                .post("/api/tasks")
+                .then()
+                .statusCode(201)
+                .extract()
+                .jsonPath()
+                .getLong("id");
+    }
+
+    private void patchTask(String token, Long id, String body) {
+        given()
+                .header("Authorization", bearer(token))
+                .pathParam("id", id)
+                .body(body)
+                .when()
+                .patch("/api/tasks/{id}")
+                .then()
+                .statusCode(200);
+    }
+
+    private void assertTask(String token, Long id, String status, String priority) {
+        given()
+                .header("Authorization", bearer(token))
+                .pathParam("id", id)
+                .when()
+                .get("/api/tasks/{id}")
+                .then()
+                .statusCode(200)
+                .body("status", equalTo(status))
+                .body("priority", equalTo(priority));
+    }
 }
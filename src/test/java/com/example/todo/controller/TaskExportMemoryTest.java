@@ -0,0 +1,92 @@
+package com.example.todo.controller;
+
+import com.example.todo.util.RestAssuredTestBase;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exports a million tasks from a JVM whose heap could not hold them as a list.
+ * <p>
+ * Tagged {@code memory}: it runs in its own Surefire execution with a small {@code -Xmx}
+ * (see {@code pom.xml}), against a file-backed H2 database so the table itself is not on the heap.
+ */
+@Tag("memory")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class TaskExportMemoryTest extends RestAssuredTestBase {
+
+    private static final int TASKS = 1_000_000;
+    private static final int INSERT_CHUNK = 100_000;
+    private static final long MAX_HEAP = 256L * 1024 * 1024;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void fileDatabase(DynamicPropertyRegistry registry) throws IOException {
+        Path dir = Files.createTempDirectory("task-export");
+        registry.add("spring.datasource.url", () -> "jdbc:h2:file:" + dir.resolve("tasks") + ";CACHE_SIZE=8192");
+    }
+
+    @Test
+    @DisplayName("Should stream a million tasks under a small heap")
+    void shouldExportMillionTasksWithConstantMemory() throws Exception {
+        assertThat(Runtime.getRuntime().maxMemory())
+                .as("run with -Xmx256m or less, e.g. via the memory-tests Surefire execution")
+                .isLessThanOrEqualTo(MAX_HEAP);
+
+        String token = registerAndLogin("exporter", "password123", "exporter@example.com");
+        Long userId = jdbcTemplate.queryForObject(
+                "SELECT id FROM users WHERE username LIKE 'exporter_%'", Long.class);
+        for (int from = 1; from <= TASKS; from += INSERT_CHUNK) {
+            jdbcTemplate.update("""
+                    INSERT INTO tasks (title, priority, status, user_id, created_at, updated_at)
+                    SELECT 'Exported task ' || X, 'MEDIUM', 'TODO', ?, LOCALTIMESTAMP, LOCALTIMESTAMP
+                    FROM SYSTEM_RANGE(?, ?)
+                    """, userId, from, from + INSERT_CHUNK - 1);
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/tasks/export"))
+                .header("Authorization", bearer(token))
+                .build();
+        HttpResponse<InputStream> response = HttpClient.newHttpClient()
+                .send(request, HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(response.statusCode()).isEqualTo(200);
+
+        // Read line by line so the client holds no more of the export than the server does.
+        long lines = 0;
+        String first = null;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (first == null) {
+                    first = line;
+                }
+                lines++;
+            }
+        }
+
+        assertThat(lines).isEqualTo(TASKS);
+        assertThat(first).startsWith("{\"id\":").contains("\"title\":\"Exported task ");
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.todo.controller;
+
+import com.example.todo.util.AllowRepeatedStatements;
+import com.example.todo.util.RestAssuredTestBase;
+import io.restassured.path.json.JsonPath;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Imports an upload several times larger than the heap it is received by.
+ * <p>
+ * Tagged {@code memory}: it runs in its own Surefire execution with a small {@code -Xmx}
+ * (see {@code pom.xml}), against a file-backed H2 database so the table itself is not on the heap.
+ * The upload is inserted chunk by chunk with the same batched statement.
+ */
+@Tag("memory")
+@AllowRepeatedStatements
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class TaskImportMemoryTest extends RestAssuredTestBase {
+
+    private static final int TASKS = 300_000;
+    private static final long MAX_HEAP = 256L * 1024 * 1024;
+    private static final String DESCRIPTION = "d".repeat(900);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void fileDatabase(DynamicPropertyRegistry registry) throws IOException {
+        Path dir = Files.createTempDirectory("task-import");
+        registry.add("spring.datasource.url", () -> "jdbc:h2:file:" + dir.resolve("tasks") + ";CACHE_SIZE=8192");
+    }
+
+    @Test
+    @DisplayName("Should import ~280 MB of NDJSON under a small heap")
+    void shouldImportLargeUploadWithConstantMemory() throws Exception {
+        assertThat(Runtime.getRuntime().maxMemory())
+                .as("run with -Xmx256m or less, e.g. via the memory-tests Surefire execution")
+                .isLessThanOrEqualTo(MAX_HEAP);
+
+        String token = registerAndLogin("importer", "password123", "importer@example.com");
+
+        // The body is generated while it is sent, so the client holds no more of it than the server.
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/tasks/import"))
+                .header("Authorization", bearer(token))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofInputStream(GeneratedUpload::new))
+                .build();
+        HttpResponse<String> response = HttpClient.newHttpClient()
+                .send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        JsonPath result = JsonPath.from(response.body());
+        assertThat(result.getInt("imported")).isEqualTo(TASKS);
+        assertThat(result.getInt("failed")).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks", Long.class)).isEqualTo(TASKS);
+    }
+
+    /**
+     * {@code TASKS} NDJSON lines, each produced when the previous one has been read.
+     */
+    private static final class GeneratedUpload extends InputStream {
+
+        private int next;
+        private byte[] line = new byte[0];
+        private int position;
+
+        @Override
+        public int read() {
+            if (position == line.length) {
+                if (next == TASKS) {
+                    return -1;
+                }
+                next++;
+                line = ("{\"title\":\"Imported task " + next + "\",\"description\":\"" + DESCRIPTION + "\"}\n")
+                        .getBytes(StandardCharsets.UTF_8);
+                position = 0;
+            }
+            return line[position++];
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            int count = 0;
+            while (count < length) {
+                int b = read();
+                if (b == -1) {
+                    return count == 0 ? -1 : count;
+                }
+                buffer[offset + count++] = (byte) b;
+            }
+            return count;
+        }
+    }
+}
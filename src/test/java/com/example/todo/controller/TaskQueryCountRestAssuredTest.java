@@ -0,0 +1,150 @@
+package com.example.todo.controller;
+
+import com.example.todo.util.RestAssuredTestBase;
+import com.example.todo.util.SqlRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Counts the SQL statements each task endpoint executes.
+ * The authenticated principal already carries the user id, so none of them may touch the users table.
+ */
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class TaskQueryCountRestAssuredTest extends RestAssuredTestBase {
+
+    private static final Pattern USERS_TABLE = Pattern.compile("\\busers\\b", Pattern.CASE_INSENSITIVE);
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        token = registerAndLogin("querycount", "password123", "querycount@example.com");
+    }
+
+    @Test
+    @DisplayName("Task endpoints should run within their statement budget without querying users")
+    void taskEndpointsShouldNotQueryUsers() {
+        Long taskId = withinBudget(3, () -> given()
+                .header("Authorization", bearer(token))
+                .body("""
+                    {
+                        "title": "Counted Task",
+                        "priority": "HIGH",
+                        "status": "TODO"
+                    }
+                    """)
+                .when()
+                .post("/api/tasks")
+                .then()
+                .statusCode(201)
+                .extract()
+                .jsonPath()
+                .getLong("id"));
+
+        // Ten rows go out as one JDBC batch: at most a sequence call plus one INSERT,
+        // then one counter update.
+        withinBudget(3, () -> given()
+                .header("Authorization", bearer(token))
+                .body(IntStream.range(0, 10)
+                        .mapToObj(i -> Map.of("title", "Batch Task " + i))
+                        .toList())
+                .when()
+                .post("/api/tasks/batch")
+                .then()
+                .statusCode(200)
+                .body("created", equalTo(10)));
+
+        withinBudget(1, () -> given()
+                .header("Authorization", bearer(token))
+                .pathParam("id", taskId)
+                .when()
+                .get("/api/tasks/{id}")
+                .then()
+                .statusCode(200));
+
+        String listETag = withinBudget(2, () -> given()
+                .header("Authorization", bearer(token))
+                .when()
+                .get("/api/tasks")
+                .then()
+                .statusCode(200)
+                .extract()
+                .header("ETag"));
+
+        // A matching entity tag on GET /api/tasks is answered from the user's version alone
+        withinBudget(0, () -> given()
+                .header("Authorization", bearer(token))
+                .header("If-None-Match", listETag)
+                .when()
+                .get("/api/tasks")
+                .then()
+                .statusCode(304));
+
+        // The UPDATE returns the old status for the counter update, then the task is read back.
+        withinBudget(3, () -> given()
+                .header("Authorization", bearer(token))
+                .pathParam("id", taskId)
+                .body("""
+                    {
+                        "status": "DONE"
+                    }
+                    """)
+                .when()
+                .patch("/api/tasks/{id}")
+                .then()
+                .statusCode(200));
+
+        // One UPDATE returning the old values per group, then one counter update.
+        withinBudget(2, () -> given()
+                .header("Authorization", bearer(token))
+                .body("""
+                    {
+                        "filter": { "status": "TODO" },
+                        "status": "IN_PROGRESS"
+                    }
+                    """)
+                .when()
+                .patch("/api/tasks/bulk")
+                .then()
+                .statusCode(200)
+                .body("updated", equalTo(10)));
+
+        withinBudget(2, () -> given()
+                .header("Authorization", bearer(token))
+                .when()
+                .get("/api/tasks/stats")
+                .then()
+                .statusCode(200)
+                .body("total", equalTo(11)));
+
+        // The DELETE returns what the counters drop, then a counter update and the tombstone.
+        withinBudget(3, () -> given()
+                .header("Authorization", bearer(token))
+                .pathParam("id", taskId)
+                .when()
+                .delete("/api/tasks/{id}")
+                .then()
+                .statusCode(200));
+    }
+
+    private <T> T withinBudget(int maxStatements, Supplier<T> call) {
+        T result = withinStatementBudget(maxStatements, call);
+        SqlRecorder.Request request = SqlRecorder.lastRequest();
+
+        assertThat(request.statements())
+                .as("%s must not query the users table", request)
+                .noneMatch(sql -> USERS_TABLE.matcher(sql).find());
+        return result;
+    }
+}
@@ -0,0 +1,406 @@
+package com.example.todo.load;
+
+import com.example.todo.dto.task.TaskCreateRequest;
+import com.example.todo.dto.user.UserRegisterRequest;
+import com.example.todo.util.TestDataBuilder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Open-model HTTP load against a running instance of the task API: requests start at a fixed
+ * arrival rate whether or not earlier ones have completed, and each latency is measured from
+ * the moment its request was due. A server that stalls therefore shows in the percentiles of
+ * every request that should have started meanwhile, instead of in a lower request count as
+ * with closed-loop clients such as {@link LoadDriver} (coordinated omission).
+ * <p>
+ * Settings come from system properties: {@code load.rate} (requests per second, 200),
+ * {@code load.users} (50), {@code load.tasks-per-user} (20), {@code load.warmup-seconds} (10),
+ * {@code load.seconds} (60), {@code load.max-in-flight} (2000) and {@code load.mix}, the weight
+ * of each operation ({@code login:5,list:30,get:30,create:15,patch:15,delete:5}).
+ */
+public final class ArrivalRateLoad {
+
+    private static final String PASSWORD = TestDataBuilder.defaultRegisterRequest().build().getPassword();
+    private static final long HIGHEST_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(2);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    public enum Operation {
+        LOGIN, LIST, GET, CREATE, PATCH, DELETE;
+
+        String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public record Settings(double rate, int users, int tasksPerUser, Duration warmup, Duration measure,
+                           int maxInFlight, Map<Operation, Integer> mix) {
+
+        public static Settings fromSystemProperties() {
+            return new Settings(
+                    Double.parseDouble(System.getProperty("load.rate", "200")),
+                    Integer.getInteger("load.users", 50),
+                    Integer.getInteger("load.tasks-per-user", 20),
+                    Duration.ofSeconds(Long.getLong("load.warmup-seconds", 10)),
+                    Duration.ofSeconds(Long.getLong("load.seconds", 60)),
+                    Integer.getInteger("load.max-in-flight", 2000),
+                    parseMix(System.getProperty("load.mix", "login:5,list:30,get:30,create:15,patch:15,delete:5")));
+        }
+
+        static Map<Operation, Integer> parseMix(String mix) {
+            Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+            for (String entry : mix.split(",")) {
+                String[] parts = entry.trim().split(":");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Invalid load.mix entry '" + entry + "', expected operation:weight");
+                }
+                weights.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(parts[1].trim()));
+            }
+            if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+                throw new IllegalArgumentException("load.mix has no positive weight");
+            }
+            return weights;
+        }
+    }
+
+    private final String baseUrl;
+    private final Settings settings;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+    private final List<Account> accounts = new ArrayList<>();
+
+    public ArrivalRateLoad(String baseUrl, Settings settings) {
+        this.baseUrl = baseUrl;
+        this.settings = settings;
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new Stats());
+        }
+    }
+
+    /**
+     * Registers the users and creates their tasks through the API.
+     */
+    public void seed() throws IOException, InterruptedException {
+        for (int i = 0; i < settings.users(); i++) {
+            String username = "open" + i;
+            UserRegisterRequest register = TestDataBuilder.defaultRegisterRequest()
+                    .username(username)
+                    .email(username + "@example.com")
+                    .build();
+            expect(200, send(post("/api/auth/register", null, register)), "register " + username);
+            Account account = new Account(username, login(username));
+
+            List<TaskCreateRequest> tasks = IntStream.range(0, settings.tasksPerUser())
+                    .mapToObj(n -> TestDataBuilder.defaultTaskCreateRequest().title("Seeded " + n).build())
+                    .toList();
+            HttpResponse<String> created = expect(200,
+                    send(post("/api/tasks/batch", account.token, tasks)), "seed tasks of " + username);
+            for (JsonNode result : objectMapper.readTree(created.body()).get("results")) {
+                account.seededTaskIds.add(result.get("task").get("id").asLong());
+            }
+            accounts.add(account);
+        }
+    }
+
+    /**
+     * Sends requests at the configured rate for the warmup and the measured period, then
+     * waits for those in flight. Only requests due after the warmup are recorded.
+     */
+    public Report run() throws InterruptedException {
+        if (accounts.isEmpty()) {
+            throw new IllegalStateException("Nothing seeded");
+        }
+        Semaphore inFlight = new Semaphore(settings.maxInFlight());
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / settings.rate());
+        long start = System.nanoTime();
+        long measureFrom = start + settings.warmup().toNanos();
+        long end = measureFrom + settings.measure().toNanos();
+
+        for (long n = 0; ; n++) {
+            long due = start + n * intervalNanos;
+            if (due >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = due - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean measured = due >= measureFrom;
+            Operation operation = pick();
+            Stats operationStats = stats.get(operation);
+            // Past this many outstanding requests the server is hopelessly behind; dropping
+            // keeps the generator on schedule, and the drops are reported.
+            if (!inFlight.tryAcquire()) {
+                if (measured) {
+                    operationStats.dropped.increment();
+                }
+                continue;
+            }
+            Account account = accounts.get(ThreadLocalRandom.current().nextInt(accounts.size()));
+            Call call = call(operation, account);
+            httpClient.sendAsync(call.request(), HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, failure) -> {
+                        long latency = System.nanoTime() - due;
+                        inFlight.release();
+                        boolean ok = failure == null && response.statusCode() == call.expectedStatus();
+                        if (ok && call.onSuccess() != null) {
+                            call.onSuccess().accept(response);
+                        }
+                        if (measured) {
+                            operationStats.record(latency, ok);
+                        }
+                    });
+        }
+        if (!inFlight.tryAcquire(settings.maxInFlight(), 2, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Requests still in flight two minutes after the run");
+        }
+        return report();
+    }
+
+    private Operation pick() {
+        int total = settings.mix().values().stream().mapToInt(Integer::intValue).sum();
+        int dice = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<Operation, Integer> weighted : settings.mix().entrySet()) {
+            dice -= weighted.getValue();
+            if (dice < 0) {
+                return weighted.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty operation mix");
+    }
+
+    /**
+     * The request for an operation by one user. Reads and updates go to the seeded tasks and
+     * deletes only to tasks created by the run, so no request races with the deletion of its task.
+     */
+    private Call call(Operation operation, Account account) {
+        return switch (operation) {
+            case LOGIN -> new Call(post("/api/auth/login", null, TestDataBuilder.defaultLoginRequest()
+                    .username(account.username)
+                    .password(PASSWORD)
+                    .build()), 200, null);
+            case LIST -> new Call(get("/api/tasks?page=0&size=20", account.token), 200, null);
+            case GET -> new Call(get("/api/tasks/" + account.anySeededTask(), account.token), 200, null);
+            case CREATE -> new Call(post("/api/tasks", account.token,
+                    TestDataBuilder.defaultTaskCreateRequest().title("Load").build()), 201, response -> {
+                try {
+                    account.createdTaskIds.add(objectMapper.readTree(response.body()).get("id").asLong());
+                } catch (IOException e) {
+                    throw new IllegalStateException("Unexpected task response", e);
+                }
+            });
+            case PATCH -> new Call(request("/api/tasks/" + account.anySeededTask(), account.token)
+                    .header("Content-Type", "application/json")
+                    .method("PATCH", json(TestDataBuilder.defaultTaskUpdateRequest().build()))
+                    .build(), 200, null);
+            case DELETE -> {
+                Long taskId = account.createdTaskIds.poll();
+                // Nothing created yet to delete: a delete of a missing task is what clients get then.
+                yield taskId != null
+                        ? new Call(request("/api/tasks/" + taskId, account.token).DELETE().build(), 200, null)
+                        : new Call(request("/api/tasks/0", account.token).DELETE().build(), 404, null);
+            }
+        };
+    }
+
+    private String login(String username) throws IOException, InterruptedException {
+        HttpResponse<String> response = expect(200, send(post("/api/auth/login", null,
+                TestDataBuilder.defaultLoginRequest().username(username).password(PASSWORD).build())), "login " + username);
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpResponse<String> expect(int status, HttpResponse<String> response, String what) {
+        if (response.statusCode() != status) {
+            throw new IllegalStateException("Could not " + what + ": " + response.statusCode() + " " + response.body());
+        }
+        return response;
+    }
+
+    private HttpRequest get(String path, String token) {
+        return request(path, token).GET().build();
+    }
+
+    private HttpRequest post(String path, String token, Object body) {
+        return request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(json(body))
+                .build();
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not serialize " + body, e);
+        }
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return request;
+    }
+
+    private Report report() {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        long requests = 0;
+        long errors = 0;
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            Stats operationStats = entry.getValue();
+            if (!settings.mix().containsKey(entry.getKey())) {
+                continue;
+            }
+            endpoints.put(entry.getKey().key(), operationStats.toMap(settings.measure()));
+            requests += operationStats.histogram.getTotalCount();
+            errors += operationStats.errors.sum();
+        }
+        Map<String, Object> settingsMap = new LinkedHashMap<>();
+        settingsMap.put("rate", settings.rate());
+        settingsMap.put("users", settings.users());
+        settingsMap.put("tasksPerUser", settings.tasksPerUser());
+        settingsMap.put("warmupSeconds", settings.warmup().toSeconds());
+        settingsMap.put("measuredSeconds", settings.measure().toSeconds());
+        settingsMap.put("maxInFlight", settings.maxInFlight());
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        settings.mix().forEach((operation, weight) -> mix.put(operation.key(), weight));
+        settingsMap.put("mix", mix);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("settings", settingsMap);
+        report.put("requests", requests);
+        report.put("errors", errors);
+        report.put("endpoints", endpoints);
+        return new Report(report);
+    }
+
+    private record Call(HttpRequest request, int expectedStatus, Consumer<HttpResponse<String>> onSuccess) {
+    }
+
+    private static final class Account {
+
+        private final String username;
+        private final String token;
+        private final List<Long> seededTaskIds = new ArrayList<>();
+        private final Queue<Long> createdTaskIds = new ConcurrentLinkedQueue<>();
+
+        private Account(String username, String token) {
+            this.username = username;
+            this.token = token;
+        }
+
+        long anySeededTask() {
+            return seededTaskIds.get(ThreadLocalRandom.current().nextInt(seededTaskIds.size()));
+        }
+    }
+
+    /**
+     * Latencies and outcomes of one operation, recorded from the HTTP client's threads.
+     */
+    private static final class Stats {
+
+        private final Histogram histogram = new ConcurrentHistogram(HIGHEST_LATENCY_NANOS, 3);
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+
+        void record(long latencyNanos, boolean ok) {
+            histogram.recordValue(Math.min(latencyNanos, HIGHEST_LATENCY_NANOS));
+            if (!ok) {
+                errors.increment();
+            }
+        }
+
+        Map<String, Object> toMap(Duration measured) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("requests", histogram.getTotalCount());
+            map.put("errors", errors.sum());
+            map.put("dropped", dropped.sum());
+            map.put("throughput", histogram.getTotalCount() / (double) measured.toSeconds());
+            Map<String, Double> percentiles = new LinkedHashMap<>();
+            for (double percentile : PERCENTILES) {
+                percentiles.put("p" + formatPercentile(percentile), histogram.getValueAtPercentile(percentile) / 1e6);
+            }
+            percentiles.put("max", histogram.getMaxValue() / 1e6);
+            map.put("latencyMs", percentiles);
+            map.put("histogram", encode(histogram));
+            return map;
+        }
+
+        private static String formatPercentile(double percentile) {
+            return percentile == Math.rint(percentile) ? Long.toString((long) percentile) : Double.toString(percentile);
+        }
+
+        /**
+         * The full histogram in HdrHistogram's compressed form, Base64 encoded, so reports can
+         * be merged or re-analyzed later ({@code Histogram.decodeFromCompressedByteBuffer}).
+         */
+        private static String encode(Histogram histogram) {
+            ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+            int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+            return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+        }
+    }
+
+    /**
+     * The run as nested maps, ready to be written as JSON.
+     */
+    public record Report(Map<String, Object> content) {
+
+        @SuppressWarnings("unchecked")
+        public String table() {
+            StringBuilder table = new StringBuilder(String.format("""
+                    %s
+                    | endpoint | requests | errors | dropped | req/s    | p50 ms  | p99 ms  | p99.9 ms | max ms  |
+                    |----------|----------|--------|---------|----------|---------|---------|----------|---------|
+                    """, content.get("settings")));
+            Map<String, Map<String, Object>> endpoints = (Map<String, Map<String, Object>>) content.get("endpoints");
+            endpoints.forEach((endpoint, values) -> {
+                Map<String, Double> latency = (Map<String, Double>) values.get("latencyMs");
+                table.append(String.format(Locale.ROOT, "| %-8s | %8d | %6d | %7d | %8.1f | %7.2f | %7.2f | %8.2f | %7.2f |%n",
+                        endpoint, values.get("requests"), values.get("errors"), values.get("dropped"),
+                        values.get("throughput"), latency.get("p50"), latency.get("p99"), latency.get("p99.9"),
+                        latency.get("max")));
+            });
+            return table.toString();
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.todo.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop HTTP load against a running instance of the task API, shared by the load
+ * comparison tests. Every client loops on its own thread, picking requests from a weighted
+ * mix, until the run ends; only requests started after the warmup are measured.
+ * <p>
+ * Settings come from system properties: {@code load.clients} (1000), {@code load.users} (100),
+ * {@code load.warmup-seconds} (10) and {@code load.seconds} (30).
+ */
+public final class LoadDriver {
+
+    public static final int CLIENTS = Integer.getInteger("load.clients", 1000);
+    public static final int USERS = Integer.getInteger("load.users", 100);
+    public static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmup-seconds", 10));
+    public static final Duration MEASURE = Duration.ofSeconds(Long.getLong("load.seconds", 30));
+
+    private static final String PASSWORD = "load-test-password";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * One kind of request; answers whether it succeeded.
+     */
+    @FunctionalInterface
+    public interface Request {
+        boolean send(Client client) throws IOException, InterruptedException;
+    }
+
+    public record Weighted(int weight, Request request) {
+    }
+
+    private final String baseUrl;
+    private final List<Weighted> mix;
+    private final int totalWeight;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+
+    public LoadDriver(String baseUrl, List<Weighted> mix) {
+        this.baseUrl = baseUrl;
+        this.mix = List.copyOf(mix);
+        this.totalWeight = mix.stream().mapToInt(Weighted::weight).sum();
+    }
+
+    /**
+     * Registers {@link #USERS} users with a few tasks each, then runs {@link #CLIENTS} clients
+     * on threads of the given executor, which is shut down afterwards.
+     */
+    public Result run(String label, ExecutorService clientThreads) throws Exception {
+        List<Client> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            Client user = new Client("load" + i);
+            user.post("/api/auth/register", """
+                    {"username": "%s", "password": "%s", "email": "%s@example.com"}
+                    """.formatted(user.username, PASSWORD, user.username));
+            if (!user.login()) {
+                throw new IllegalStateException("Could not log in " + user.username);
+            }
+            for (String title : List.of("A", "B", "C")) {
+                user.post("/api/tasks", "{\"title\": \"" + title + "\"}");
+            }
+            users.add(user);
+        }
+
+        long measureFrom = System.nanoTime() + WARMUP.toNanos();
+        long end = measureFrom + MEASURE.toNanos();
+        List<Future<Latencies>> clients = new ArrayList<>(CLIENTS);
+        try {
+            for (int i = 0; i < CLIENTS; i++) {
+                Client client = users.get(i % USERS).copy();
+                clients.add(clientThreads.submit(() -> loop(client, measureFrom, end)));
+            }
+            Latencies all = new Latencies();
+            for (Future<Latencies> latencies : clients) {
+                all.addAll(latencies.get());
+            }
+            return all.result(label, MEASURE);
+        } finally {
+            clientThreads.shutdownNow();
+            clientThreads.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * The results as a Markdown table, one row per run.
+     */
+    public static String report(String title, List<Result> results) {
+        StringBuilder report = new StringBuilder(String.format("""
+                %s
+                %d clients, %d users, %d s measured after %d s warmup
+                | run      | requests | errors | req/s    | p50 ms | p99 ms | max ms |
+                |----------|----------|--------|----------|--------|--------|--------|
+                """, title, CLIENTS, USERS, MEASURE.toSeconds(), WARMUP.toSeconds()));
+        for (Result result : results) {
+            report.append(result.row()).append('\n');
+        }
+        return report.toString();
+    }
+
+    private Latencies loop(Client client, long measureFrom, long end) {
+        Latencies latencies = new Latencies();
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            boolean ok;
+            try {
+                ok = pick().send(client);
+            } catch (IOException e) {
+                ok = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (now >= measureFrom) {
+                latencies.record(System.nanoTime() - now, ok);
+            }
+        }
+        return latencies;
+    }
+
+    private Request pick() {
+        int dice = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Weighted weighted : mix) {
+            dice -= weighted.weight();
+            if (dice < 0) {
+                return weighted.request();
+            }
+        }
+        throw new IllegalStateException("Empty request mix");
+    }
+
+    /**
+     * A logged-in user as seen by one client thread.
+     */
+    public final class Client {
+
+        private final String username;
+        private String token;
+
+        private Client(String username) {
+            this.username = username;
+        }
+
+        private Client copy() {
+            Client copy = new Client(username);
+            copy.token = token;
+            return copy;
+        }
+
+        /**
+         * Logs in again, which costs a BCrypt check on the server, and keeps the new token.
+         */
+        public boolean login() throws IOException, InterruptedException {
+            HttpResponse<String> response = post("/api/auth/login", """
+                    {"username": "%s", "password": "%s"}
+                    """.formatted(username, PASSWORD));
+            if (response.statusCode() != 200) {
+                return false;
+            }
+            token = OBJECT_MAPPER.readTree(response.body()).get("token").asText();
+            return true;
+        }
+
+        public HttpResponse<String> get(String path) throws IOException, InterruptedException {
+            return httpClient.send(request(path).GET().build(), HttpResponse.BodyHandlers.ofString());
+        }
+
+        public HttpResponse<String> post(String path, String json) throws IOException, InterruptedException {
+            return httpClient.send(request(path)
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(json))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+        }
+
+        private HttpRequest.Builder request(String path) {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(60));
+            if (token != null) {
+                request.header("Authorization", "Bearer " + token);
+            }
+            return request;
+        }
+    }
+
+    /**
+     * Latencies of one client, merged into one for the run.
+     */
+    private static final class Latencies {
+
+        private long[] nanos = new long[1024];
+        private int count;
+        private long errors;
+
+        void record(long latencyNanos, boolean ok) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = latencyNanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        void addAll(Latencies other) {
+            if (count + other.count > nanos.length) {
+                nanos = Arrays.copyOf(nanos, Math.max(nanos.length * 2, count + other.count));
+            }
+            System.arraycopy(other.nanos, 0, nanos, count, other.count);
+            count += other.count;
+            errors += other.errors;
+        }
+
+        Result result(String label, Duration measured) {
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            return new Result(label, count, errors, count / (double) measured.toSeconds(),
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), count > 0 ? sorted[count - 1] : 0);
+        }
+
+        private static long percentile(long[] sorted, double p) {
+            return sorted.length == 0 ? 0 : sorted[(int) Math.ceil(p * sorted.length) - 1];
+        }
+    }
+
+    public record Result(String label, long requests, long errors, double throughput,
+                         long p50Nanos, long p99Nanos, long maxNanos) {
+
+        String row() {
+            return String.format("| %-8s | %8d | %6d | %8.1f | %6.1f | %6.1f | %6.1f |",
+                    label, requests, errors, throughput, p50Nanos / 1e6, p99Nanos / 1e6, maxNanos / 1e6);
+        }
+    }
+}
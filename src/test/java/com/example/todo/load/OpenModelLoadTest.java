@@ -0,0 +1,49 @@
+package com.example.todo.load;
+
+import com.example.todo.TodoApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Boots the application on a random port with a fresh H2 database, seeds it and drives it at
+ * a fixed arrival rate (see {@link ArrivalRateLoad} for the settings). Per-endpoint latency
+ * percentiles go to stdout and, with the encoded histograms, to {@code load.report}
+ * ({@code target/load-report.json}). Nothing is asserted about the numbers, which depend on
+ * the machine; compare reports from the same one.
+ * <p>
+ * Run with {@code mvn test-compile surefire:test@open-load-tests}, e.g. adding
+ * {@code -Dload.rate=500 -Dload.mix=list:70,get:20,create:10}.
+ */
+@Tag("open-load")
+class OpenModelLoadTest {
+
+    @Test
+    void reportLatencyAtFixedArrivalRate() throws Exception {
+        ArrivalRateLoad.Settings settings = ArrivalRateLoad.Settings.fromSystemProperties();
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(TodoApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:open-load;DB_CLOSE_DELAY=-1",
+                "--logging.level.root=WARN")) {
+            int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+            ArrivalRateLoad load = new ArrivalRateLoad("http://localhost:" + port, settings);
+            load.seed();
+            ArrivalRateLoad.Report report = load.run();
+
+            System.out.println(report.table());
+            Path file = Path.of(System.getProperty("load.report", "target/load-report.json"));
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file.toFile(), report.content());
+
+            assertTrue((long) report.content().get("requests") > 0, "no requests completed");
+        }
+    }
+}
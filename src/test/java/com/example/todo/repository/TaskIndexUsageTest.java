@@ -0,0 +1,131 @@
+package com.example.todo.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks H2's query plans for the task list queries against the indexes created by the
+ * Flyway migrations. The SQL mirrors what Hibernate generates for the TaskRepository methods,
+ * whose ORDER BY starts with the columns the query pins to one value: H2 only reports
+ * {@code index sorted} when the ORDER BY matches the index from its first column.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskIndexUsageTest {
+
+    private static final String TASK_COLUMNS =
+            "id, title, description, priority, status, due_date, user_id, created_at, updated_at";
+
+    /**
+     * With only {@code user_id} to match, H2 costs the foreign key's own single-column index
+     * the same as {@code idx_tasks_user_created_id} and takes the older one; H2 keeps that index
+     * for the constraint, so it cannot be dropped. The hint checks that the migration index
+     * serves the page in order; the other listings pin more columns and need no hint.
+     */
+    private static final String UNFILTERED_HINT = " USE INDEX (idx_tasks_user_created_id)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long userId;
+
+    @BeforeEach
+    void seed() {
+        String username = "plan_" + UUID.randomUUID().toString().substring(0, 8);
+        jdbcTemplate.update(
+                "INSERT INTO users (username, password, email, role, created_at) VALUES (?, 'x', ?, 'USER', CURRENT_TIMESTAMP)",
+                username, username + "@example.com");
+        userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, username);
+
+        jdbcTemplate.update("""
+                INSERT INTO tasks (title, priority, status, due_date, user_id, created_at, updated_at)
+                SELECT 'Task ' || X,
+                       CASE MOD(X / 3, 3) WHEN 0 THEN 'LOW' WHEN 1 THEN 'MEDIUM' ELSE 'HIGH' END,
+                       CASE MOD(X, 3) WHEN 0 THEN 'TODO' WHEN 1 THEN 'IN_PROGRESS' ELSE 'DONE' END,
+                       CASE WHEN MOD(X, 4) = 0 THEN NULL ELSE DATEADD(DAY, MOD(X, 90), DATE '2024-06-01') END,
+                       ?, DATEADD(SECOND, X, TIMESTAMP '2024-01-01 00:00:00'), CURRENT_TIMESTAMP
+                FROM SYSTEM_RANGE(1, 500)
+                """, userId);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void newestFirstListShouldReadUserCreatedIndexInOrder() {
+        String plan = explain("SELECT " + TASK_COLUMNS + " FROM tasks" + UNFILTERED_HINT + " WHERE user_id = " + userId
+                + " ORDER BY user_id, created_at DESC, id DESC OFFSET 0 ROWS FETCH FIRST 20 ROWS ONLY");
+
+        assertThat(plan).containsIgnoringCase("idx_tasks_user_created_id");
+        assertThat(plan).containsIgnoringCase("index sorted");
+    }
+
+    @Test
+    void keysetPageShouldSeekUserCreatedIndex() {
+        String plan = explain("SELECT " + TASK_COLUMNS + " FROM tasks" + UNFILTERED_HINT + " WHERE user_id = " + userId
+                + " AND (created_at < TIMESTAMP '2024-01-01 00:05:00'"
+                + " OR (created_at = TIMESTAMP '2024-01-01 00:05:00' AND id < 100))"
+                + " ORDER BY user_id, created_at DESC, id DESC FETCH FIRST 21 ROWS ONLY");
+
+        assertThat(plan).containsIgnoringCase("idx_tasks_user_created_id");
+        assertThat(plan).containsIgnoringCase("index sorted");
+    }
+
+    @Test
+    void statusFilteredListShouldReadUserStatusIndexInOrder() {
+        String plan = explain("SELECT " + TASK_COLUMNS + " FROM tasks WHERE user_id = " + userId
+                + " AND status = 'TODO' ORDER BY user_id, status, created_at DESC, id DESC FETCH FIRST 21 ROWS ONLY");
+
+        assertThat(plan).containsIgnoringCase("idx_tasks_user_status_created");
+        assertThat(plan).containsIgnoringCase("index sorted");
+    }
+
+    @Test
+    void priorityRangeShouldReadUserPriorityIndexInOrder() {
+        String plan = explain("SELECT " + TASK_COLUMNS + " FROM tasks WHERE user_id = " + userId
+                + " AND priority = 'HIGH' ORDER BY user_id, priority, created_at DESC, id DESC FETCH FIRST 21 ROWS ONLY");
+
+        assertThat(plan).containsIgnoringCase("idx_tasks_user_priority_created");
+        assertThat(plan).containsIgnoringCase("index sorted");
+    }
+
+    @Test
+    void statusAndPriorityRangeShouldReadUserStatusPriorityIndexInOrder() {
+        String plan = explain("SELECT " + TASK_COLUMNS + " FROM tasks WHERE user_id = " + userId
+                + " AND status = 'TODO' AND priority = 'HIGH'"
+                + " ORDER BY user_id, status, priority, created_at DESC, id DESC FETCH FIRST 21 ROWS ONLY");
+
+        assertThat(plan).containsIgnoringCase("idx_tasks_user_status_priority_created");
+        assertThat(plan).containsIgnoringCase("index sorted");
+    }
+
+    @Test
+    void dueDateRangeShouldReadUserDueIndexInOrder() {
+        String plan = explain("SELECT " + TASK_COLUMNS + " FROM tasks WHERE user_id = " + userId
+                + " AND due_date IS NOT NULL AND due_date >= DATE '2024-06-10' AND due_date <= DATE '2024-07-10'"
+                + " ORDER BY user_id, due_date, id FETCH FIRST 21 ROWS ONLY");
+
+        assertThat(plan).containsIgnoringCase("idx_tasks_user_due_id");
+        assertThat(plan).containsIgnoringCase("index sorted");
+    }
+
+    @Test
+    void statusFilteredDueDateListShouldReadUserStatusDueIndexInOrder() {
+        String plan = explain("SELECT " + TASK_COLUMNS + " FROM tasks WHERE user_id = " + userId
+                + " AND status = 'TODO' AND due_date IS NOT NULL"
+                + " ORDER BY user_id, status, due_date, id FETCH FIRST 21 ROWS ONLY");
+
+        assertThat(plan).containsIgnoringCase("idx_tasks_user_status_due_id");
+        assertThat(plan).containsIgnoringCase("index sorted");
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+}
@@ -1,18 +1,25 @@
 package com.example.todo.security;
 
 import com.example.todo.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -25,7 +32,8 @@ class JwtAuthenticationFilterTest {
     @Mock
     private CustomUserDetailsService userDetailsService;
 
-    @InjectMocks
+    private SimpleMeterRegistry meterRegistry;
+
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
     @Mock
@@ -42,6 +50,8 @@ class JwtAuthenticationFilterTest {
     @BeforeEach
     void setUp() {
         SecurityContextHolder.clearContext();
+        meterRegistry = new SimpleMeterRegistry();
+        jwtAuthenticationFilter = new JwtAuthenticationFilter(jwtTokenProvider, userDetailsService, meterRegistry);
         User testUser = User.builder()
                 .id(1L)
                 .username("testuser")
@@ -55,9 +65,34 @@ class JwtAuthenticationFilterTest {
     @Test
     void shouldAuthenticateWithValidToken() throws Exception {
         String token = "valid.jwt.token";
+        Claims claims = claimsFor("testuser");
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtTokenProvider.validateToken(token)).thenReturn(true);
-        when(jwtTokenProvider.getUsernameFromToken(token)).thenReturn("testuser");
+        when(jwtTokenProvider.parseClaims(token)).thenReturn(Optional.of(claims));
+        when(jwtTokenProvider.getUserDetailsFromClaims(claims))
+                .thenReturn(Optional.of(new CustomUserDetails(1L, "testuser", "USER")));
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals("testuser", SecurityContextHolder.getContext().getAuthentication().getName());
+        CustomUserDetails principal = (CustomUserDetails) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+        assertEquals(1L, principal.getId());
+        verify(filterChain).doFilter(request, response);
+        verify(jwtTokenProvider, times(1)).parseClaims(token);
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        assertEquals(1, validations("valid"));
+    }
+
+    @Test
+    void shouldFallBackToDatabaseWhenTokenHasNoUserClaims() throws Exception {
+        String token = "legacy.jwt.token";
+        Claims claims = claimsFor("testuser");
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtTokenProvider.parseClaims(token)).thenReturn(Optional.of(claims));
+        when(jwtTokenProvider.getUserDetailsFromClaims(claims)).thenReturn(Optional.empty());
+        // A legacy token carries no uid claim.
+        when(jwtTokenProvider.getUserIdFromClaims(claims)).thenReturn(null);
         when(userDetailsService.loadUserByUsername("testuser")).thenReturn(testUserDetails);
 
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -65,19 +100,92 @@ class JwtAuthenticationFilterTest {
         assertNotNull(SecurityContextHolder.getContext().getAuthentication());
         assertEquals("testuser", SecurityContextHolder.getContext().getAuthentication().getName());
         verify(filterChain).doFilter(request, response);
+        assertEquals(1, validations("valid"));
+    }
+
+    @Test
+    void shouldRejectFallbackWhenTokenUserIdDoesNotMatchAccount() throws Exception {
+        String token = "mismatched.jwt.token";
+        Claims claims = claimsFor("testuser");
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtTokenProvider.parseClaims(token)).thenReturn(Optional.of(claims));
+        when(jwtTokenProvider.getUserDetailsFromClaims(claims)).thenReturn(Optional.empty());
+        when(jwtTokenProvider.getUserIdFromClaims(claims)).thenReturn(42L);
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(testUserDetails);
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(filterChain).doFilter(request, response);
+        assertEquals(1, validations("rejected"));
+        assertEquals(0, validations("valid"));
+    }
+
+    @Test
+    void shouldLoadUserFromDatabaseWhenVerificationEnabled() throws Exception {
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "verifyUserOnRequest", true);
+        String token = "valid.jwt.token";
+        Claims claims = claimsFor("testuser");
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtTokenProvider.parseClaims(token)).thenReturn(Optional.of(claims));
+        when(jwtTokenProvider.getUserIdFromClaims(claims)).thenReturn(1L);
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(testUserDetails);
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(jwtTokenProvider, never()).getUserDetailsFromClaims(any());
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void shouldRejectTokenForRecreatedAccountWhenVerificationEnabled() throws Exception {
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "verifyUserOnRequest", true);
+        String token = "stale.jwt.token";
+        Claims claims = claimsFor("testuser");
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtTokenProvider.parseClaims(token)).thenReturn(Optional.of(claims));
+        when(jwtTokenProvider.getUserIdFromClaims(claims)).thenReturn(42L);
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(testUserDetails);
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(filterChain).doFilter(request, response);
+        assertEquals(1, validations("rejected"));
+    }
+
+    @Test
+    void shouldRejectTokenForDeletedAccountWhenVerificationEnabled() throws Exception {
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "verifyUserOnRequest", true);
+        String token = "orphaned.jwt.token";
+        Claims claims = claimsFor("deleteduser");
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtTokenProvider.parseClaims(token)).thenReturn(Optional.of(claims));
+        when(userDetailsService.loadUserByUsername("deleteduser"))
+                .thenThrow(new UsernameNotFoundException("User not found: deleteduser"));
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(filterChain).doFilter(request, response);
+        assertEquals(1, validations("rejected"));
+        assertEquals(0, validations("error"));
     }
 
     @Test
     void shouldRejectInvalidToken() throws Exception {
         String token = "invalid.jwt.token";
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtTokenProvider.validateToken(token)).thenReturn(false);
+        when(jwtTokenProvider.parseClaims(token)).thenReturn(Optional.empty());
 
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         assertNull(SecurityContextHolder.getContext().getAuthentication());
         verify(filterChain).doFilter(request, response);
         verify(userDetailsService, never()).loadUserByUsername(anyString());
+        assertEquals(1, validations("invalid"));
+        assertEquals(0, validations("valid"));
     }
 
     @Test
@@ -88,7 +196,8 @@ class JwtAuthenticationFilterTest {
 
         assertNull(SecurityContextHolder.getContext().getAuthentication());
         verify(filterChain).doFilter(request, response);
-        verify(jwtTokenProvider, never()).validateToken(anyString());
+        verify(jwtTokenProvider, never()).parseClaims(anyString());
+        assertEquals(1, validations("missing"));
     }
 
     @Test
@@ -99,16 +208,25 @@ class JwtAuthenticationFilterTest {
 
         assertNull(SecurityContextHolder.getContext().getAuthentication());
         verify(filterChain).doFilter(request, response);
-        verify(jwtTokenProvider, never()).validateToken(anyString());
+        verify(jwtTokenProvider, never()).parseClaims(anyString());
     }
 
     @Test
     void shouldHandleExceptionGracefully() throws Exception {
         String token = "problematic.token";
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtTokenProvider.validateToken(token)).thenThrow(new RuntimeException("Token processing error"));
+        when(jwtTokenProvider.parseClaims(token)).thenThrow(new RuntimeException("Token processing error"));
 
         assertDoesNotThrow(() -> jwtAuthenticationFilter.doFilterInternal(request, response, filterChain));
         verify(filterChain).doFilter(request, response);
+        assertEquals(1, validations("error"));
+    }
+
+    private double validations(String outcome) {
+        return meterRegistry.get("jwt.validations").tag("outcome", outcome).counter().count();
+    }
+
+    private Claims claimsFor(String username) {
+        return Jwts.claims().subject(username).build();
     }
 }
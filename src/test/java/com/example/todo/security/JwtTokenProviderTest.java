@@ -1,5 +1,6 @@
 package com.example.todo.security;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.junit.jupiter.api.Test;
@@ -176,4 +177,88 @@ class JwtTokenProviderTest {
         assertEquals("user1", jwtTokenProvider.getUsernameFromToken(token1));
         assertEquals("user2", jwtTokenProvider.getUsernameFromToken(token2));
     }
+
+    @Test
+    void shouldEmbedUserIdAndRoleClaims() {
+        com.example.todo.entity.User user = com.example.todo.entity.User.builder()
+                .id(7L)
+                .username("claims.user")
+                .password("password")
+                .email("claims@example.com")
+                .role("ADMIN")
+                .build();
+
+        UserDetails userDetails = new CustomUserDetails(user);
+        Authentication auth = new org.springframework.security.authentication.UsernamePasswordAuthenticationToken(
+                userDetails, null, userDetails.getAuthorities());
+
+        String token = jwtTokenProvider.generateToken(auth);
+
+        CustomUserDetails fromClaims = jwtTokenProvider.getUserDetailsFromToken(token).orElseThrow();
+        assertEquals(7L, fromClaims.getId());
+        assertEquals("claims.user", fromClaims.getUsername());
+        assertEquals("ADMIN", fromClaims.getRole());
+        assertEquals(7L, jwtTokenProvider.getUserIdFromToken(token));
+    }
+
+    @Test
+    void shouldReturnEmptyUserDetailsForTokenWithoutUserId() {
+        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        String legacyToken = Jwts.builder()
+                .subject("testuser")
+                .claim("role", "USER")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 86400000))
+                .signWith(key)
+                .compact();
+
+        assertTrue(jwtTokenProvider.validateToken(legacyToken));
+        assertTrue(jwtTokenProvider.getUserDetailsFromToken(legacyToken).isEmpty());
+    }
+
+    @Test
+    void shouldParseClaimsOnceAndServeRepeatsFromCache() {
+        com.example.todo.entity.User user = com.example.todo.entity.User.builder()
+                .id(11L)
+                .username("cached.user")
+                .password("password")
+                .email("cached@example.com")
+                .role("USER")
+                .build();
+
+        UserDetails userDetails = new CustomUserDetails(user);
+        Authentication auth = new org.springframework.security.authentication.UsernamePasswordAuthenticationToken(
+                userDetails, null, userDetails.getAuthorities());
+
+        String token = jwtTokenProvider.generateToken(auth);
+
+        Claims first = jwtTokenProvider.parseClaims(token).orElseThrow();
+        Claims second = jwtTokenProvider.parseClaims(token).orElseThrow();
+
+        assertSame(first, second);
+        assertEquals("cached.user", second.getSubject());
+    }
+
+    @Test
+    void shouldNotParseClaimsOfTamperedToken() {
+        com.example.todo.entity.User user = com.example.todo.entity.User.builder()
+                .id(12L)
+                .username("tampered.user")
+                .password("password")
+                .email("tampered@example.com")
+                .role("USER")
+                .build();
+
+        UserDetails userDetails = new CustomUserDetails(user);
+        Authentication auth = new org.springframework.security.authentication.UsernamePasswordAuthenticationToken(
+                userDetails, null, userDetails.getAuthorities());
+
+        String token = jwtTokenProvider.generateToken(auth);
+        assertTrue(jwtTokenProvider.parseClaims(token).isPresent());
+
+        String tampered = token.substring(0, token.length() - 2)
+                + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertTrue(jwtTokenProvider.parseClaims(tampered).isEmpty());
+    }
 }
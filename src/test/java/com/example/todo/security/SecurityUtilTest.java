@@ -66,6 +66,16 @@ class SecurityUtilTest {
         assertEquals(1L, user.get().getId());
     }
 
+    @Test
+    void shouldGetCurrentUserIdWhenAuthenticated() {
+        CustomUserDetails userDetails = new CustomUserDetails(testUser);
+        Authentication auth = new UsernamePasswordAuthenticationToken(
+                userDetails, null, userDetails.getAuthorities());
+        SecurityContextHolder.getContext().setAuthentication(auth);
+
+        assertEquals(Optional.of(1L), SecurityUtil.getCurrentUserId());
+    }
+
     @Test
     void shouldReturnEmptyUserWhenNotAuthenticated() {
         Optional<User> user = SecurityUtil.getCurrentUser();
@@ -84,5 +94,6 @@ class SecurityUtilTest {
 
         assertTrue(username.isEmpty());
         assertTrue(user.isEmpty());
+        assertTrue(SecurityUtil.getCurrentUserId().isEmpty());
     }
 }
@@ -0,0 +1,67 @@
+package com.example.todo.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    @Test
+    void shouldReturnCachedClaimsUntilExpiry() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        Claims claims = claimsExpiringIn(60_000);
+
+        cache.put("digest", claims);
+
+        assertSame(claims, cache.get("digest"));
+    }
+
+    @Test
+    void shouldEvictExpiredEntryOnRead() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("digest", claimsExpiringIn(-1_000));
+
+        assertNull(cache.get("digest"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldStayWithinBound() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(20);
+
+        for (int i = 0; i < 100; i++) {
+            cache.put("digest-" + i, claimsExpiringIn(60_000));
+        }
+
+        assertTrue(cache.size() <= 20);
+        assertNotNull(cache.get("digest-99"));
+    }
+
+    @Test
+    void shouldNotCacheWhenDisabled() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(0);
+        cache.put("digest", claimsExpiringIn(60_000));
+
+        assertNull(cache.get("digest"));
+    }
+
+    @Test
+    void shouldProduceStableDigestWithoutRawToken() {
+        String digest = VerifiedTokenCache.digest("header.payload.signature");
+
+        assertEquals(digest, VerifiedTokenCache.digest("header.payload.signature"));
+        assertNotEquals(digest, VerifiedTokenCache.digest("header.payload.signaturf"));
+        assertFalse(digest.contains("payload"));
+    }
+
+    private Claims claimsExpiringIn(long millis) {
+        return Jwts.claims()
+                .subject("testuser")
+                .expiration(new Date(System.currentTimeMillis() + millis))
+                .build();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.todo.service;
+
+import com.example.todo.entity.Task;
+import com.example.todo.repository.TaskCountKey;
+import com.example.todo.repository.TaskStatsRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskCountersTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2024, 3, 4);
+    private static final LocalDate FRIDAY = LocalDate.of(2024, 3, 8);
+
+    @Mock TaskStatsRepository statsRepository;
+
+    @InjectMocks TaskCounters counters;
+
+    @Test
+    void shouldUpdateStatsRowBeforeDueDateRows() {
+        when(statsRepository.increment(eq(1L), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong()))
+                .thenReturn(1);
+        when(statsRepository.incrementOpenDue(1L, MONDAY, -1)).thenReturn(1);
+        when(statsRepository.incrementOpenDue(1L, FRIDAY, 1)).thenReturn(0);
+
+        // Rescheduling an open task from Monday to Friday
+        TaskCountKey before = new TaskCountKey(Task.Status.TODO, Task.Priority.HIGH, MONDAY);
+        counters.apply(1L, new TaskCountDelta().remove(before).add(before.with(null, null, FRIDAY)));
+
+        var order = inOrder(statsRepository);
+        order.verify(statsRepository).increment(1L, 0, 0, 0, 0, 0, 0, 0);
+        order.verify(statsRepository).incrementOpenDue(1L, MONDAY, -1);
+        order.verify(statsRepository).incrementOpenDue(1L, FRIDAY, 1);
+        order.verify(statsRepository).insertOpenDue(1L, FRIDAY, 1);
+        order.verify(statsRepository).deleteEmptyOpenDue(1L);
+    }
+
+    @Test
+    void shouldSkipNoOpChange() {
+        TaskCountKey key = new TaskCountKey(Task.Status.DONE, Task.Priority.LOW, MONDAY);
+
+        counters.apply(1L, new TaskCountDelta().remove(key).add(key));
+
+        verifyNoInteractions(statsRepository);
+    }
+
+    @Test
+    void shouldCreateMissingStatsRow() {
+        when(statsRepository.increment(eq(1L), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong()))
+                .thenReturn(0, 1);
+
+        counters.apply(1L, new TaskCountDelta().add(new TaskCountKey(Task.Status.DONE, Task.Priority.LOW, null)));
+
+        verify(statsRepository).insertEmpty(1L);
+        verify(statsRepository, times(2)).increment(1L, 1, 0, 0, 1, 1, 0, 0);
+        verify(statsRepository, never()).insertOpenDue(any(), any(), anyLong());
+    }
+
+    @Test
+    void shouldCreateStatsRowWhenLockFindsNone() {
+        when(statsRepository.lockByUserId(1L)).thenReturn(Optional.empty());
+
+        counters.lock(1L);
+
+        verify(statsRepository).insertEmpty(1L);
+    }
+}
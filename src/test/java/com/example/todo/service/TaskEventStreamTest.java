@@ -0,0 +1,169 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.task.TaskEvent;
+import com.example.todo.dto.task.TaskEventType;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskEventStreamTest {
+
+    // Queued sends only run when the test says so, like a client that stopped reading.
+    private final List<Runnable> pendingSends = new ArrayList<>();
+    private boolean senderQueueFull;
+    private final TaskEventStream stream = new TaskEventStream(10, 3, Duration.ofMinutes(1), Duration.ofSeconds(10), send -> {
+        if (senderQueueFull) {
+            throw new RejectedExecutionException("sender queue full");
+        }
+        pendingSends.add(send);
+    });
+
+    @Test
+    void shouldDisconnectSubscriberThatFallsBehind() {
+        stream.subscribe(1L, null);
+        stream.subscribe(2L, null);
+
+        // The connected comment and two events fill the queue of three; the next one overflows it.
+        for (int i = 0; i < 3; i++) {
+            stream.publish(1L, event(i));
+        }
+
+        assertEquals(0, stream.subscriberCount(1L));
+        assertEquals(1, stream.subscriberCount(2L));
+    }
+
+    @Test
+    void shouldNotHoldUpPublisherForSlowSubscriber() {
+        stream.subscribe(1L, null);
+
+        for (int i = 0; i < 100; i++) {
+            stream.publish(1L, event(i));
+        }
+
+        // Only the first drain was scheduled; it completes the overflowing subscriber's stream when it runs.
+        assertEquals(1, pendingSends.size());
+    }
+
+    @Test
+    void shouldSendHeartbeatsOnlyToIdleSubscribers() {
+        stream.subscribe(1L, null);
+
+        stream.heartbeat();
+        assertEquals(1, pendingSends.size(), "the connected comment is still being written");
+
+        runPendingSends();
+        stream.heartbeat();
+        stream.heartbeat();
+        assertEquals(1, pendingSends.size(), "heartbeats coalesce while one is pending");
+    }
+
+    @Test
+    void shouldDisconnectSubscriberWithEventsWhenSenderQueueIsFull() {
+        stream.subscribe(1L, null);
+        runPendingSends();
+        senderQueueFull = true;
+
+        stream.heartbeat();
+        assertEquals(1, stream.subscriberCount(1L), "a skipped heartbeat costs nothing");
+
+        stream.publish(1L, event(1));
+        assertEquals(0, stream.subscriberCount(1L));
+    }
+
+    @Test
+    void shouldKeepSubscriberThatKeepsUp() {
+        stream.subscribe(1L, null);
+
+        for (int i = 0; i < 10; i++) {
+            stream.publish(1L, event(i));
+            runPendingSends();
+        }
+
+        assertEquals(1, stream.subscriberCount(1L));
+    }
+
+    @Test
+    void shouldDeliverToOthersWhileOneSubscriberIsBlockedInAWrite() throws Exception {
+        ExecutorService sender = Executors.newCachedThreadPool();
+        TaskEventStream eventStream = new TaskEventStream(10, 10, Duration.ofMinutes(1), Duration.ofMillis(50), sender);
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingEmitter blocked = new BlockingEmitter(release);
+        RecordingEmitter healthy = new RecordingEmitter();
+        try {
+            eventStream.subscribe(1L, null, blocked);
+            assertTrue(blocked.entered.await(5, TimeUnit.SECONDS), "the first write should have started");
+            eventStream.subscribe(2L, null, healthy);
+
+            eventStream.publish(2L, event(1));
+
+            assertNotNull(healthy.sent.poll(5, TimeUnit.SECONDS), "connected comment");
+            assertNotNull(healthy.sent.poll(5, TimeUnit.SECONDS), "event of the other user");
+
+            // Past the send timeout, the next heartbeat lets go of the stuck subscriber only.
+            Thread.sleep(100);
+            eventStream.heartbeat();
+            assertEquals(0, eventStream.subscriberCount(1L));
+            assertEquals(1, eventStream.subscriberCount(2L));
+        } finally {
+            release.countDown();
+            sender.shutdownNow();
+        }
+    }
+
+    /**
+     * Blocks in its first write, like a client whose TCP window stays full.
+     */
+    private static final class BlockingEmitter extends SseEmitter {
+
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        BlockingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<SseEventBuilder> sent = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sent.add(builder);
+        }
+    }
+
+    private void runPendingSends() {
+        List<Runnable> sends = new ArrayList<>(pendingSends);
+        pendingSends.clear();
+        sends.forEach(Runnable::run);
+    }
+
+    private static TaskEvent event(long taskId) {
+        return TaskEvent.builder().type(TaskEventType.DELETED).taskId(taskId).build();
+    }
+}
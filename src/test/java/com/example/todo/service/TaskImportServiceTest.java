@@ -0,0 +1,148 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.task.TaskCreateRequest;
+import com.example.todo.entity.Task;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskImportServiceTest {
+
+    @Mock TaskService taskService;
+    @Mock EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+    private final List<List<String>> chunks = new ArrayList<>();
+
+    private TaskImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        importService = new TaskImportService(taskService, objectMapper);
+        ReflectionTestUtils.setField(importService, "entityManager", entityManager);
+        ReflectionTestUtils.setField(importService, "chunkSize", 2);
+        ReflectionTestUtils.setField(importService, "maxErrors", 10);
+
+        lenient().when(taskService.validate(any())).thenAnswer(i -> {
+            TaskCreateRequest request = i.getArgument(0);
+            return request.getTitle() == null ? Map.of("title", "Title is required") : Map.of();
+        });
+        lenient().when(taskService.createValidatedTasks(anyList(), eq(1L))).thenAnswer(i -> {
+            List<TaskCreateRequest> chunk = i.getArgument(0);
+            chunks.add(chunk.stream().map(TaskCreateRequest::getTitle).toList());
+            return chunk.size();
+        });
+    }
+
+    @Test
+    void shouldInsertNdjsonInChunksAndReportBadLines() throws Exception {
+        var response = importService.importNdjson(1L, body("""
+                {"title":"A"}
+                {"title":"B","priority":"HIGH"}
+
+                {"description":"no title"}
+                {"title":"D","priority":"URGENT","description":"after the bad field"}
+                {"title":"E","dueDate":"2024-12-31"}
+                """));
+
+        assertEquals(3, response.getImported());
+        assertEquals(2, response.getFailed());
+        assertEquals(List.of(List.of("A", "B"), List.of("E")), chunks);
+        assertEquals(4, response.getErrors().get(0).getLine());
+        assertEquals(Map.of("title", "Title is required"), response.getErrors().get(0).getErrors());
+        assertEquals(5, response.getErrors().get(1).getLine());
+        assertEquals(Map.of("priority", "Invalid value"), response.getErrors().get(1).getErrors());
+        assertFalse(response.isErrorsTruncated());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void shouldCapListedErrorsButCountAll() throws Exception {
+        ReflectionTestUtils.setField(importService, "maxErrors", 1);
+
+        var response = importService.importNdjson(1L, body("{}\n{\"status\":\"LATER\"}\n42\n{\"title\":\"A\"}"));
+
+        assertEquals(1, response.getImported());
+        assertEquals(3, response.getFailed());
+        assertEquals(1, response.getErrors().size());
+        assertTrue(response.isErrorsTruncated());
+    }
+
+    @Test
+    void shouldStopAtMalformedJsonKeepingEarlierChunks() throws Exception {
+        var response = importService.importNdjson(1L, body("""
+                {"title":"A"}
+                {"title":"B"}
+                {"title":"C"
+                {"title":"D"}
+                """));
+
+        assertEquals(2, response.getImported());
+        assertEquals(1, response.getFailed());
+        assertEquals(3, response.getErrors().get(0).getLine());
+        assertEquals(Map.of("line", "Malformed JSON; import stopped here"), response.getErrors().get(0).getErrors());
+    }
+
+    @Test
+    void shouldRejectOverlongValueWithoutKeepingIt() throws Exception {
+        String longTitle = "x".repeat(TaskImportService.MAX_STRING_CHARS + 1);
+
+        var response = importService.importNdjson(1L, body("{\"title\":\"A\"}\n{\"title\":\"" + longTitle + "\"}\n{\"title\":\"B\"}\n"));
+
+        assertEquals(2, response.getImported());
+        assertEquals(2, response.getErrors().get(0).getLine());
+        assertTrue(response.getErrors().get(0).getErrors().get("title").startsWith("Longer than"));
+    }
+
+    @Test
+    void shouldImportCsvIgnoringUnknownColumnsAndEmptyCells() throws Exception {
+        ArgumentCaptor<List<TaskCreateRequest>> captor = ArgumentCaptor.forClass(List.class);
+
+        var response = importService.importCsv(1L, body("""
+                id,title,description,priority,status,dueDate
+                7,"Buy milk, eggs",,HIGH,TODO,2024-12-31
+                8,Bad priority,,URGENT,TODO,
+                9,"Multi
+                line",,,,
+                """));
+
+        assertEquals(2, response.getImported());
+        assertEquals(1, response.getFailed());
+        assertEquals(3, response.getErrors().get(0).getLine());
+        assertEquals(Map.of("priority", "Invalid value"), response.getErrors().get(0).getErrors());
+        verify(taskService).createValidatedTasks(captor.capture(), eq(1L));
+        TaskCreateRequest first = captor.getValue().get(0);
+        assertEquals("Buy milk, eggs", first.getTitle());
+        assertNull(first.getDescription());
+        assertEquals(Task.Priority.HIGH, first.getPriority());
+        assertEquals(LocalDate.of(2024, 12, 31), first.getDueDate());
+        assertEquals("Multi\nline", captor.getValue().get(1).getTitle());
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.task.TaskCreateRequest;
+import com.example.todo.dto.task.TaskResponse;
+import com.example.todo.dto.task.TaskUpdateRequest;
+import com.example.todo.entity.User;
+import com.example.todo.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers the cached read paths while tasks are being updated and checks that no read
+ * started after an update returned ever sees an older value, and that no read returns
+ * another user's task.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskReadCacheConcurrencyTest {
+
+    private static final int WRITES = 300;
+    private static final int READERS = 6;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskReadCache readCache;
+
+    @Test
+    void shouldNeverServeStaleOrForeignTasksAfterAcknowledgedWrite() throws Exception {
+        Long aliceId = createUser();
+        Long bobId = createUser();
+        Long aliceTask = taskService.createTask(TaskCreateRequest.builder().title("0").build(), aliceId).getId();
+        Long bobTask = taskService.createTask(TaskCreateRequest.builder().title("0").build(), bobId).getId();
+
+        AtomicInteger aliceAcknowledged = new AtomicInteger();
+        AtomicInteger bobAcknowledged = new AtomicInteger();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Queue<String> failures = new ConcurrentLinkedQueue<>();
+        long hitsBefore = readCache.stats().hits();
+
+        ExecutorService pool = Executors.newFixedThreadPool(2 + READERS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            futures.add(pool.submit(() -> write(aliceTask, aliceId, aliceAcknowledged)));
+            futures.add(pool.submit(() -> write(bobTask, bobId, bobAcknowledged)));
+            for (int i = 0; i < READERS; i++) {
+                boolean readAlice = i % 2 == 0;
+                futures.add(pool.submit(() -> {
+                    while (writing.get()) {
+                        if (readAlice) {
+                            read(aliceTask, aliceId, aliceAcknowledged, failures);
+                        } else {
+                            read(bobTask, bobId, bobAcknowledged, failures);
+                        }
+                    }
+                }));
+            }
+
+            futures.get(0).get(60, TimeUnit.SECONDS);
+            futures.get(1).get(60, TimeUnit.SECONDS);
+            writing.set(false);
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(failures).isEmpty();
+        assertThat(aliceAcknowledged.get()).isEqualTo(WRITES);
+        assertThat(bobAcknowledged.get()).isEqualTo(WRITES);
+        assertThat(readCache.stats().hits()).as("reads should have been served from the cache")
+                .isGreaterThan(hitsBefore);
+    }
+
+    private void write(Long taskId, Long userId, AtomicInteger acknowledged) {
+        for (int n = 1; n <= WRITES; n++) {
+            taskService.updateTask(taskId, TaskUpdateRequest.builder().title(Integer.toString(n)).build(), userId);
+            acknowledged.set(n);
+        }
+    }
+
+    private void read(Long taskId, Long userId, AtomicInteger acknowledged, Queue<String> failures) {
+        int floor = acknowledged.get();
+
+        TaskResponse single = taskService.getTaskById(taskId, userId);
+        check("single task", single, userId, floor, failures);
+
+        List<TaskResponse> firstPage = taskService.getTasksPaginated(userId, 0, 20).getContent();
+        if (firstPage.size() != 1) {
+            failures.add("first page of user " + userId + " has " + firstPage.size() + " tasks");
+        } else {
+            check("first page", firstPage.get(0), userId, floor, failures);
+        }
+    }
+
+    private static void check(String what, TaskResponse task, Long userId, int floor, Queue<String> failures) {
+        if (!userId.equals(task.getUserId())) {
+            failures.add(what + " for user " + userId + " returned a task of user " + task.getUserId());
+        }
+        int seen = Integer.parseInt(task.getTitle());
+        if (seen < floor) {
+            failures.add(what + " for user " + userId + " returned version " + seen + " after " + floor + " was acknowledged");
+        }
+    }
+
+    private Long createUser() {
+        String name = "cache_" + UUID.randomUUID().toString().substring(0, 8);
+        return userRepository.save(User.builder()
+                .username(name)
+                .password("x")
+                .email(name + "@example.com")
+                .role("USER")
+                .build()).getId();
+    }
+}
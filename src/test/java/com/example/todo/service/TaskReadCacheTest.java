@@ -0,0 +1,159 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.task.TaskResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskReadCacheTest {
+
+    private final TaskVersions versions = new TaskVersions(1000);
+
+    @Test
+    void shouldServeRepeatReadsFromCache() {
+        TaskReadCache cache = new TaskReadCache(versions, 100_000, 10_000);
+        AtomicInteger loads = new AtomicInteger();
+
+        TaskResponse first = cache.getTask(1L, 10L, () -> load(loads, 10L, 1L));
+        TaskResponse second = cache.getTask(1L, 10L, () -> load(loads, 10L, 1L));
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().hits());
+        assertEquals(1, cache.stats().misses());
+    }
+
+    @Test
+    void shouldReloadAfterInvalidation() {
+        TaskReadCache cache = new TaskReadCache(versions, 100_000, 10_000);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getTask(1L, 10L, () -> load(loads, 10L, 1L));
+        cache.invalidateAfterCommit(1L);
+        cache.getTask(1L, 10L, () -> load(loads, 10L, 1L));
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.stats().hits());
+    }
+
+    @Test
+    void shouldReloadAfterUsersVersionWasEvicted() {
+        TaskVersions oneUser = new TaskVersions(1);
+        TaskReadCache cache = new TaskReadCache(oneUser, 100_000, 10_000);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getTask(1L, 10L, () -> load(loads, 10L, 1L));
+        // User 2 takes user 1's place; user 1 comes back with a version never used before.
+        oneUser.current(2L);
+        cache.getTask(1L, 10L, () -> load(loads, 10L, 1L));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldKeepUsersApart() {
+        TaskReadCache cache = new TaskReadCache(versions, 100_000, 10_000);
+
+        cache.getTask(1L, 10L, () -> task(10L, 1L));
+        TaskResponse other = cache.getTask(2L, 10L, () -> task(10L, 2L));
+
+        assertEquals(2L, other.getUserId());
+        assertEquals(0, cache.stats().hits());
+
+        // Invalidating one user leaves the other's entries alone
+        cache.invalidateAfterCommit(1L);
+        cache.getTask(2L, 10L, () -> fail("should be cached"));
+        assertEquals(1, cache.stats().hits());
+    }
+
+    @Test
+    void shouldNotServeEntryLoadedWhileWriteCommitted() {
+        TaskReadCache cache = new TaskReadCache(versions, 100_000, 10_000);
+        AtomicInteger loads = new AtomicInteger();
+
+        // The write commits while the read is still loading the old row.
+        cache.getTask(1L, 10L, () -> {
+            TaskResponse stale = load(loads, 10L, 1L);
+            cache.invalidateAfterCommit(1L);
+            return stale;
+        });
+        cache.getTask(1L, 10L, () -> load(loads, 10L, 1L));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntriesOverUserCap() {
+        long oneEntry = 96 + TaskReadCache.weigh(task(1L, 1L));
+        TaskReadCache cache = new TaskReadCache(versions, 100_000, 2 * oneEntry);
+
+        cache.getTask(1L, 1L, () -> task(1L, 1L));
+        cache.getTask(1L, 2L, () -> task(2L, 1L));
+        cache.getTask(1L, 1L, () -> fail("should be cached"));
+        cache.getTask(1L, 3L, () -> task(3L, 1L));
+
+        assertEquals(2, cache.stats().entries());
+        assertEquals(1, cache.stats().evictions());
+        assertTrue(cache.stats().weightBytes() <= 2 * oneEntry);
+        // Task 2 was the least recently used
+        cache.getTask(1L, 1L, () -> fail("should be cached"));
+        AtomicInteger loads = new AtomicInteger();
+        cache.getTask(1L, 2L, () -> load(loads, 2L, 1L));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedUserOverTotalCap() {
+        long oneEntry = 96 + TaskReadCache.weigh(task(1L, 1L));
+        TaskReadCache cache = new TaskReadCache(versions, 2 * oneEntry, 10_000);
+
+        cache.getTask(1L, 1L, () -> task(1L, 1L));
+        cache.getTask(2L, 2L, () -> task(2L, 2L));
+        cache.getTask(3L, 3L, () -> task(3L, 3L));
+
+        assertTrue(cache.stats().weightBytes() <= 2 * oneEntry);
+        assertEquals(1, cache.stats().evictions());
+        cache.getTask(3L, 3L, () -> fail("should be cached"));
+    }
+
+    @Test
+    void shouldReportHitsMissesEvictionsAndWeight() {
+        long oneEntry = 96 + TaskReadCache.weigh(task(1L, 1L));
+        TaskReadCache cache = new TaskReadCache(versions, 100_000, oneEntry);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.getTask(1L, 1L, () -> task(1L, 1L));
+        cache.getTask(1L, 1L, () -> fail("should be cached"));
+        cache.getTask(1L, 2L, () -> task(2L, 1L));
+
+        assertEquals(1, registry.get("tasks.read.cache").tag("result", "hit").functionCounter().count());
+        assertEquals(2, registry.get("tasks.read.cache").tag("result", "miss").functionCounter().count());
+        assertEquals(1, registry.get("tasks.read.cache.evictions").functionCounter().count());
+        assertEquals(oneEntry, registry.get("tasks.read.cache.weight").gauge().value());
+    }
+
+    @Test
+    void shouldPassThroughWhenDisabled() {
+        TaskReadCache cache = new TaskReadCache(versions, 0, 0);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getTask(1L, 10L, () -> load(loads, 10L, 1L));
+        cache.getTask(1L, 10L, () -> load(loads, 10L, 1L));
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.stats().entries());
+    }
+
+    private static TaskResponse load(AtomicInteger loads, Long id, Long userId) {
+        loads.incrementAndGet();
+        return task(id, userId);
+    }
+
+    private static TaskResponse task(Long id, Long userId) {
+        return TaskResponse.builder().id(id).title("Task " + id).userId(userId).build();
+    }
+}
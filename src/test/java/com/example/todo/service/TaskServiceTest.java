@@ -1,17 +1,31 @@
 package com.example.todo.service;
 
+import com.example.todo.dto.task.TaskEvent;
+import com.example.todo.dto.task.TaskEventType;
+import com.example.todo.dto.task.TaskResponse;
 import com.example.todo.entity.Task;
 import com.example.todo.entity.User;
 import com.example.todo.exception.ResourceNotFoundException;
+import com.example.todo.repository.TaskCountKey;
+import com.example.todo.repository.TaskGroupCount;
 import com.example.todo.repository.TaskRepository;
+import com.example.todo.repository.TaskTombstoneRepository;
+import com.example.todo.repository.UserRepository;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -20,29 +34,32 @@ import static org.mockito.Mockito.*;
 class TaskServiceTest {
 
     @Mock TaskRepository taskRepository;
+    @Mock TaskTombstoneRepository tombstoneRepository;
+    @Mock UserRepository userRepository;
+    @Mock Validator validator;
+    @Mock TaskCounters counters;
+    @Mock TaskEventStream events;
+    @Spy TaskReadCache readCache = new TaskReadCache(new TaskVersions(1000), 0, 0);
 
     @InjectMocks TaskService taskService;
 
     @Test
     void shouldThrowNotFoundWhenNotOwner() {
-        User owner = User.builder().id(1L).build();
-        User intruder = User.builder().id(2L).role("USER").build();
-        Task task = Task.builder().id(1L).user(owner).build();
-
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.findResponseByIdAndUserId(1L, 2L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () ->
-                taskService.getTaskById(1L, intruder));
+                taskService.getTaskById(1L, 2L));
         
-        verify(taskRepository).findById(1L);
+        verify(taskRepository).findResponseByIdAndUserId(1L, 2L);
+        verify(taskRepository, never()).findById(any());
     }
 
     @Test
     void shouldThrowNotFoundWhenTaskMissing() {
-        when(taskRepository.findById(999L)).thenReturn(Optional.empty());
+        when(taskRepository.findResponseByIdAndUserId(999L, 1L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () ->
-                taskService.getTaskById(999L, User.builder().id(1L).build()));
+                taskService.getTaskById(999L, 1L));
     }
 
     @Test
@@ -52,81 +69,250 @@ class TaskServiceTest {
                 .title("Test")
                 .build();
 
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
         when(taskRepository.save(any())).thenAnswer(i -> i.getArgument(0));
 
-        var response = taskService.createTask(request, user);
+        var response = taskService.createTask(request, 1L);
 
         assertEquals("Test", response.getTitle());
         assertEquals(Task.Priority.MEDIUM, response.getPriority());
         assertEquals(Task.Status.TODO, response.getStatus());
+        assertEquals(1L, response.getUserId());
         verify(taskRepository).save(any());
+        verify(userRepository, never()).findById(any());
+
+        TaskCountDelta delta = capturedDelta();
+        assertEquals(1, delta.total());
+        assertEquals(1, delta.status(Task.Status.TODO));
+        assertEquals(1, delta.priority(Task.Priority.MEDIUM));
+        TaskEvent event = publishedEvent();
+        assertEquals(TaskEventType.CREATED, event.getType());
+        assertEquals("Test", event.getTask().getTitle());
     }
 
     @Test
-    void shouldUpdateTaskFields() {
+    void shouldCreateBatchWithSingleSaveAll() {
         User user = User.builder().id(1L).build();
-        Task task = Task.builder()
-                .id(1L)
-                .title("Old")
-                .description("Old Desc")
-                .priority(Task.Priority.LOW)
-                .status(Task.Status.TODO)
-                .user(user)
+        var requests = List.of(
+                com.example.todo.dto.task.TaskCreateRequest.builder().title("A").build(),
+                com.example.todo.dto.task.TaskCreateRequest.builder().title("B").priority(Task.Priority.HIGH).build());
+        ReflectionTestUtils.setField(taskService, "maxBatchItems", 10);
+
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+        when(validator.validate(any(com.example.todo.dto.task.TaskCreateRequest.class))).thenReturn(Set.of());
+        when(taskRepository.saveAllAndFlush(anyList())).thenAnswer(i -> i.getArgument(0));
+
+        var response = taskService.createTasks(requests, 1L);
+
+        assertEquals(2, response.getCreated());
+        assertEquals(0, response.getFailed());
+        assertEquals("A", response.getResults().get(0).getTask().getTitle());
+        assertEquals(Task.Priority.HIGH, response.getResults().get(1).getTask().getPriority());
+        verify(taskRepository).saveAllAndFlush(anyList());
+        verify(taskRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldRejectBatchOverLimit() {
+        var request = com.example.todo.dto.task.TaskCreateRequest.builder().title("A").build();
+        ReflectionTestUtils.setField(taskService, "maxBatchItems", 1);
+
+        assertThrows(IllegalArgumentException.class, () ->
+                taskService.createTasks(List.of(request, request), 1L));
+        verify(taskRepository, never()).saveAllAndFlush(any());
+    }
+
+    @Test
+    void shouldBulkUpdateWithSingleStatement() {
+        var request = com.example.todo.dto.task.BulkTaskUpdateRequest.builder()
+                .filter(com.example.todo.dto.task.TaskFilter.builder().status(Task.Status.TODO).build())
+                .status(Task.Status.DONE)
                 .build();
 
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
-        when(taskRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+        when(taskRepository.bulkUpdate(1L, request.getFilter(), request)).thenReturn(List.of(
+                new TaskGroupCount(Task.Status.TODO, Task.Priority.LOW, null, 3L)));
+
+        var response = taskService.bulkUpdateTasks(request, 1L);
+
+        assertEquals(3, response.getUpdated());
+        verify(taskRepository, never()).findById(any());
+    }
+
+    @Test
+    void shouldMoveBulkUpdatedTasksBetweenCounters() {
+        LocalDate due = LocalDate.of(2024, 1, 10);
+        var request = com.example.todo.dto.task.BulkTaskUpdateRequest.builder()
+                .filter(com.example.todo.dto.task.TaskFilter.builder().status(Task.Status.TODO).build())
+                .status(Task.Status.DONE)
+                .build();
+
+        when(taskRepository.bulkUpdate(1L, request.getFilter(), request)).thenReturn(List.of(
+                new TaskGroupCount(Task.Status.TODO, Task.Priority.LOW, due, 2L),
+                new TaskGroupCount(Task.Status.TODO, Task.Priority.HIGH, null, 1L)));
+
+        assertEquals(3, taskService.bulkUpdateTasks(request, 1L).getUpdated());
+
+        // The UPDATE reports what it replaced, so nothing is locked or read first.
+        verify(counters, never()).lock(any());
+        TaskCountDelta delta = capturedDelta();
+        assertEquals(0, delta.total());
+        assertEquals(-3, delta.status(Task.Status.TODO));
+        assertEquals(3, delta.status(Task.Status.DONE));
+        assertEquals(0, delta.priority(Task.Priority.LOW));
+        assertEquals(Map.of(due, -2L), delta.openByDueDate());
+    }
+
+    @Test
+    void shouldRejectBulkUpdateWithoutChanges() {
+        var request = com.example.todo.dto.task.BulkTaskUpdateRequest.builder()
+                .filter(com.example.todo.dto.task.TaskFilter.builder().status(Task.Status.TODO).build())
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () ->
+                taskService.bulkUpdateTasks(request, 1L));
+        verify(taskRepository, never()).bulkUpdate(any(), any(), any());
+    }
+
+    @Test
+    void shouldSkipBulkUpdateForEmptyIdList() {
+        var request = com.example.todo.dto.task.BulkTaskUpdateRequest.builder()
+                .filter(com.example.todo.dto.task.TaskFilter.builder().ids(List.of()).build())
+                .status(Task.Status.DONE)
+                .build();
+
+        assertEquals(0, taskService.bulkUpdateTasks(request, 1L).getUpdated());
+        verify(taskRepository, never()).bulkUpdate(any(), any(), any());
+    }
 
+    @Test
+    void shouldUpdateTaskFields() {
         var request = com.example.todo.dto.task.TaskUpdateRequest.builder()
                 .title("New")
                 .status(Task.Status.DONE)
                 .build();
+        TaskResponse updated = TaskResponse.builder()
+                .id(1L)
+                .title("New")
+                .description("Old Desc")
+                .priority(Task.Priority.LOW)
+                .status(Task.Status.DONE)
+                .userId(1L)
+                .build();
+
+        when(taskRepository.updateFields(1L, 1L, request))
+                .thenReturn(Optional.of(new TaskCountKey(Task.Status.TODO, Task.Priority.LOW, null)));
+        when(taskRepository.findResponseByIdAndUserId(1L, 1L)).thenReturn(Optional.of(updated));
 
-        var response = taskService.updateTask(1L, request, user);
+        var response = taskService.updateTask(1L, request, 1L);
 
         assertEquals("New", response.getTitle());
         assertEquals("Old Desc", response.getDescription());
         assertEquals(Task.Priority.LOW, response.getPriority());
         assertEquals(Task.Status.DONE, response.getStatus());
+        verify(taskRepository, never()).findById(any());
+        verify(taskRepository, never()).save(any());
+        verify(counters, never()).lock(any());
+        TaskCountDelta delta = capturedDelta();
+        assertEquals(-1, delta.status(Task.Status.TODO));
+        assertEquals(1, delta.status(Task.Status.DONE));
     }
 
     @Test
-    void shouldDeleteTaskWhenOwner() {
-        User user = User.builder().id(1L).build();
-        Task task = Task.builder().id(1L).user(user).build();
+    void shouldLeaveCountersAloneWhenOnlyTextChanges() {
+        var request = com.example.todo.dto.task.TaskUpdateRequest.builder().title("New").build();
+        TaskResponse updated = TaskResponse.builder().id(1L).title("New").userId(1L).build();
 
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.updateFields(1L, 1L, request))
+                .thenReturn(Optional.of(new TaskCountKey(Task.Status.TODO, Task.Priority.LOW, null)));
+        when(taskRepository.findResponseByIdAndUserId(1L, 1L)).thenReturn(Optional.of(updated));
 
-        taskService.deleteTask(1L, user);
+        taskService.updateTask(1L, request, 1L);
 
-        verify(taskRepository).delete(task);
+        // TaskCounters.apply runs no statement for an empty delta.
+        assertTrue(capturedDelta().isEmpty());
+        verify(counters, never()).lock(any());
     }
 
     @Test
-    void shouldThrowNotFoundWhenDeleteNotOwner() {
-        User owner = User.builder().id(1L).build();
-        User intruder = User.builder().id(2L).build();
-        Task task = Task.builder().id(1L).user(owner).build();
+    void shouldThrowNotFoundWhenUpdateNotOwner() {
+        var request = com.example.todo.dto.task.TaskUpdateRequest.builder()
+                .title("New")
+                .build();
 
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.updateFields(1L, 2L, request)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () ->
-                taskService.deleteTask(1L, intruder));
-        verify(taskRepository, never()).delete(any());
+                taskService.updateTask(1L, request, 2L));
+        verify(taskRepository, never()).findResponseByIdAndUserId(any(), any());
+    }
+
+    @Test
+    void shouldSkipUpdateStatementWhenNothingChanges() {
+        var request = com.example.todo.dto.task.TaskUpdateRequest.builder().build();
+        TaskResponse existing = TaskResponse.builder().id(1L).title("Old").userId(1L).build();
+
+        when(taskRepository.findResponseByIdAndUserId(1L, 1L)).thenReturn(Optional.of(existing));
+
+        var response = taskService.updateTask(1L, request, 1L);
+
+        assertEquals("Old", response.getTitle());
+        verify(taskRepository, never()).updateFields(any(), any(), any());
+        verify(events, never()).publishAfterCommit(any(), any());
+    }
+
+    @Test
+    void shouldDeleteTaskWhenOwner() {
+        when(taskRepository.deleteByIdAndUserId(1L, 1L))
+                .thenReturn(Optional.of(new TaskCountKey(Task.Status.IN_PROGRESS, Task.Priority.HIGH, null)));
+
+        taskService.deleteTask(1L, 1L);
+
+        verify(counters, never()).lock(any());
+        verify(tombstoneRepository).insert(eq(1L), eq(1L), any());
+        verify(taskRepository, never()).findById(any());
+        TaskCountDelta delta = capturedDelta();
+        assertEquals(-1, delta.total());
+        assertEquals(-1, delta.status(Task.Status.IN_PROGRESS));
+        assertEquals(-1, delta.priority(Task.Priority.HIGH));
+        TaskEvent event = publishedEvent();
+        assertEquals(TaskEventType.DELETED, event.getType());
+        assertEquals(1L, event.getTaskId());
+    }
+
+    @Test
+    void shouldThrowNotFoundWhenDeleteNotOwner() {
+        when(taskRepository.deleteByIdAndUserId(1L, 2L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () ->
+                taskService.deleteTask(1L, 2L));
+        verify(counters, never()).apply(any(), any());
+        verify(tombstoneRepository, never()).insert(any(), any(), any());
+        verify(events, never()).publishAfterCommit(any(), any());
     }
 
     @Test
     void shouldGetTasksSortedByCreationDate() {
-        User user = User.builder().id(1L).build();
-        Task t1 = Task.builder().id(1L).title("A").user(user).build();
-        Task t2 = Task.builder().id(2L).title("B").user(user).build();
+        TaskResponse t1 = TaskResponse.builder().id(1L).title("A").userId(1L).build();
+        TaskResponse t2 = TaskResponse.builder().id(2L).title("B").userId(1L).build();
 
-        when(taskRepository.findByUserOrderByCreatedAtDesc(user)).thenReturn(List.of(t2, t1));
+        when(taskRepository.findResponsesByUserId(1L)).thenReturn(List.of(t2, t1));
 
-        var result = taskService.getTasks(user);
+        var result = taskService.getTasks(1L);
 
         assertEquals(2, result.size());
         assertEquals(2L, result.get(0).getId());
         assertEquals(1L, result.get(1).getId());
     }
+
+    private TaskCountDelta capturedDelta() {
+        ArgumentCaptor<TaskCountDelta> captor = ArgumentCaptor.forClass(TaskCountDelta.class);
+        verify(counters).apply(eq(1L), captor.capture());
+        return captor.getValue();
+    }
+
+    private TaskEvent publishedEvent() {
+        ArgumentCaptor<TaskEvent> captor = ArgumentCaptor.forClass(TaskEvent.class);
+        verify(events).publishAfterCommit(eq(1L), captor.capture());
+        return captor.getValue();
+    }
 }
@@ -0,0 +1,93 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.task.TaskResponse;
+import com.example.todo.entity.TaskTombstone;
+import com.example.todo.exception.SyncTokenExpiredException;
+import com.example.todo.repository.TaskRepository;
+import com.example.todo.repository.TaskTombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskSyncServiceTest {
+
+    @Mock TaskRepository taskRepository;
+    @Mock TaskTombstoneRepository tombstoneRepository;
+
+    @InjectMocks TaskSyncService taskSyncService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(taskSyncService, "overlap", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(taskSyncService, "tombstoneTtl", Duration.ofDays(30));
+    }
+
+    @Test
+    void shouldResumeFromLastRowWhenMoreChangesFollow() {
+        LocalDateTime changedAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+        when(taskRepository.findChangedAfter(eq(1L), any(), any(), any())).thenReturn(List.of(
+                TaskResponse.builder().id(7L).updatedAt(changedAt).build(),
+                TaskResponse.builder().id(8L).updatedAt(changedAt).build()));
+        when(tombstoneRepository.findAfter(eq(1L), any(), any(), any())).thenReturn(List.of());
+
+        var response = taskSyncService.getChanges(1L, null, 1);
+
+        assertTrue(response.isHasMore());
+        assertEquals(1, response.getChanged().size());
+        SyncToken token = SyncToken.decode(response.getSyncToken());
+        assertEquals(changedAt, token.taskChangedAt());
+        assertEquals(7L, token.taskId());
+    }
+
+    @Test
+    void shouldStepBackByOverlapOnceCaughtUp() {
+        when(taskRepository.findChangedAfter(eq(1L), any(), any(), any())).thenReturn(List.of(
+                TaskResponse.builder().id(7L).updatedAt(LocalDateTime.now()).build()));
+        when(tombstoneRepository.findAfter(eq(1L), any(), any(), any())).thenReturn(List.of(
+                new TaskTombstone(9L, 1L, LocalDateTime.now())));
+
+        LocalDateTime before = LocalDateTime.now().minusSeconds(5);
+        var response = taskSyncService.getChanges(1L, null, 10);
+
+        assertFalse(response.isHasMore());
+        assertEquals(List.of(9L), response.getDeleted());
+        SyncToken token = SyncToken.decode(response.getSyncToken());
+        assertFalse(token.taskChangedAt().isBefore(before));
+        assertFalse(token.taskChangedAt().isAfter(LocalDateTime.now().minusSeconds(5)));
+        assertEquals(token.taskChangedAt(), token.deletedAt());
+    }
+
+    @Test
+    void shouldRejectTokenOlderThanTombstoneRetention() {
+        LocalDateTime longAgo = LocalDateTime.now().minusDays(31);
+        String since = new SyncToken(longAgo, 1L, longAgo, 1L).encode();
+
+        assertThrows(SyncTokenExpiredException.class, () ->
+                taskSyncService.getChanges(1L, since, 10));
+        verifyNoInteractions(taskRepository, tombstoneRepository);
+    }
+
+    @Test
+    void shouldPurgeTombstonesPastRetention() {
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+
+        taskSyncService.purgeTombstones();
+
+        verify(tombstoneRepository).deleteOlderThan(cutoff.capture());
+        Duration age = Duration.between(cutoff.getValue(), LocalDateTime.now());
+        assertTrue(age.compareTo(Duration.ofDays(30)) >= 0 && age.compareTo(Duration.ofDays(30).plusMinutes(1)) < 0);
+    }
+}
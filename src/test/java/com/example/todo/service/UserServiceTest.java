@@ -5,6 +5,7 @@ import com.example.todo.entity.User;
 import com.example.todo.exception.ResourceAlreadyExistsException;
 import com.example.todo.exception.ResourceNotFoundException;
 import com.example.todo.repository.UserRepository;
+import com.example.todo.shard.UserShards;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -13,6 +14,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -24,6 +26,8 @@ class UserServiceTest {
 
     @Mock UserRepository userRepository;
     @Mock PasswordEncoder passwordEncoder;
+    @Mock TaskCounters taskCounters;
+    @Mock UserShards userShards;
 
     @InjectMocks UserService userService;
 
@@ -32,7 +36,15 @@ class UserServiceTest {
         when(userRepository.existsByUsername("john")).thenReturn(false);
         when(userRepository.existsByEmail("john@example.com")).thenReturn(false);
         when(passwordEncoder.encode("pass123")).thenReturn("encoded");
-        when(userRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+        when(userRepository.save(any())).thenAnswer(i -> {
+            User saved = i.getArgument(0);
+            saved.setId(1L);
+            return saved;
+        });
+        doAnswer(i -> {
+            i.<Runnable>getArgument(1).run();
+            return null;
+        }).when(userShards).initialize(any(), any());
 
         userService.register(new UserRegisterRequest("john", "pass123", "john@example.com"));
 
@@ -43,6 +55,7 @@ class UserServiceTest {
                         && u.getPassword().equals("encoded")
                         && u.getRole().equals("USER")
         ));
+        verify(taskCounters).init(1L);
     }
 
     @Test
@@ -87,6 +100,7 @@ class UserServiceTest {
     @Test
     void shouldThrowWhenUserNotFoundById() {
         when(userRepository.findById(99L)).thenReturn(Optional.empty());
+        when(userShards.onDirectory(any())).thenAnswer(i -> i.<Supplier<?>>getArgument(0).get());
 
         assertThrows(ResourceNotFoundException.class, () -> userService.getUserById(99L));
     }
@@ -0,0 +1,48 @@
+package com.example.todo.shard;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardRingTest {
+
+    private static final int USERS = 30_000;
+
+    @Test
+    void spreadsUsersEvenly() {
+        ShardRing ring = new ShardRing(3);
+        int[] counts = new int[3];
+        for (long userId = 1; userId <= USERS; userId++) {
+            counts[ring.shardFor(userId)]++;
+        }
+        for (int count : counts) {
+            assertTrue(Math.abs(count - USERS / 3) < USERS / 3 * 0.2, "uneven spread: " + count);
+        }
+    }
+
+    @Test
+    void addingShardOnlyMovesUsersToIt() {
+        ShardRing before = new ShardRing(3);
+        ShardRing after = new ShardRing(4);
+        int moved = 0;
+        for (long userId = 1; userId <= USERS; userId++) {
+            int from = before.shardFor(userId);
+            int to = after.shardFor(userId);
+            if (from != to) {
+                assertEquals(3, to, "user " + userId + " moved between existing shards");
+                moved++;
+            }
+        }
+        assertTrue(Math.abs(moved - USERS / 4) < USERS / 4 * 0.2, "moved " + moved + " users");
+    }
+
+    @Test
+    void placementIsStable() {
+        assertEquals(new ShardRing(5).shardFor(42), new ShardRing(5).shardFor(42));
+    }
+
+    @Test
+    void rejectsEmptyRing() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardRing(0));
+    }
+}
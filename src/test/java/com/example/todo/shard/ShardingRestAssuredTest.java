@@ -0,0 +1,261 @@
+package com.example.todo.shard;
+
+import com.example.todo.service.UserService;
+import com.example.todo.util.RestAssuredTestBase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Users' data spread over three local H2 shards behind an H2 directory database.
+ */
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sharding-directory;DB_CLOSE_DELAY=-1",
+        "tasks.shards.urls=jdbc:h2:mem:sharding-0;DB_CLOSE_DELAY=-1,"
+                + "jdbc:h2:mem:sharding-1;DB_CLOSE_DELAY=-1,"
+                + "jdbc:h2:mem:sharding-2;DB_CLOSE_DELAY=-1"
+})
+class ShardingRestAssuredTest extends RestAssuredTestBase {
+
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private ShardRoutingDataSource shards;
+
+    @Autowired
+    private ShardDirectory directory;
+
+    @Autowired
+    private UserService userService;
+
+    private String adminToken;
+
+    @BeforeEach
+    void setUp() {
+        Account admin = register("shardadmin");
+        new JdbcTemplate(shards.pool(ShardContext.DIRECTORY))
+                .update("UPDATE users SET role = 'ADMIN' WHERE id = ?", admin.id());
+        adminToken = login(admin.username());
+    }
+
+    @Test
+    @DisplayName("A user's tasks should be stored on their shard, with ids from the shards' ranges")
+    void shouldStoreTasksOnUsersShard() {
+        Account user = register("sharded");
+        long taskId = createTask(user, "On my shard");
+
+        int shard = directory.locate(user.id());
+        assertThat(shard).isEqualTo(directory.home(user.id()));
+        assertThat(tasksAt(shard, taskId)).isEqualTo(1);
+        for (int location : directory.locations()) {
+            if (location != shard) {
+                assertThat(tasksAt(location, taskId)).isZero();
+            }
+        }
+        // The pooled generator may have drawn the id's block from any shard's sequence.
+        assertThat(taskId).isBetween(1L << 40, (4L << 40) - 1);
+    }
+
+    @Test
+    @DisplayName("A moved user should keep their tasks, ids and counters")
+    void shouldServeUserAfterMove() {
+        Account user = register("moving");
+        long taskId = createTask(user, "Moving along");
+        int from = directory.locate(user.id());
+        int to = (from + 1) % shards.shardCount();
+
+        given()
+                .header("Authorization", bearer(adminToken))
+                .when()
+                .post("/api/admin/shards/users/" + user.id() + "?shard=" + to)
+                .then()
+                .statusCode(200)
+                .body("shard", equalTo(to));
+
+        assertThat(tasksAt(from, taskId)).isZero();
+        assertThat(tasksAt(to, taskId)).isEqualTo(1);
+        given()
+                .header("Authorization", bearer(user.token()))
+                .when()
+                .get("/api/tasks/" + taskId)
+                .then()
+                .statusCode(200)
+                .body("title", equalTo("Moving along"));
+        given()
+                .header("Authorization", bearer(user.token()))
+                .when()
+                .get("/api/tasks/stats")
+                .then()
+                .statusCode(200)
+                .body("total", equalTo(1));
+    }
+
+    @Test
+    @DisplayName("Rebalancing should move users back to the shard the ring assigns them")
+    void shouldRebalanceMisplacedUsers() {
+        Account user = register("misplaced");
+        long taskId = createTask(user, "Misplaced");
+        int home = directory.home(user.id());
+        int elsewhere = (home + 1) % shards.shardCount();
+        given()
+                .header("Authorization", bearer(adminToken))
+                .when()
+                .post("/api/admin/shards/users/" + user.id() + "?shard=" + elsewhere)
+                .then()
+                .statusCode(200);
+
+        int moved = given()
+                .header("Authorization", bearer(adminToken))
+                .when()
+                .post("/api/admin/shards/rebalance")
+                .then()
+                .statusCode(200)
+                .extract()
+                .path("moved");
+
+        assertThat(moved).isPositive();
+        assertThat(directory.locate(user.id())).isEqualTo(home);
+        assertThat(tasksAt(home, taskId)).isEqualTo(1);
+        assertThat(tasksAt(elsewhere, taskId)).isZero();
+    }
+
+    @Test
+    @DisplayName("Moves should be refused while another instance is serving")
+    void shouldRefuseMovesWithAnotherInstance() {
+        Account user = register("twoinstances");
+        int from = directory.locate(user.id());
+        int to = (from + 1) % shards.shardCount();
+        JdbcTemplate directoryDatabase = new JdbcTemplate(shards.pool(ShardContext.DIRECTORY));
+        directoryDatabase.update("INSERT INTO shard_instances (instance_id, seen_at) VALUES ('other', ?)",
+                Timestamp.from(Instant.now()));
+        try {
+            given()
+                    .header("Authorization", bearer(adminToken))
+                    .when()
+                    .post("/api/admin/shards/users/" + user.id() + "?shard=" + to)
+                    .then()
+                    .statusCode(409);
+            given()
+                    .header("Authorization", bearer(adminToken))
+                    .when()
+                    .post("/api/admin/shards/rebalance")
+                    .then()
+                    .statusCode(409);
+        } finally {
+            directoryDatabase.update("DELETE FROM shard_instances WHERE instance_id = 'other'");
+        }
+
+        assertThat(directory.locate(user.id())).isEqualTo(from);
+    }
+
+    @Test
+    @DisplayName("Shard administration should require the ADMIN role")
+    void shouldRequireAdminRole() {
+        Account user = register("notadmin");
+
+        given()
+                .header("Authorization", bearer(user.token()))
+                .when()
+                .get("/api/admin/shards")
+                .then()
+                .statusCode(403);
+        given()
+                .header("Authorization", bearer(adminToken))
+                .when()
+                .get("/api/admin/shards")
+                .then()
+                .statusCode(200);
+    }
+
+    @Test
+    @DisplayName("Account reads on a user's shard should see changes made in the directory")
+    void shouldReadAccountFromDirectory() {
+        Account user = register("renamed");
+        new JdbcTemplate(shards.pool(ShardContext.DIRECTORY))
+                .update("UPDATE users SET email = 'changed@example.com' WHERE id = ?", user.id());
+
+        String email = ShardContext.callOn(directory.locate(user.id()),
+                () -> userService.getUserById(user.id()).getEmail());
+
+        assertThat(email).isEqualTo("changed@example.com");
+    }
+
+    @Test
+    @DisplayName("The sharding tables should only exist in the directory database")
+    void shouldKeepDirectoryTablesOffShards() {
+        assertThat(directoryTablesAt(ShardContext.DIRECTORY)).isEqualTo(2);
+        for (int shard = 0; shard < shards.shardCount(); shard++) {
+            assertThat(directoryTablesAt(shard)).isZero();
+        }
+    }
+
+    private record Account(long id, String username, String token) {
+    }
+
+    private Account register(String name) {
+        String username = name + "_" + USERS.incrementAndGet();
+        long id = given()
+                .body(String.format("""
+                        {"username": "%s", "password": "password123", "email": "%s@example.com"}
+                        """, username, username))
+                .when()
+                .post("/api/auth/register")
+                .then()
+                .statusCode(200)
+                .extract()
+                .jsonPath()
+                .getLong("id");
+        return new Account(id, username, login(username));
+    }
+
+    private String login(String username) {
+        return extractToken(given()
+                .body(String.format("""
+                        {"username": "%s", "password": "password123"}
+                        """, username))
+                .when()
+                .post("/api/auth/login")
+                .then()
+                .statusCode(200)
+                .extract()
+                .asString());
+    }
+
+    private long createTask(Account user, String title) {
+        return given()
+                .header("Authorization", bearer(user.token()))
+                .body("{\"title\": \"" + title + "\"}")
+                .when()
+                .post("/api/tasks")
+                .then()
+                .statusCode(201)
+                .extract()
+                .jsonPath()
+                .getLong("id");
+    }
+
+    private int tasksAt(int location, long taskId) {
+        return new JdbcTemplate(shards.pool(location))
+                .queryForObject("SELECT COUNT(*) FROM tasks WHERE id = ?", Integer.class, taskId);
+    }
+
+    private int directoryTablesAt(int location) {
+        return new JdbcTemplate(shards.pool(location)).queryForObject("""
+                SELECT COUNT(*) FROM information_schema.tables
+                WHERE table_schema = 'PUBLIC' AND table_name IN ('USER_SHARDS', 'SHARD_INSTANCES')
+                """, Integer.class);
+    }
+}
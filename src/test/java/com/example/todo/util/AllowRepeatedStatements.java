@@ -0,0 +1,17 @@
+package com.example.todo.util;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Exempts a test method or class from the N+1 check of {@link SqlRecorder}, for requests that
+ * repeat a statement on purpose, e.g. an import inserting one chunk after the other.
+ */
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface AllowRepeatedStatements {
+}
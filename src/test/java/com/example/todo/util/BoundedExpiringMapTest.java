@@ -0,0 +1,71 @@
+package com.example.todo.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedExpiringMapTest {
+
+    @Test
+    void shouldFreeATenthOfTheCapacityWhenFull() {
+        BoundedExpiringMap<Integer, String> map = new BoundedExpiringMap<>(20);
+
+        for (int i = 0; i < 20; i++) {
+            map.put(i, "value-" + i);
+        }
+        map.put(20, "value-20");
+
+        assertEquals(19, map.size());
+        assertEquals("value-20", map.get(20));
+    }
+
+    @Test
+    void shouldPurgeExpiredValuesBeforeOthers() {
+        BoundedExpiringMap<Integer, String> map = new BoundedExpiringMap<>(10, value -> value.startsWith("expired"));
+
+        for (int i = 0; i < 9; i++) {
+            map.put(i, "live-" + i);
+        }
+        map.put(9, "expired-9");
+        map.put(10, "live-10");
+
+        assertEquals(10, map.size());
+        assertNull(map.get(9));
+        for (int i = 0; i <= 10; i++) {
+            if (i != 9) {
+                assertEquals("live-" + i, map.get(i));
+            }
+        }
+    }
+
+    @Test
+    void shouldNeverReturnExpiredValues() {
+        BoundedExpiringMap<String, String> map = new BoundedExpiringMap<>(10, "stale"::equals);
+        map.put("key", "stale");
+
+        assertNull(map.get("key"));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    void shouldCreateMissingValueOnceAndStayBounded() {
+        BoundedExpiringMap<Integer, String> map = new BoundedExpiringMap<>(10);
+
+        assertEquals("created-1", map.computeIfAbsent(1, key -> "created-" + key));
+        assertEquals("created-1", map.computeIfAbsent(1, key -> fail("should not create twice")));
+        for (int i = 2; i <= 20; i++) {
+            map.computeIfAbsent(i, key -> "created-" + key);
+        }
+
+        assertTrue(map.size() <= 10);
+    }
+
+    @Test
+    void shouldHoldNothingWhenDisabled() {
+        BoundedExpiringMap<String, String> map = new BoundedExpiringMap<>(0);
+        map.put("key", "value");
+
+        assertNull(map.get("key"));
+        assertEquals(0, map.size());
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.todo.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Stand-in for replication between local H2 databases: copies the whole primary, schema and
+ * data, onto each replica when a test says so. Between two calls the replicas lag behind.
+ */
+public final class H2ReplicaSync {
+
+    private H2ReplicaSync() {
+    }
+
+    public static void copy(String primaryUrl, List<String> replicaUrls) {
+        try {
+            Path script = Files.createTempFile("h2-replica", ".sql");
+            try {
+                try (Connection primary = DriverManager.getConnection(primaryUrl, "sa", "");
+                     Statement statement = primary.createStatement()) {
+                    statement.execute("SCRIPT TO '" + script + "'");
+                }
+                for (String replicaUrl : replicaUrls) {
+                    try (Connection replica = DriverManager.getConnection(replicaUrl, "sa", "");
+                         Statement statement = replica.createStatement()) {
+                        statement.execute("DROP ALL OBJECTS");
+                        statement.execute("RUNSCRIPT FROM '" + script + "'");
+                    }
+                }
+            } finally {
+                Files.deleteIfExists(script);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not copy " + primaryUrl + " to the replicas", e);
+        }
+    }
+
+    /**
+     * Runs one statement on a single database, to make it differ from the others.
+     */
+    public static void execute(String url, String sql, Object... parameters) {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             var statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not run " + sql + " on " + url, e);
+        }
+    }
+}
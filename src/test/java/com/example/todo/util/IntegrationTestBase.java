@@ -4,19 +4,28 @@ import com.example.todo.dto.user.UserLoginRequest;
 import com.example.todo.dto.user.UserRegisterRequest;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.TestInfo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.List;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 
 @SpringBootTest
 @AutoConfigureMockMvc
 @ActiveProfiles("test")
+@Import(SqlRecordingConfig.class)
 public abstract class IntegrationTestBase {
 
     @Autowired
@@ -25,6 +34,27 @@ public abstract class IntegrationTestBase {
     @Autowired
     protected ObjectMapper objectMapper;
 
+    @BeforeEach
+    public void resetRecordedStatements() {
+        SqlRecorder.reset();
+    }
+
+    @AfterEach
+    public void failOnRepeatedStatements(TestInfo testInfo) {
+        SqlRecorder.assertNoRepeatedStatements(testInfo);
+    }
+
+    /**
+     * Performs the request and fails if it executed more than {@code maxStatements} SQL statements.
+     */
+    protected ResultActions withinStatementBudget(int maxStatements, RequestBuilder request) throws Exception {
+        int before = SqlRecorder.requests().size();
+        ResultActions result = mockMvc.perform(request);
+        List<SqlRecorder.Request> requests = SqlRecorder.requests();
+        SqlRecorder.assertWithinBudget(requests.subList(before, requests.size()), maxStatements);
+        return result;
+    }
+
     protected String registerAndLogin(String username, String password, String email) throws Exception {
         UserRegisterRequest registerRequest = UserRegisterRequest.builder()
                 .username(username)
@@ -6,20 +6,29 @@ import io.restassured.filter.log.RequestLoggingFilter;
 import io.restassured.filter.log.ResponseLoggingFilter;
 import io.restassured.http.ContentType;
 import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.TestInfo;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
-import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.annotation.Import;
 import org.springframework.core.env.Environment;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.List;
+import java.util.function.Supplier;
+
 /**
  * Base class for RestAssured API tests.
  * Provides common configuration and setup for all API integration tests.
+ * The SQL of every request is recorded by {@link SqlRecorder}; a test fails when one of its
+ * requests runs the same statement over and over (see {@link AllowRepeatedStatements}).
  */
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("test")
+@Import(SqlRecordingConfig.class)
 public abstract class RestAssuredTestBase {
 
     @LocalServerPort
@@ -29,7 +38,7 @@ public abstract class RestAssuredTestBase {
     private Environment environment;
 
     @Autowired
-    private ServletWebServerApplicationContext webServerApplicationContext;
+    private WebServerApplicationContext webServerApplicationContext;
 
     /**
      * Setup for each test method.
@@ -65,6 +74,31 @@ public abstract class RestAssuredTestBase {
                 .setRelaxedHTTPSValidation()
                 .setPort(resolvedPort);
         RestAssured.requestSpecification = requestSpecBuilder.build();
+        SqlRecorder.reset();
+    }
+
+    /**
+     * Fails the test if one of its requests executed an N+1 pattern.
+     */
+    @AfterEach
+    public void failOnRepeatedStatements(TestInfo testInfo) {
+        SqlRecorder.assertNoRepeatedStatements(testInfo);
+    }
+
+    /**
+     * Helper method to assert how many SQL statements a request may execute, e.g.
+     * {@code withinStatementBudget(2, () -> given().get("/api/tasks").then().statusCode(200))}.
+     *
+     * @param maxStatements the most statements each request made by {@code call} may execute
+     * @param call the requests, returning what the test needs from the response
+     * @return the result of {@code call}
+     */
+    protected <T> T withinStatementBudget(int maxStatements, Supplier<T> call) {
+        int before = SqlRecorder.requests().size();
+        T result = call.get();
+        List<SqlRecorder.Request> requests = SqlRecorder.requests();
+        SqlRecorder.assertWithinBudget(requests.subList(before, requests.size()), maxStatements);
+        return result;
     }
 
     /**
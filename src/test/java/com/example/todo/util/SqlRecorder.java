@@ -0,0 +1,187 @@
+package com.example.todo.util;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.junit.jupiter.api.TestInfo;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The SQL statements each HTTP request executed through the application's data source, as
+ * registered by {@link SqlRecordingConfig}. Every execution counts once, a JDBC batch included;
+ * statements run outside a request thread (Flyway, scheduled jobs, the tests' own
+ * {@code JdbcTemplate}, asynchronously written responses) are not attributed to any request.
+ * <p>
+ * A request that executes the same statement shape {@code sql.repeated-threshold} times or more
+ * (default 10) is taken for a query per row, an N+1, and fails the test unless it is annotated
+ * with {@link AllowRepeatedStatements}.
+ */
+public final class SqlRecorder {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final List<Request> REQUESTS = new CopyOnWriteArrayList<>();
+    private static final ThreadLocal<Request> CURRENT = new ThreadLocal<>();
+
+    private SqlRecorder() {
+    }
+
+    /**
+     * One request and the statements it has executed so far.
+     */
+    public static final class Request {
+
+        private final String method;
+        private final String uri;
+        private final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+
+        Request(String method, String uri) {
+            this.method = method;
+            this.uri = uri;
+        }
+
+        public List<String> statements() {
+            synchronized (statements) {
+                return List.copyOf(statements);
+            }
+        }
+
+        /**
+         * Statement shapes executed at least {@code threshold} times, with their counts.
+         */
+        public Map<String, Long> repeatedShapes(int threshold) {
+            return statements().stream()
+                    .collect(Collectors.groupingBy(SqlRecorder::shape, LinkedHashMap::new, Collectors.counting()))
+                    .entrySet().stream()
+                    .filter(entry -> entry.getValue() >= threshold)
+                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, Long::sum, LinkedHashMap::new));
+        }
+
+        @Override
+        public String toString() {
+            return method + " " + uri;
+        }
+    }
+
+    public static void reset() {
+        REQUESTS.clear();
+    }
+
+    /**
+     * Requests in the order they started.
+     */
+    public static List<Request> requests() {
+        return List.copyOf(REQUESTS);
+    }
+
+    public static Request lastRequest() {
+        assertThat(REQUESTS).as("recorded requests").isNotEmpty();
+        return REQUESTS.get(REQUESTS.size() - 1);
+    }
+
+    /**
+     * The statement with its literals replaced by {@code ?}, parameter lists collapsed and
+     * whitespace normalized, so that the same query for different rows has the same shape.
+     */
+    public static String shape(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = PARAMETER_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Fails unless every request in {@code requests} executed at most {@code maxStatements} statements.
+     */
+    public static void assertWithinBudget(List<Request> requests, int maxStatements) {
+        assertThat(requests).as("requests made").isNotEmpty();
+        for (Request request : requests) {
+            assertThat(request.statements())
+                    .as("%s statement count", request)
+                    .hasSizeLessThanOrEqualTo(maxStatements);
+        }
+    }
+
+    /**
+     * Fails when a request of the current test repeated a statement shape, unless the test
+     * method or class is annotated with {@link AllowRepeatedStatements}.
+     */
+    public static void assertNoRepeatedStatements(TestInfo testInfo) {
+        boolean allowed = testInfo.getTestMethod()
+                .map(method -> method.isAnnotationPresent(AllowRepeatedStatements.class))
+                .orElse(false)
+                || testInfo.getTestClass()
+                .map(type -> type.isAnnotationPresent(AllowRepeatedStatements.class))
+                .orElse(false);
+        if (allowed) {
+            return;
+        }
+        int threshold = Integer.getInteger("sql.repeated-threshold", 10);
+        for (Request request : REQUESTS) {
+            assertThat(request.repeatedShapes(threshold))
+                    .as("%s executed the same statement %d times or more, one query per row (N+1)?", request, threshold)
+                    .isEmpty();
+        }
+    }
+
+    /**
+     * Adds each execution on a request thread to that request.
+     */
+    static final class Listener implements QueryExecutionListener {
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            Request request = CURRENT.get();
+            if (request != null) {
+                request.statements.add(queryInfoList.stream()
+                        .map(QueryInfo::getQuery)
+                        .distinct()
+                        .collect(Collectors.joining("; ")));
+            }
+        }
+    }
+
+    /**
+     * Makes each request's statements its own. The request is published when it starts, so
+     * by the time a client has the response its statements are visible to the test.
+     */
+    static final class RecordingFilter extends OncePerRequestFilter {
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            Request recorded = new Request(request.getMethod(), request.getRequestURI());
+            REQUESTS.add(recorded);
+            CURRENT.set(recorded);
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                CURRENT.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.todo.util;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class SqlRecorderTest {
+
+    private final SqlRecorder.Listener listener = new SqlRecorder.Listener();
+
+    @BeforeEach
+    void setUp() {
+        SqlRecorder.reset();
+    }
+
+    @Test
+    @DisplayName("Should give the same query for different rows the same shape")
+    void shouldNormalizeLiterals() {
+        assertThat(SqlRecorder.shape("SELECT *  FROM tasks\n WHERE user_id = 42 AND title = 'It''s'"))
+                .isEqualTo(SqlRecorder.shape("select * from tasks where user_id = 7 and title = 'other'"))
+                .isEqualTo("select * from tasks where user_id = ? and title = ?");
+        assertThat(SqlRecorder.shape("select t1_0.id from tasks t1_0 where t1_0.id in (?, ?, ?)"))
+                .isEqualTo("select t1_0.id from tasks t1_0 where t1_0.id in (?)");
+    }
+
+    @Test
+    @DisplayName("Should attribute statements to the request whose thread ran them")
+    void shouldRecordStatementsPerRequest() throws Exception {
+        execute("GET", "/api/tasks", List.of("select count(*) from tasks", "select * from tasks"));
+        listener.afterQuery(new ExecutionInfo(), List.of(new QueryInfo("select 1")));
+
+        assertThat(SqlRecorder.requests()).hasSize(1);
+        SqlRecorder.Request request = SqlRecorder.lastRequest();
+        assertThat(request).hasToString("GET /api/tasks");
+        assertThat(request.statements()).containsExactly("select count(*) from tasks", "select * from tasks");
+    }
+
+    @Test
+    @DisplayName("Should report a statement shape repeated once per row")
+    void shouldDetectRepeatedStatements() throws Exception {
+        execute("GET", "/api/tasks", IntStream.range(0, 12)
+                .mapToObj(id -> "select * from users where id = " + id)
+                .toList());
+
+        assertThat(SqlRecorder.lastRequest().repeatedShapes(10))
+                .containsExactly(entry("select * from users where id = ?", 12L));
+        assertThat(SqlRecorder.lastRequest().repeatedShapes(13)).isEmpty();
+    }
+
+    private void execute(String method, String uri, List<String> statements) throws Exception {
+        new SqlRecorder.RecordingFilter().doFilter(
+                new MockHttpServletRequest(method, uri),
+                new MockHttpServletResponse(),
+                (request, response) -> statements.forEach(sql ->
+                        listener.afterQuery(new ExecutionInfo(), List.of(new QueryInfo(sql)))));
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.todo.util;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Routes the application's {@code dataSource} bean through a datasource-proxy that reports
+ * every execution to {@link SqlRecorder}, and registers the filter that tells requests apart.
+ * Other data sources (replica and shard pools, the routing data sources) stay as they are;
+ * only what goes through the {@code dataSource} bean is counted.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class SqlRecordingConfig {
+
+    @Bean
+    static BeanPostProcessor sqlRecordingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name("sql-recorder")
+                            .listener(new SqlRecorder.Listener())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    FilterRegistrationBean<SqlRecorder.RecordingFilter> sqlRecordingFilter() {
+        FilterRegistrationBean<SqlRecorder.RecordingFilter> registration =
+                new FilterRegistrationBean<>(new SqlRecorder.RecordingFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.todo.util;
+
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.hasSize;
+
+/**
+ * The part of the API that both the servlet and the reactive application serve: registration,
+ * login, and creating, reading, paging, updating and deleting one's own tasks. Each stack
+ * runs it through a subclass, so the two cannot drift apart unnoticed.
+ */
+public abstract class TaskApiContractTestBase extends RestAssuredTestBase {
+
+    @Test
+    @DisplayName("Contract: register returns the user and login returns a bearer token")
+    void shouldRegisterAndLogin() {
+        long timestamp = System.currentTimeMillis();
+        String username = "contract_" + timestamp;
+
+        given()
+                .body(String.format("""
+                    {"username": "%s", "password": "Password123!", "email": "%s@example.com"}
+                    """, username, username))
+                .when()
+                .post("/api/auth/register")
+                .then()
+                .statusCode(200)
+                .contentType(ContentType.JSON)
+                .body("username", equalTo(username))
+                .body("$", hasKey("id"))
+                .body("$", not(hasKey("password")));
+
+        given()
+                .body(String.format("""
+                    {"username": "%s", "password": "Password123!"}
+                    """, username))
+                .when()
+                .post("/api/auth/login")
+                .then()
+                .statusCode(200)
+                .body("token", notNullValue())
+                .body("type", equalTo("Bearer"));
+    }
+
+    @Test
+    @DisplayName("Contract: duplicate username is a conflict, wrong password is unauthorized")
+    void shouldRejectDuplicateUserAndBadCredentials() {
+        long timestamp = System.currentTimeMillis();
+        String body = String.format("""
+            {"username": "dup_%d", "password": "Password123!", "email": "dup_%d@example.com"}
+            """, timestamp, timestamp);
+        given().body(body).when().post("/api/auth/register").then().statusCode(200);
+
+        given()
+                .body(body)
+                .when()
+                .post("/api/auth/register")
+                .then()
+                .statusCode(409)
+                .body("error", equalTo("Username already exists"));
+
+        given()
+                .body(String.format("""
+                    {"username": "dup_%d", "password": "WrongPassword!"}
+                    """, timestamp))
+                .when()
+                .post("/api/auth/login")
+                .then()
+                .statusCode(401)
+                .body("error", equalTo("Invalid credentials"));
+    }
+
+    @Test
+    @DisplayName("Contract: create, read, update and delete a task")
+    void shouldCreateReadUpdateAndDeleteTask() {
+        String token = registerAndLogin("crud", "Password123!", "crud@example.com");
+
+        Integer id = given()
+                .header("Authorization", bearer(token))
+                .body("""
+                    {"title": "Contract task", "description": "Both stacks", "priority": "HIGH", "dueDate": "2030-01-15"}
+                    """)
+                .when()
+                .post("/api/tasks")
+                .then()
+                .statusCode(201)
+                .body("title", equalTo("Contract task"))
+                .body("description", equalTo("Both stacks"))
+                .body("priority", equalTo("HIGH"))
+                .body("status", equalTo("TODO"))
+                .body("dueDate", equalTo("2030-01-15"))
+                .body("$", hasKey("createdAt"))
+                .extract()
+                .path("id");
+
+        given()
+                .header("Authorization", bearer(token))
+                .when()
+                .get("/api/tasks/" + id)
+                .then()
+                .statusCode(200)
+                .body("id", equalTo(id))
+                .body("title", equalTo("Contract task"));
+
+        given()
+                .header("Authorization", bearer(token))
+                .body("""
+                    {"status": "DONE", "title": "Renamed"}
+                    """)
+                .when()
+                .patch("/api/tasks/" + id)
+                .then()
+                .statusCode(200)
+                .body("status", equalTo("DONE"))
+                .body("title", equalTo("Renamed"))
+                .body("description", equalTo("Both stacks"));
+
+        given()
+                .header("Authorization", bearer(token))
+                .when()
+                .delete("/api/tasks/" + id)
+                .then()
+                .statusCode(200);
+
+        given()
+                .header("Authorization", bearer(token))
+                .when()
+                .get("/api/tasks/" + id)
+                .then()
+                .statusCode(404)
+                .body("error", equalTo("Task not found"));
+    }
+
+    @Test
+    @DisplayName("Contract: tasks are paged newest first")
+    void shouldPageTasksNewestFirst() {
+        String token = registerAndLogin("paging", "Password123!", "paging@example.com");
+        for (int i = 1; i <= 3; i++) {
+            given()
+                    .header("Authorization", bearer(token))
+                    .body("{\"title\": \"Task " + i + "\"}")
+                    .when()
+                    .post("/api/tasks")
+                    .then()
+                    .statusCode(201);
+        }
+
+        given()
+                .header("Authorization", bearer(token))
+                .queryParam("page", 0)
+                .queryParam("size", 2)
+                .when()
+                .get("/api/tasks")
+                .then()
+                .statusCode(200)
+                .body("content", hasSize(2))
+                .body("content[0].title", equalTo("Task 3"))
+                .body("number", equalTo(0))
+                .body("size", equalTo(2))
+                .body("totalElements", equalTo(3))
+                .body("totalPages", equalTo(2))
+                .body("first", equalTo(true))
+                .body("last", equalTo(false));
+
+        given()
+                .header("Authorization", bearer(token))
+                .queryParam("page", 1)
+                .queryParam("size", 2)
+                .when()
+                .get("/api/tasks")
+                .then()
+                .statusCode(200)
+                .body("content", hasSize(1))
+                .body("content[0].title", equalTo("Task 1"))
+                .body("last", equalTo(true));
+    }
+
+    @Test
+    @DisplayName("Contract: other users' tasks are not found")
+    void shouldNotExposeOtherUsersTasks() {
+        String owner = registerAndLogin("owner", "Password123!", "owner@example.com");
+        String other = registerAndLogin("other", "Password123!", "other@example.com");
+        Integer id = given()
+                .header("Authorization", bearer(owner))
+                .body("{\"title\": \"Private\"}")
+                .when()
+                .post("/api/tasks")
+                .then()
+                .statusCode(201)
+                .extract()
+                .path("id");
+
+        given().header("Authorization", bearer(other)).when().get("/api/tasks/" + id).then().statusCode(404);
+        given()
+                .header("Authorization", bearer(other))
+                .body("{\"title\": \"Taken\"}")
+                .when()
+                .patch("/api/tasks/" + id)
+                .then()
+                .statusCode(404);
+        given().header("Authorization", bearer(other)).when().delete("/api/tasks/" + id).then().statusCode(404);
+        given()
+                .header("Authorization", bearer(other))
+                .when()
+                .get("/api/tasks")
+                .then()
+                .statusCode(200)
+                .body("totalElements", equalTo(0));
+    }
+
+    @Test
+    @DisplayName("Contract: invalid input is a bad request")
+    void shouldRejectInvalidInput() {
+        String token = registerAndLogin("invalid", "Password123!", "invalid@example.com");
+
+        given()
+                .header("Authorization", bearer(token))
+                .body("{\"description\": \"No title\"}")
+                .when()
+                .post("/api/tasks")
+                .then()
+                .statusCode(400)
+                .body("title", equalTo("Title is required"));
+
+        given()
+                .header("Authorization", bearer(token))
+                .body("{\"title\": \"Bad priority\", \"priority\": \"URGENT\"}")
+                .when()
+                .post("/api/tasks")
+                .then()
+                .statusCode(400)
+                .body("error", equalTo("Invalid request body"));
+
+        given()
+                .header("Authorization", bearer(token))
+                .queryParam("size", 0)
+                .when()
+                .get("/api/tasks")
+                .then()
+                .statusCode(400)
+                .body("error", notNullValue());
+    }
+
+    @Test
+    @DisplayName("Contract: task endpoints require a token")
+    void shouldRejectRequestsWithoutToken() {
+        given().when().get("/api/tasks").then().statusCode(403);
+        given().body("{\"title\": \"Anonymous\"}").when().post("/api/tasks").then().statusCode(403);
+    }
+}
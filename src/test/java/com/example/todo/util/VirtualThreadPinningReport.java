@@ -0,0 +1,126 @@
+package com.example.todo.util;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestPlan;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records every time a virtual thread stays pinned to its carrier thread while blocking
+ * (JFR event {@code jdk.VirtualThreadPinned}) during a test run, and writes the pinning
+ * sites with their counts and durations to {@code pinning-<pid>.txt} in the directory
+ * given by the {@code pinning.report.dir} system property. The {@code java21} Maven profile
+ * sets it; without it, or before Java 21, the listener does nothing.
+ * <p>
+ * Pinning shorter than {@code pinning.threshold-ms} (default 20, as in the JDK) is ignored.
+ * Registered through {@code META-INF/services}.
+ */
+public class VirtualThreadPinningReport implements TestExecutionListener {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int SITE_FRAMES = 12;
+
+    private Recording recording;
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        if (System.getProperty("pinning.report.dir") == null || Runtime.version().feature() < 21) {
+            return;
+        }
+        recording = new Recording();
+        recording.setName("virtual-thread-pinning");
+        recording.enable(PINNED_EVENT)
+                .withThreshold(Duration.ofMillis(Long.getLong("pinning.threshold-ms", 20)))
+                .withStackTrace();
+        recording.start();
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        if (recording == null) {
+            return;
+        }
+        try {
+            recording.stop();
+            Path dir = Files.createDirectories(Path.of(System.getProperty("pinning.report.dir")));
+            Path jfr = dir.resolve("pinning-" + ProcessHandle.current().pid() + ".jfr");
+            recording.dump(jfr);
+            List<Site> sites = sites(RecordingFile.readAllEvents(jfr));
+            Path report = dir.resolve("pinning-" + ProcessHandle.current().pid() + ".txt");
+            Files.writeString(report, format(sites));
+            long events = sites.stream().mapToLong(Site::count).sum();
+            System.out.printf("Virtual thread pinning: %d events at %d sites, see %s%n", events, sites.size(), report);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            recording.close();
+        }
+    }
+
+    /**
+     * Groups the events by the top of their stack, longest total pinning first.
+     */
+    private static List<Site> sites(List<RecordedEvent> events) {
+        Map<String, Site> byStack = new LinkedHashMap<>();
+        for (RecordedEvent event : events) {
+            String stack = stack(event);
+            Site site = byStack.getOrDefault(stack, new Site(stack, 0, Duration.ZERO, Duration.ZERO));
+            Duration duration = event.getDuration();
+            byStack.put(stack, new Site(stack,
+                    site.count() + 1,
+                    site.total().plus(duration),
+                    duration.compareTo(site.max()) > 0 ? duration : site.max()));
+        }
+        List<Site> sites = new ArrayList<>(byStack.values());
+        sites.sort(Comparator.comparing(Site::total).reversed());
+        return sites;
+    }
+
+    private static String stack(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "    (no stack trace)\n";
+        }
+        StringBuilder stack = new StringBuilder();
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        for (RecordedFrame frame : frames.subList(0, Math.min(SITE_FRAMES, frames.size()))) {
+            stack.append("    at ")
+                    .append(frame.getMethod().getType().getName())
+                    .append('.')
+                    .append(frame.getMethod().getName())
+                    .append(':')
+                    .append(frame.getLineNumber())
+                    .append('\n');
+        }
+        return stack.toString();
+    }
+
+    private static String format(List<Site> sites) {
+        if (sites.isEmpty()) {
+            return "No virtual thread pinning recorded.\n";
+        }
+        StringBuilder report = new StringBuilder();
+        for (Site site : sites) {
+            report.append(String.format("%d times, %d ms in total, %d ms at most%n",
+                            site.count(), site.total().toMillis(), site.max().toMillis()))
+                    .append(site.stack())
+                    .append('\n');
+        }
+        return report.toString();
+    }
+
+    private record Site(String stack, long count, Duration total, Duration max) {
+    }
+}
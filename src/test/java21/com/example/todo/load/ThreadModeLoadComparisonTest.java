@@ -0,0 +1,65 @@
+package com.example.todo.load;
+
+import com.example.todo.TodoApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the same mixed workload against the application served by Tomcat's platform thread
+ * pool and by virtual threads, and reports throughput and latency percentiles of both to
+ * stdout and {@code target/load-comparison.txt}. Nothing is asserted about the numbers:
+ * they depend on the machine, and the point is to compare the two modes on the same one.
+ * <p>
+ * Clients run on virtual threads and mostly read first pages (served from the read cache)
+ * and cursor pages (read from H2); some create tasks and {@code load.login-percent} (5)
+ * log in, which spends its time in BCrypt. See {@link LoadDriver} for the other settings.
+ * <p>
+ * Run with {@code mvn -Pjava21 test-compile surefire:test@load-tests}.
+ */
+@Tag("load")
+class ThreadModeLoadComparisonTest {
+
+    private static final int LOGIN_PERCENT = Integer.getInteger("load.login-percent", 5);
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        LoadDriver.Result platform = run(false);
+        LoadDriver.Result virtual = run(true);
+
+        String report = LoadDriver.report("Tomcat platform threads vs virtual threads, "
+                + LOGIN_PERCENT + "% logins", List.of(platform, virtual));
+        System.out.println(report);
+        Files.writeString(Path.of("target", "load-comparison.txt"), report);
+
+        assertTrue(platform.requests() > 0 && virtual.requests() > 0, "no requests completed");
+    }
+
+    private LoadDriver.Result run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        // Command-line arguments, so they win over the system properties of the java21 profile.
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(TodoApplication.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.datasource.url=jdbc:h2:mem:load-" + mode + ";DB_CLOSE_DELAY=-1",
+                "--logging.level.root=WARN")) {
+            int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+            LoadDriver driver = new LoadDriver("http://localhost:" + port, List.of(
+                    new LoadDriver.Weighted(LOGIN_PERCENT, LoadDriver.Client::login),
+                    new LoadDriver.Weighted(15, client -> client.post("/api/tasks", "{\"title\": \"Load\"}").statusCode() == 201),
+                    new LoadDriver.Weighted(40, client -> client.get("/api/tasks?cursor=&size=20").statusCode() == 200),
+                    new LoadDriver.Weighted(100 - 55 - LOGIN_PERCENT,
+                            client -> client.get("/api/tasks?page=0&size=20").statusCode() == 200)));
+            return driver.run(mode, Executors.newVirtualThreadPerTaskExecutor());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.reactive.todo;
+
+import com.example.todo.util.TaskApiContractTestBase;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * The shared task API contract against {@link ReactiveTodoApplication}, on top of the
+ * {@code test} profile; run with the {@code reactive} Maven profile.
+ */
+@ActiveProfiles("reactive")
+class ReactiveTaskApiContractRestAssuredTest extends TaskApiContractTestBase {
+}
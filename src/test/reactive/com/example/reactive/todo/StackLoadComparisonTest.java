@@ -0,0 +1,74 @@
+package com.example.reactive.todo;
+
+import com.example.todo.TodoApplication;
+import com.example.todo.load.LoadDriver;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the same workload against the servlet application (Tomcat, JPA) and the reactive one
+ * (Netty, R2DBC), and reports throughput and latency percentiles of both to stdout and
+ * {@code target/stack-comparison.txt}. Nothing is asserted about the numbers; compare the
+ * stacks on the same machine, with the same {@link LoadDriver} settings.
+ * <p>
+ * The mix only uses endpoints both serve: logins, creates, and first and second pages of
+ * tasks. Run with {@code mvn -Preactive test-compile surefire:test@load-tests}; add
+ * {@code -Pjava21} to give the servlet application virtual threads.
+ */
+@Tag("load")
+class StackLoadComparisonTest {
+
+    private static final int LOGIN_PERCENT = Integer.getInteger("load.login-percent", 5);
+
+    @Test
+    void compareServletAndReactiveStacks() throws Exception {
+        LoadDriver.Result servlet;
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(TodoApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:load-servlet;DB_CLOSE_DELAY=-1",
+                "--logging.level.root=WARN")) {
+            servlet = run("servlet", app);
+        }
+        LoadDriver.Result reactive;
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(ReactiveTodoApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles("reactive")
+                .run(
+                        "--server.port=0",
+                        "--spring.r2dbc.url=r2dbc:h2:mem:///load-reactive?options=DB_CLOSE_DELAY=-1",
+                        "--spring.flyway.url=jdbc:h2:mem:load-reactive;DB_CLOSE_DELAY=-1",
+                        "--logging.level.root=WARN")) {
+            reactive = run("reactive", app);
+        }
+
+        String report = LoadDriver.report("Servlet + JPA vs WebFlux + R2DBC, "
+                + LOGIN_PERCENT + "% logins", List.of(servlet, reactive));
+        System.out.println(report);
+        Files.writeString(Path.of("target", "stack-comparison.txt"), report);
+
+        assertTrue(servlet.requests() > 0 && reactive.requests() > 0, "no requests completed");
+    }
+
+    private LoadDriver.Result run(String label, ConfigurableApplicationContext app) throws Exception {
+        int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+        LoadDriver driver = new LoadDriver("http://localhost:" + port, List.of(
+                new LoadDriver.Weighted(LOGIN_PERCENT, LoadDriver.Client::login),
+                new LoadDriver.Weighted(15, client -> client.post("/api/tasks", "{\"title\": \"Load\"}").statusCode() == 201),
+                new LoadDriver.Weighted(30, client -> client.get("/api/tasks?page=1&size=2").statusCode() == 200),
+                new LoadDriver.Weighted(100 - 45 - LOGIN_PERCENT,
+                        client -> client.get("/api/tasks?page=0&size=20").statusCode() == 200)));
+        // Platform threads for the clients, so the comparison also runs without Java 21.
+        return driver.run(label, Executors.newFixedThreadPool(LoadDriver.CLIENTS));
+    }
+}